@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_msgs.GoalID;
+import actionlib_msgs.GoalStatus;
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.exception.RosException;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wrapping of goal and result messages into their action messages and
+ * unwrapping them again through the reflective accessors of
+ * {@link ActionSpec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionSpecBenchmark {
+
+  private ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec;
+  private FibonacciGoal goal;
+  private FibonacciResult result;
+  private GoalID goalID;
+  private GoalStatus goalStatus;
+  private Time time;
+  private FibonacciActionGoal actionGoal;
+  private FibonacciActionResult actionResult;
+
+  @Setup
+  public void setUp() throws RosException {
+    spec = Fibonacci.newSpec();
+    MessageFactory messageFactory = SharedMessageFactory.get();
+    time = new Time(1, 0);
+    goalID = messageFactory.newFromType(GoalID._TYPE);
+    goalID.setId("benchmark-goal");
+    goalID.setStamp(time);
+    goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+    goalStatus.setGoalId(goalID);
+    goalStatus.setStatus(GoalStatus.SUCCEEDED);
+    goal = spec.createGoalMessage();
+    goal.setOrder(10);
+    result = spec.createResultMessage();
+    actionGoal = spec.createActionGoalMessage(goal, time, goalID);
+    actionResult = spec.createActionResultMessage(result, time, goalStatus);
+  }
+
+  @Benchmark
+  public FibonacciActionGoal wrapGoal() {
+    return spec.createActionGoalMessage(goal, time, goalID);
+  }
+
+  @Benchmark
+  public FibonacciGoal unwrapGoal() throws RosException {
+    return spec.getGoalFromActionGoal(actionGoal);
+  }
+
+  @Benchmark
+  public GoalID unwrapGoalID() throws RosException {
+    return spec.getGoalIDFromActionGoal(actionGoal);
+  }
+
+  @Benchmark
+  public FibonacciActionResult wrapResult() {
+    return spec.createActionResultMessage(result, time, goalStatus);
+  }
+
+  @Benchmark
+  public FibonacciResult unwrapResult() throws RosException {
+    return spec.getResultFromActionResult(actionResult);
+  }
+
+  @Benchmark
+  public GoalStatus unwrapResultStatus() throws RosException {
+    return spec.getGoalStatusFromActionResult(actionResult);
+  }
+
+}
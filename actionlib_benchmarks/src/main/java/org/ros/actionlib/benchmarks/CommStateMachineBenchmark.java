@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_msgs.GoalID;
+import actionlib_msgs.GoalStatus;
+import actionlib_msgs.GoalStatusArray;
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.client.ActionClient;
+import org.ros.actionlib.client.ClientGoalHandle;
+import org.ros.actionlib.client.CommStateMachine;
+import org.ros.actionlib.client.GoalManager;
+import org.ros.actionlib.state.CommState;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.exception.RosException;
+import org.ros.message.MessageFactory;
+import org.ros.node.ConnectedNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing of a status array by the client's CommStateMachines with a
+ * growing number of tracked goals. All goals are reported as active, so the
+ * state machines stay in a steady state and only the cost of finding and
+ * evaluating the status of each goal is measured. Additionally the cost of
+ * the transitions through the lifecycle of a single goal is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommStateMachineBenchmark {
+
+  @Param({ "1", "10", "100", "1000" })
+  public int goalCount;
+
+  private RosEnvironment environment;
+  private ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionClient;
+  private GoalManager<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalManager;
+  private ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> lastGoalHandle;
+  private GoalStatusArray statusArray;
+
+  /**
+   * The statuses of the last goal on its way from being sent to being
+   * preempted, including repeated statuses.
+   */
+  private List<GoalStatus> lifecycle;
+
+  @Setup
+  public void setUp() throws InterruptedException, RosException {
+    environment = new RosEnvironment();
+    ConnectedNode node = environment.startNode("comm_state_machine_benchmark");
+    ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec =
+        Fibonacci.newSpec();
+    actionClient =
+        new ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci", spec);
+    actionClient.addClientPubSub(node);
+    goalManager =
+        new GoalManager<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            actionClient);
+
+    MessageFactory messageFactory = SharedMessageFactory.get();
+    List<GoalStatus> statusList = new ArrayList<GoalStatus>(goalCount);
+    for (int i = 0; i < goalCount; i++) {
+      lastGoalHandle = goalManager.initGoal(spec.createGoalMessage(), null, spec);
+      GoalStatus goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+      GoalID goalID = spec.getGoalIDFromActionGoal(lastGoalHandle.getStateMachine().getActionGoal());
+      goalStatus.setGoalId(goalID);
+      goalStatus.setStatus(GoalStatus.ACTIVE);
+      statusList.add(goalStatus);
+    }
+    statusArray = messageFactory.newFromType(GoalStatusArray._TYPE);
+    statusArray.setStatusList(statusList);
+
+    // Move all state machines into the ACTIVE state.
+    goalManager.updateStatuses(statusArray);
+
+    lifecycle = new ArrayList<GoalStatus>();
+    GoalID lastGoalID = spec.getGoalIDFromActionGoal(lastGoalHandle.getStateMachine().getActionGoal());
+    for (byte status : new byte[] { GoalStatus.PENDING, GoalStatus.PENDING, GoalStatus.ACTIVE,
+        GoalStatus.ACTIVE, GoalStatus.PREEMPTING, GoalStatus.PREEMPTED, GoalStatus.PREEMPTED }) {
+      GoalStatus goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+      goalStatus.setGoalId(lastGoalID);
+      goalStatus.setStatus(status);
+      lifecycle.add(goalStatus);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    goalManager.clear();
+    actionClient.shutdown();
+    environment.shutdown();
+  }
+
+  /**
+   * A single state machine looks up the status of its goal, which is the last
+   * one in the array.
+   */
+  @Benchmark
+  public void updateStatusOfOneGoal() throws RosException {
+    lastGoalHandle.getStateMachine().updateStatus(statusArray, lastGoalHandle);
+  }
+
+  /**
+   * A single state machine is reset and driven through the whole lifecycle of
+   * a preempted goal, so every status causes one or more transitions.
+   */
+  @Benchmark
+  public CommState updateStatusThroughLifecycle() throws RosException {
+    CommStateMachine<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> stateMachine =
+        lastGoalHandle.getStateMachine();
+    stateMachine.transitionToState(CommState.StateEnum.WAITING_FOR_GOAL_ACK, lastGoalHandle);
+    for (GoalStatus goalStatus : lifecycle) {
+      stateMachine.updateStatus(goalStatus, lastGoalHandle);
+    }
+    return stateMachine.getCommState();
+  }
+
+  /**
+   * The status array is dispatched to the state machines of all goals.
+   */
+  @Benchmark
+  public void updateStatusOfAllGoals() {
+    goalManager.updateStatuses(statusArray);
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_msgs.GoalID;
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.server.ConcurrentActionServerCallbacks;
+import org.ros.actionlib.server.ServerGoalHandle;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.exception.RosException;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution of a batch of CPU-bound goals by a ConcurrentActionServer with
+ * worker pools of different sizes. Every goal computes Fibonacci numbers for
+ * about a millisecond. The goals share no lock, so the time per batch should
+ * drop in proportion to the pool size up to the number of available
+ * processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentServerBenchmark {
+
+  private static final int GOALS_PER_BATCH = 64;
+  private static final int ITERATIONS_PER_GOAL = 1000000;
+
+  @Param({ "1", "2", "4", "8" })
+  public int poolSize;
+
+  private RosEnvironment environment;
+  private ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec;
+  private Fibonacci.ConcurrentServer actionServer;
+  private MessageFactory messageFactory;
+  private FibonacciGoal goal;
+  private int goalCount;
+  private final FibonacciActionGoal[] batch = new FibonacciActionGoal[GOALS_PER_BATCH];
+  private volatile CountDownLatch done;
+  private volatile long sink;
+
+  @Setup
+  public void setUp() throws InterruptedException, RosException {
+    environment = new RosEnvironment();
+    spec = Fibonacci.newSpec();
+    ConcurrentActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> callbacks =
+        new ConcurrentActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+          @Override
+          public void executeCallback(
+              FibonacciGoal goal,
+              ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+            long previous = 0;
+            long current = 1;
+            for (int i = 0; i < ITERATIONS_PER_GOAL; i++) {
+              long next = previous + current;
+              previous = current;
+              current = next;
+            }
+            sink = current;
+            goalHandle.setSucceeded(spec.createResultMessage(), "");
+            done.countDown();
+          }
+
+          @Override
+          public void preemptCallback(
+              ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+          }
+        };
+    actionServer =
+        new Fibonacci.ConcurrentServer("fibonacci", spec, callbacks, poolSize, GOALS_PER_BATCH);
+    actionServer.addClientPubSub(environment.startNode("concurrent_server_benchmark"));
+    messageFactory = SharedMessageFactory.get();
+    goal = spec.createGoalMessage();
+    goal.setOrder(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    actionServer.shutdown();
+    environment.shutdown();
+  }
+
+  /**
+   * Creates the goals of the next batch outside of the measurement.
+   */
+  @Setup(Level.Invocation)
+  public void nextBatch() {
+    for (int i = 0; i < GOALS_PER_BATCH; i++) {
+      goalCount++;
+      Time stamp = new Time(goalCount, 0);
+      GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+      goalID.setId("benchmark-goal-" + goalCount);
+      goalID.setStamp(stamp);
+      batch[i] = spec.createActionGoalMessage(goal, stamp, goalID);
+    }
+    done = new CountDownLatch(GOALS_PER_BATCH);
+  }
+
+  @Benchmark
+  public void executeBatch() throws InterruptedException {
+    for (FibonacciActionGoal actionGoal : batch) {
+      actionServer.receiveGoal(actionGoal);
+    }
+    if (!done.await(60, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("Batch of goals timed out");
+    }
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_msgs.GoalID;
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.server.ActionServerCallbacks;
+import org.ros.actionlib.server.ServerGoalHandle;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.exception.RosException;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feedback publication by several threads, each of them publishing feedback on
+ * its own active goal. The goals are spread over two action servers. Goals do
+ * not share any lock, so the throughput should scale with the number of
+ * threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedbackContentionBenchmark {
+
+  private static final int SERVER_COUNT = 2;
+  private static final int GOALS_PER_SERVER = 4;
+
+  private RosEnvironment environment;
+  private Fibonacci.Server[] actionServers;
+  private final List<ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>> goalHandles =
+      new CopyOnWriteArrayList<ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>>();
+  private final AtomicInteger nextGoal = new AtomicInteger(0);
+  private FibonacciFeedback feedback;
+
+  /**
+   * The goal a benchmark thread publishes feedback on.
+   */
+  @State(Scope.Thread)
+  public static class ThreadGoal {
+
+    ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle;
+
+    @Setup
+    public void setUp(FeedbackContentionBenchmark benchmark) {
+      goalHandle =
+          benchmark.goalHandles.get(benchmark.nextGoal.getAndIncrement()
+              % benchmark.goalHandles.size());
+    }
+
+  }
+
+  @Setup
+  public void setUp() throws InterruptedException, RosException {
+    environment = new RosEnvironment();
+    ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec =
+        Fibonacci.newSpec();
+    ActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> callbacks =
+        new ActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+          @Override
+          public void goalCallback(
+              ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goal) {
+            goal.setAccepted("");
+            goalHandles.add(goal);
+          }
+
+          @Override
+          public void cancelCallback(
+              ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalToCancel) {
+          }
+        };
+
+    MessageFactory messageFactory = SharedMessageFactory.get();
+    actionServers = new Fibonacci.Server[SERVER_COUNT];
+    for (int s = 0; s < SERVER_COUNT; s++) {
+      actionServers[s] = new Fibonacci.Server("fibonacci_" + s, spec, callbacks);
+      actionServers[s].addClientPubSub(environment.startNode("feedback_benchmark_" + s));
+      for (int g = 0; g < GOALS_PER_SERVER; g++) {
+        Time stamp = new Time(1000 + g, 0);
+        GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+        goalID.setId("benchmark-goal-" + s + "-" + g);
+        goalID.setStamp(stamp);
+        actionServers[s].doGoalCallback(spec.createActionGoalMessage(spec.createGoalMessage(),
+            stamp, goalID));
+      }
+    }
+    feedback = spec.createFeedbackMessage();
+  }
+
+  @TearDown
+  public void tearDown() {
+    for (Fibonacci.Server actionServer : actionServers) {
+      actionServer.shutdown();
+    }
+    environment.shutdown();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void publishFeedbackSingleThread(ThreadGoal threadGoal) {
+    threadGoal.goalHandle.publishFeedback(feedback);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void publishFeedbackFourThreads(ThreadGoal threadGoal) {
+    threadGoal.goalHandle.publishFeedback(feedback);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void publishFeedbackEightThreads(ThreadGoal threadGoal) {
+    threadGoal.goalHandle.publishFeedback(feedback);
+  }
+
+}
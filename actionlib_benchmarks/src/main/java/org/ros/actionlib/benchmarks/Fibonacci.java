@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.server.ActionServerCallbacks;
+import org.ros.actionlib.server.ConcurrentActionServer;
+import org.ros.actionlib.server.ConcurrentActionServerCallbacks;
+import org.ros.actionlib.server.DefaultActionServer;
+import org.ros.actionlib.server.DefaultSimpleActionServer;
+import org.ros.actionlib.server.SimpleActionServerCallbacks;
+import org.ros.exception.RosException;
+
+/**
+ * The Fibonacci action of the actionlib tutorials, which all benchmarks use as
+ * their action.
+ */
+public final class Fibonacci {
+
+  private Fibonacci() {
+  }
+
+  /**
+   * Creates the ActionSpec of the Fibonacci action.
+   * 
+   * @return The ActionSpec
+   * @throws RosException
+   *           If the ActionSpec could not be created
+   */
+  public static
+      ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>
+      newSpec() throws RosException {
+    return new ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+        FibonacciAction.class, "actionlib_tutorials/FibonacciAction",
+        "actionlib_tutorials/FibonacciActionFeedback", "actionlib_tutorials/FibonacciActionGoal",
+        "actionlib_tutorials/FibonacciActionResult", "actionlib_tutorials/FibonacciFeedback",
+        "actionlib_tutorials/FibonacciGoal", "actionlib_tutorials/FibonacciResult");
+  }
+
+  /**
+   * A DefaultActionServer for the Fibonacci action which gives the benchmarks
+   * access to the status publication.
+   */
+  public static class Server
+      extends
+      DefaultActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> {
+
+    public Server(
+        String name,
+        ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec,
+        ActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> callbacks) {
+      super(name, spec, callbacks);
+    }
+
+    @Override
+    public void publishStatus() {
+      super.publishStatus();
+    }
+
+  }
+
+  /**
+   * A DefaultSimpleActionServer for the Fibonacci action which gives the
+   * benchmarks direct access to the reception of goals.
+   */
+  public static class SimpleServer
+      extends
+      DefaultSimpleActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> {
+
+    public SimpleServer(
+        String name,
+        ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec,
+        SimpleActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> callbacks,
+        boolean useVirtualThreads) {
+      super(name, spec, callbacks, true, useVirtualThreads);
+    }
+
+    /**
+     * Hands an action goal message to the server as if it had been received
+     * from a client.
+     * 
+     * @param actionGoal
+     *          The action goal message
+     */
+    public void receiveGoal(FibonacciActionGoal actionGoal) {
+      actionServer.doGoalCallback(actionGoal);
+    }
+
+  }
+
+  /**
+   * A ConcurrentActionServer for the Fibonacci action which gives the
+   * benchmarks direct access to the reception of goals.
+   */
+  public static class ConcurrentServer
+      extends
+      ConcurrentActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> {
+
+    public ConcurrentServer(
+        String name,
+        ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec,
+        ConcurrentActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> callbacks,
+        int maxConcurrentGoals, int maxPendingGoals) {
+      super(name, spec, callbacks, maxConcurrentGoals, maxPendingGoals);
+    }
+
+    /**
+     * Hands an action goal message to the server as if it had been received
+     * from a client.
+     * 
+     * @param actionGoal
+     *          The action goal message
+     */
+    public void receiveGoal(FibonacciActionGoal actionGoal) {
+      actionServer.doGoalCallback(actionGoal);
+    }
+
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_msgs.GoalID;
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.server.SimpleActionServer;
+import org.ros.actionlib.server.SimpleActionServerCallbacks;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.exception.RosException;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency from the reception of a goal by a DefaultSimpleActionServer
+ * until its blockingGoalCallback is invoked on the callback thread. The
+ * callback succeeds the goal right away and raises a flag the benchmark thread
+ * spins on, so that waking up the benchmark thread does not add to the
+ * measured latency. The callback thread is a platform thread or, if the Java
+ * runtime supports them, a virtual thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoalAcceptLatencyBenchmark {
+
+  @Param({ "false", "true" })
+  public boolean useVirtualThreads;
+
+  private RosEnvironment environment;
+  private ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec;
+  private Fibonacci.SimpleServer actionServer;
+  private MessageFactory messageFactory;
+  private FibonacciGoal goal;
+  private int goalCount;
+  private FibonacciActionGoal actionGoal;
+  private volatile boolean invoked;
+
+  @Setup
+  public void setUp() throws InterruptedException, RosException {
+    environment = new RosEnvironment();
+    spec = Fibonacci.newSpec();
+    SimpleActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> callbacks =
+        new SimpleActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+          @Override
+          public void goalCallback(
+              SimpleActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionServer) {
+          }
+
+          @Override
+          public void preemptCallback(
+              SimpleActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionServer) {
+          }
+
+          @Override
+          public void blockingGoalCallback(
+              FibonacciGoal goal,
+              SimpleActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionServer) {
+            actionServer.setSucceeded();
+            invoked = true;
+          }
+        };
+    actionServer = new Fibonacci.SimpleServer("fibonacci", spec, callbacks, useVirtualThreads);
+    actionServer.addClientPubSub(environment.startNode("goal_accept_benchmark"));
+    messageFactory = SharedMessageFactory.get();
+    goal = spec.createGoalMessage();
+    goal.setOrder(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    actionServer.shutdown();
+    environment.shutdown();
+  }
+
+  /**
+   * Creates the goal of the next invocation outside of the measurement. Every
+   * goal is newer than the one before, so the simple action server never
+   * cancels it in favor of an earlier goal.
+   */
+  @Setup(Level.Invocation)
+  public void nextGoal() {
+    goalCount++;
+    Time stamp = new Time(goalCount, 0);
+    GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+    goalID.setId("benchmark-goal-" + goalCount);
+    goalID.setStamp(stamp);
+    actionGoal = spec.createActionGoalMessage(goal, stamp, goalID);
+    invoked = false;
+  }
+
+  @Benchmark
+  public void acceptGoal() {
+    actionServer.receiveGoal(actionGoal);
+    while (!invoked) {
+      // Spin until the callback thread has picked up the goal
+    }
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_msgs.GoalID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.util.GoalIDGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of unique GoalIDs, by a single thread and by several threads
+ * sharing one generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoalIDGeneratorBenchmark {
+
+  private RosEnvironment environment;
+  private GoalIDGenerator idGenerator;
+
+  @Setup
+  public void setUp() throws InterruptedException {
+    environment = new RosEnvironment();
+    idGenerator = new GoalIDGenerator(environment.startNode("goal_id_benchmark"));
+  }
+
+  @TearDown
+  public void tearDown() {
+    environment.shutdown();
+  }
+
+  @Benchmark
+  public GoalID generateID() {
+    return idGenerator.generateID();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public GoalID generateIDContended() {
+    return idGenerator.generateID();
+  }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.server.GoalJournal;
+import org.ros.message.Time;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journaling the goals of an action server and recovering them from the
+ * journal. Every goal is accepted and half of the goals finish, as after a
+ * crash of a busy server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GoalJournalBenchmark {
+
+  private static final Log log = LogFactory.getLog(GoalJournalBenchmark.class);
+
+  @Param({ "100000" })
+  public int goalCount;
+
+  private String[] goalIDs;
+  private Time[] stamps;
+
+  /**
+   * An empty journal for every invocation of {@link #write}.
+   */
+  @State(Scope.Thread)
+  public static class EmptyJournal {
+
+    File file;
+    GoalJournal journal;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+      file = File.createTempFile("actionlib-journal-benchmark", ".journal");
+      journal = GoalJournal.open(file, log);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+      journal.close();
+      file.delete();
+    }
+
+  }
+
+  /**
+   * A journal of {@link GoalJournalBenchmark#goalCount} goals.
+   */
+  @State(Scope.Thread)
+  public static class FullJournal {
+
+    File file;
+
+    @Setup(Level.Trial)
+    public void setUp(GoalJournalBenchmark benchmark) throws IOException, InterruptedException {
+      file = File.createTempFile("actionlib-journal-benchmark", ".journal");
+      GoalJournal journal = GoalJournal.open(file, log);
+      benchmark.journalGoals(journal);
+      journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      file.delete();
+    }
+
+  }
+
+  @Setup
+  public void setUp() {
+    goalIDs = new String[goalCount];
+    stamps = new Time[goalCount];
+    for (int i = 0; i < goalCount; i++) {
+      goalIDs[i] = "/benchmark_client-1-" + (1000 + i) + ".000000000";
+      stamps[i] = new Time(1000 + i, 0);
+    }
+  }
+
+  private void journalGoals(GoalJournal journal) throws IOException, InterruptedException {
+    for (int i = 0; i < goalCount; i++) {
+      journal.goalAccepted(goalIDs[i], stamps[i], stamps[i]);
+      if (i % 2 == 0) {
+        journal.goalFinished(goalIDs[i], stamps[i], (byte) 3, "", stamps[i]);
+      }
+    }
+    journal.sync();
+  }
+
+  /**
+   * Appends the records of all goals and waits until they are on the disk.
+   */
+  @Benchmark
+  public long write(EmptyJournal empty) throws IOException, InterruptedException {
+    journalGoals(empty.journal);
+    return empty.journal.getCommitCount();
+  }
+
+  /**
+   * Opens the journal of all goals, recovering them.
+   */
+  @Benchmark
+  public int recover(FullJournal full) throws IOException {
+    GoalJournal journal = GoalJournal.open(full.file, log);
+    int recovered = journal.getRecoveredGoals().size();
+    journal.close();
+    return recovered;
+  }
+
+}
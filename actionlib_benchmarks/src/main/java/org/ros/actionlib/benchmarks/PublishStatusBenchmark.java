@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_msgs.GoalID;
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.server.ActionServerCallbacks;
+import org.ros.actionlib.server.ServerGoalHandle;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.exception.RosException;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and publishing the status array of a DefaultActionServer which
+ * tracks a large number of pending goals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublishStatusBenchmark {
+
+  @Param({ "100", "1000", "10000" })
+  public int trackerCount;
+
+  private RosEnvironment environment;
+  private Fibonacci.Server actionServer;
+
+  @Setup
+  public void setUp() throws InterruptedException, RosException {
+    environment = new RosEnvironment();
+    ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec =
+        Fibonacci.newSpec();
+    actionServer =
+        new Fibonacci.Server("fibonacci", spec,
+            new ActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+              @Override
+              public void goalCallback(
+                  ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goal) {
+              }
+
+              @Override
+              public void cancelCallback(
+                  ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalToCancel) {
+              }
+            });
+    actionServer.addClientPubSub(environment.startNode("publish_status_benchmark"));
+
+    MessageFactory messageFactory = SharedMessageFactory.get();
+    for (int i = 0; i < trackerCount; i++) {
+      Time stamp = new Time(1000 + i, 0);
+      GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+      goalID.setId("benchmark-goal-" + i);
+      goalID.setStamp(stamp);
+      actionServer.doGoalCallback(spec.createActionGoalMessage(spec.createGoalMessage(), stamp,
+          goalID));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    actionServer.shutdown();
+    environment.shutdown();
+  }
+
+  @Benchmark
+  public void publishStatus() {
+    actionServer.publishStatus();
+  }
+
+}
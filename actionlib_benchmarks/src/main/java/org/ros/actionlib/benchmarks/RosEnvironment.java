@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import org.ros.RosCore;
+import org.ros.namespace.GraphName;
+import org.ros.node.AbstractNodeMain;
+import org.ros.node.ConnectedNode;
+import org.ros.node.DefaultNodeMainExecutor;
+import org.ros.node.NodeConfiguration;
+import org.ros.node.NodeMainExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A private ROS master and node executor running inside the benchmark JVM.
+ * Benchmarks start the nodes they need in their setup and shut the whole
+ * environment down in their tear down.
+ */
+public class RosEnvironment {
+
+  private final RosCore rosCore;
+  private final NodeMainExecutor executor;
+
+  /**
+   * Starts a private ROS master.
+   * 
+   * @throws InterruptedException
+   *           If interrupted while waiting for the master to start
+   */
+  public RosEnvironment() throws InterruptedException {
+    rosCore = RosCore.newPrivate();
+    rosCore.start();
+    rosCore.awaitStart();
+    executor = DefaultNodeMainExecutor.newDefault();
+  }
+
+  /**
+   * Starts a node with the given name and waits until it is connected to the
+   * master.
+   * 
+   * @param nodeName
+   *          The name of the node
+   * @return The connected node
+   * @throws InterruptedException
+   *           If interrupted while waiting for the node to start
+   */
+  public ConnectedNode startNode(final String nodeName) throws InterruptedException {
+    final CountDownLatch started = new CountDownLatch(1);
+    final ConnectedNode[] connectedNode = new ConnectedNode[1];
+    AbstractNodeMain nodeMain = new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of(nodeName);
+      }
+
+      @Override
+      public void onStart(ConnectedNode node) {
+        connectedNode[0] = node;
+        started.countDown();
+      }
+    };
+    NodeConfiguration nodeConfiguration = NodeConfiguration.newPrivate(rosCore.getUri());
+    nodeConfiguration.setNodeName(nodeName);
+    executor.execute(nodeMain, nodeConfiguration);
+    if (!started.await(30, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("Node " + nodeName + " did not start");
+    }
+    return connectedNode[0];
+  }
+
+  /**
+   * Shuts down all nodes and the master.
+   */
+  public void shutdown() {
+    executor.shutdown();
+    rosCore.shutdown();
+  }
+
+}
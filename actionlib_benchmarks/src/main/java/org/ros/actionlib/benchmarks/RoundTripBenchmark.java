@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.LoopbackChannel;
+import org.ros.actionlib.client.ActionClient;
+import org.ros.actionlib.client.ActionClientCallbacks;
+import org.ros.actionlib.client.ClientGoalHandle;
+import org.ros.actionlib.server.ActionServerCallbacks;
+import org.ros.actionlib.server.DefaultActionServer;
+import org.ros.actionlib.server.ServerGoalHandle;
+import org.ros.actionlib.state.CommState;
+import org.ros.exception.RosException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Goal round trips between an ActionClient and a DefaultActionServer running in
+ * the same JVM. The server succeeds every goal right away, so the latency from
+ * sending a goal until the client's goal handle is done is measured, once
+ * through the rosjava publishers and subscribers and once through the
+ * in-process loopback transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundTripBenchmark {
+
+  @Param({ "rosjava", "loopback" })
+  public String transport;
+
+  private RosEnvironment environment;
+  private DefaultActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionServer;
+  private ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionClient;
+  private ActionClientCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> clientCallbacks;
+  private FibonacciGoal goal;
+  private volatile CountDownLatch done;
+
+  @Setup
+  public void setUp() throws InterruptedException, RosException {
+    System.setProperty(LoopbackChannel.ENABLED_PROPERTY, String.valueOf("loopback".equals(transport)));
+    environment = new RosEnvironment();
+    final ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec =
+        Fibonacci.newSpec();
+
+    actionServer =
+        new DefaultActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci",
+            spec,
+            new ActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+              @Override
+              public void goalCallback(
+                  ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goal) {
+                goal.setAccepted("");
+                goal.setSucceeded(spec.createResultMessage(), "");
+              }
+
+              @Override
+              public void cancelCallback(
+                  ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalToCancel) {
+              }
+            });
+    // DefaultActionServer names its topics after its node, so the node has to
+    // carry the action name the client connects to.
+    actionServer.addClientPubSub(environment.startNode("fibonacci"));
+
+    actionClient =
+        new ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci", spec);
+    actionClient.addClientPubSub(environment.startNode("round_trip_client"));
+    if (!actionClient.waitForActionServerToStart(30, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("The fibonacci action server did not start");
+    }
+
+    clientCallbacks =
+        new ActionClientCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+          @Override
+          public void transitionCallback(
+              ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+            if (goalHandle.getCommState().getState() == CommState.StateEnum.DONE) {
+              done.countDown();
+            }
+          }
+
+          @Override
+          public void feedbackCallback(
+              ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle,
+              FibonacciFeedback feedback) {
+          }
+        };
+    goal = spec.createGoalMessage();
+    goal.setOrder(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    actionClient.shutdown();
+    actionServer.shutdown();
+    environment.shutdown();
+    System.clearProperty(LoopbackChannel.ENABLED_PROPERTY);
+  }
+
+  @Benchmark
+  public void roundTrip() throws InterruptedException, RosException {
+    done = new CountDownLatch(1);
+    ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle =
+        actionClient.sendGoal(goal, clientCallbacks);
+    if (!done.await(10, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("Goal round trip timed out");
+    }
+    goalHandle.shutdown(true);
+  }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.benchmarks;
+
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.client.ActionClient;
+import org.ros.actionlib.client.ClientGoalHandle;
+import org.ros.exception.RosException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Goal submission by several threads sharing one ActionClient. Every
+ * operation sends a goal and removes its goal handle again, so the goal index
+ * of the client's GoalManager stays small. No action server is running, so
+ * the publication of the goal is cheap and the throughput is dominated by the
+ * bookkeeping of the GoalManager, which takes no lock and should scale with
+ * the number of threads up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendGoalBenchmark {
+
+  private RosEnvironment environment;
+  private ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionClient;
+  private FibonacciGoal goal;
+
+  @Setup
+  public void setUp() throws InterruptedException, RosException {
+    environment = new RosEnvironment();
+    ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec =
+        Fibonacci.newSpec();
+    actionClient =
+        new ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci", spec);
+    actionClient.addClientPubSub(environment.startNode("send_goal_benchmark"));
+    goal = spec.createGoalMessage();
+    goal.setOrder(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    actionClient.shutdown();
+    environment.shutdown();
+  }
+
+  private void sendGoal() throws RosException {
+    ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle =
+        actionClient.sendGoal(goal);
+    goalHandle.shutdown(true);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void sendGoalSingleThread() throws RosException {
+    sendGoal();
+  }
+
+  @Benchmark
+  @Threads(2)
+  public void sendGoalTwoThreads() throws RosException {
+    sendGoal();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void sendGoalFourThreads() throws RosException {
+    sendGoal();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void sendGoalEightThreads() throws RosException {
+    sendGoal();
+  }
+
+}
@@ -23,6 +23,7 @@ import org.ros.actionlib.server.DefaultActionServer;
 import org.ros.actionlib.server.DefaultSimpleActionServer;
 import org.ros.actionlib.server.SimpleActionServer;
 import org.ros.actionlib.server.SimpleActionServerCallbacks;
+import org.ros.actionlib.util.SharedMessageFactory;
 import org.ros.exception.RosException;
 import org.ros.internal.message.Message;
 import org.ros.message.Time;
@@ -30,11 +31,8 @@ import org.ros.node.topic.*;
 import actionlib_msgs.GoalID;
 import actionlib_msgs.GoalStatus;
 import std_msgs.Header;
-
-import org.ros.node.NodeConfiguration;
 import org.ros.message.MessageFactory;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 /**
  * 
@@ -153,8 +151,35 @@ public class ActionSpec<
   private String feedbackMessage;
   private String goalMessage;
   private String resultMessage;
-  private NodeConfiguration nc;
-  private MessageFactory mf;
+  private final MessageFactory mf;
+
+  /**
+   * Accessors of the action goal message, resolved once at construction time
+   */
+  private final Method actionGoalGetHeader;
+  private final Method actionGoalGetGoal;
+  private final Method actionGoalSetGoal;
+  private final Method actionGoalGetGoalId;
+  private final Method actionGoalSetGoalId;
+
+  /**
+   * Accessors of the action feedback message, resolved once at construction
+   * time
+   */
+  private final Method actionFeedbackGetHeader;
+  private final Method actionFeedbackGetFeedback;
+  private final Method actionFeedbackSetFeedback;
+  private final Method actionFeedbackGetStatus;
+  private final Method actionFeedbackSetStatus;
+
+  /**
+   * Accessors of the action result message, resolved once at construction time
+   */
+  private final Method actionResultGetHeader;
+  private final Method actionResultGetResult;
+  private final Method actionResultSetResult;
+  private final Method actionResultGetStatus;
+  private final Method actionResultSetStatus;
 
   /**
    * Constructor. Checks if all needed fields are present in the given action
@@ -176,8 +201,7 @@ public class ActionSpec<
       String goalMessage,
       String resultMessage) throws RosException {
       
-    nc = NodeConfiguration.newPrivate();
-    mf = nc.getTopicMessageFactory();
+    mf = SharedMessageFactory.get();
 
     this.actionMessage = actionMessage;
     this.actionFeedbackMessage = actionFeedbackMessage;
@@ -217,6 +241,31 @@ public class ActionSpec<
 
       name = cA.getSimpleName();
 
+      // Look up all accessors of the wrapping action messages here, so that
+      // creating and unpacking messages does not have to search for them
+      // again on every call.
+      Class<?> goalInterface = Class.forName(goalMessage.replace('/', '.'));
+      Class<?> feedbackInterface = Class.forName(feedbackMessage.replace('/', '.'));
+      Class<?> resultInterface = Class.forName(resultMessage.replace('/', '.'));
+
+      actionGoalGetHeader = cAG.getMethod("getHeader");
+      actionGoalGetGoal = cAG.getMethod("getGoal");
+      actionGoalSetGoal = cAG.getMethod("setGoal", goalInterface);
+      actionGoalGetGoalId = cAG.getMethod("getGoalId");
+      actionGoalSetGoalId = cAG.getMethod("setGoalId", GoalID.class);
+
+      actionFeedbackGetHeader = cAF.getMethod("getHeader");
+      actionFeedbackGetFeedback = cAF.getMethod("getFeedback");
+      actionFeedbackSetFeedback = cAF.getMethod("setFeedback", feedbackInterface);
+      actionFeedbackGetStatus = cAF.getMethod("getStatus");
+      actionFeedbackSetStatus = cAF.getMethod("setStatus", GoalStatus.class);
+
+      actionResultGetHeader = cAR.getMethod("getHeader");
+      actionResultGetResult = cAR.getMethod("getResult");
+      actionResultSetResult = cAR.getMethod("setResult", resultInterface);
+      actionResultGetStatus = cAR.getMethod("getStatus");
+      actionResultSetStatus = cAR.getMethod("setStatus", GoalStatus.class);
+
     } catch (Exception e) {
 
       cA = null;
@@ -475,15 +524,10 @@ public class ActionSpec<
     T_ACTION_FEEDBACK a = null;
     try {
       a =  mf.newFromType(actionFeedbackMessage);
-      std_msgs.Header header = mf.newFromType(std_msgs.Header._TYPE);
-      String fm = feedbackMessage.replace('/','.');
-      Method m = a.getClass().getMethod("setHeader", Header.class );
+      Header header = (Header) actionFeedbackGetHeader.invoke(a);
       header.setStamp(t);
-      m.invoke(a, header);
-      m = a.getClass().getMethod("setFeedback", Class.forName(fm));
-      m.invoke(a, feedback);
-      m = a.getClass().getMethod("setStatus", GoalStatus.class);
-      m.invoke(a, gs);
+      actionFeedbackSetFeedback.invoke(a, feedback);
+      actionFeedbackSetStatus.invoke(a, gs);
 
     } catch (Exception e) {
       System.out.println("problem in AFM: " + e.toString());
@@ -525,15 +569,10 @@ public class ActionSpec<
     T_ACTION_GOAL a = null;
     try {
       a =  mf.newFromType(actionGoalMessage);
-      std_msgs.Header header = mf.newFromType(std_msgs.Header._TYPE);
-      String gm = goalMessage.replace('/','.');
-      Method m = a.getClass().getMethod("setHeader", Header.class );
+      Header header = (Header) actionGoalGetHeader.invoke(a);
       header.setStamp(t);
-      m.invoke(a, header);
-      m = a.getClass().getMethod("setGoal", Class.forName(gm));
-      m.invoke(a, goal);
-      m = a.getClass().getMethod("setGoalId", GoalID.class);
-      m.invoke(a, goalID);
+      actionGoalSetGoal.invoke(a, goal);
+      actionGoalSetGoalId.invoke(a, goalID);
 
     } catch (Exception e) {
       System.out.println("problem in AGM: " + e.toString());
@@ -575,15 +614,10 @@ public class ActionSpec<
     T_ACTION_RESULT a = null;
     try {
       a =  mf.newFromType(actionResultMessage);
-      std_msgs.Header header = mf.newFromType(std_msgs.Header._TYPE);
-      String rm = resultMessage.replace('/','.');
-      Method m = a.getClass().getMethod("setHeader", Header.class );
+      Header header = (Header) actionResultGetHeader.invoke(a);
       header.setStamp(t);
-      m.invoke(a, header);
-      m = a.getClass().getDeclaredMethod("setResult", Class.forName(rm));
-      m.invoke(a, result);
-      m = a.getClass().getMethod("setStatus", GoalStatus.class);
-      m.invoke(a, gs);
+      actionResultSetResult.invoke(a, result);
+      actionResultSetStatus.invoke(a, gs);
 
     } catch (Exception e) {
       System.out.println("problem in ARM: " + e.toString());
@@ -651,8 +685,7 @@ public class ActionSpec<
   public T_FEEDBACK getFeedbackFromActionFeedback(T_ACTION_FEEDBACK actionFeedback)
       throws RosException {
     try {
-      Method m = clsActionFeedback.getMethod("getFeedback");
-      return clsFeedback.cast(m.invoke(actionFeedback));
+      return clsFeedback.cast(actionFeedbackGetFeedback.invoke(actionFeedback));
     } catch (Exception e) {
       throw new RosException(
           "[ActionSpec] Couldn't find field 'feedback' in action feedback message.", e);
@@ -668,8 +701,7 @@ public class ActionSpec<
    */
   public T_GOAL getGoalFromActionGoal(T_ACTION_GOAL actionGoal) throws RosException {
     try {
-      Method m = clsActionGoal.getMethod("getGoal");
-      return clsGoal.cast(m.invoke(actionGoal));
+      return clsGoal.cast(actionGoalGetGoal.invoke(actionGoal));
     } catch (Exception e) {
       throw new RosException("[ActionSpec] Couldn't find field 'goal' in action goal message.", e);
     }
@@ -684,8 +716,7 @@ public class ActionSpec<
    */
   public T_RESULT getResultFromActionResult(T_ACTION_RESULT actionResult) throws RosException {
     try {
-      Method m = clsActionResult.getMethod("getResult");
-      return clsResult.cast(m.invoke(actionResult));
+      return clsResult.cast(actionResultGetResult.invoke(actionResult));
     } catch (Exception e) {
       throw new RosException("[ActionSpec] Couldn't find field 'result' in action result message.",
           e);
@@ -701,8 +732,7 @@ public class ActionSpec<
    */
   public GoalID getGoalIDFromActionGoal(T_ACTION_GOAL actionGoal) throws RosException {
     try {
-      Method m = clsActionGoal.getMethod("getGoalId");
-      return (GoalID) m.invoke(actionGoal);
+      return (GoalID) actionGoalGetGoalId.invoke(actionGoal);
     } catch (Exception e) {
       throw new RosException(
           "[ActionSpec] Couldn't find field 'goal_id' of type 'GoalID' in action goal message.", e);
@@ -719,8 +749,7 @@ public class ActionSpec<
   public GoalStatus getGoalStatusFromActionFeedback(T_ACTION_FEEDBACK actionFeedback)
       throws RosException {
     try {
-      Method m = clsActionFeedback.getMethod("getStatus");
-      return (GoalStatus) m.invoke(actionFeedback);
+      return (GoalStatus) actionFeedbackGetStatus.invoke(actionFeedback);
     } catch (Exception e) {
       throw new RosException(
           "[ActionSpec] Couldn't find field 'status' of type 'GoalStatus' in action feedback message.",
@@ -737,8 +766,7 @@ public class ActionSpec<
    */
   public GoalStatus getGoalStatusFromActionResult(T_ACTION_RESULT actionResult) throws RosException {
     try {
-      Method m = clsActionResult.getMethod("getStatus");
-      return (GoalStatus) m.invoke(actionResult);
+      return (GoalStatus) actionResultGetStatus.invoke(actionResult);
     } catch (Exception e) {
       throw new RosException(
           "[ActionSpec] Couldn't find field 'status' of type 'GoalStatus' in action result message.",
@@ -0,0 +1,443 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib;
+
+import org.ros.actionlib.util.DaemonThreadFactory;
+import org.ros.internal.message.Message;
+import actionlib_msgs.GoalID;
+import actionlib_msgs.GoalStatusArray;
+import org.ros.node.ConnectedNode;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-process transport between an action server and the action clients of
+ * the same action in the same JVM. Messages are handed over as objects
+ * instead of being serialized and sent through a socket by rosjava.
+ * 
+ * <p>
+ * A LoopbackChannel exists for every combination of ROS master, resolved
+ * action name and action type that is used by a server or a client in the
+ * JVM. When a server is bound to the channel, goals and cancel requests of
+ * the clients on the channel are handed to the server directly, and the
+ * status, feedback and result messages of the server are handed to the
+ * clients directly, in addition to being published through rosjava for
+ * remote clients.
+ * 
+ * <p>
+ * To keep the semantics of rosjava, every endpoint receives its messages on
+ * its own thread, in the order in which they were sent, and never on the
+ * thread of the sender. The messages must not be modified after they have
+ * been sent.
+ * 
+ * <p>
+ * Like a rosjava subscriber with a bounded queue, a client that falls behind
+ * does not receive every message. Status messages waiting for delivery to a
+ * client are conflated, so only the latest one is delivered. The same holds
+ * for the feedback messages of each goal, in line with the client's
+ * FeedbackMailbox. A slow client thus holds at most one status message and
+ * one feedback message per goal, however fast the server publishes.
+ * 
+ * <p>
+ * The loopback transport is used automatically. It can be disabled by setting
+ * the system property {@value #ENABLED_PROPERTY} to <tt>false</tt> before the
+ * server and the clients are connected to their nodes.
+ * 
+ * @param <T_ACTION_FEEDBACK>
+ *          action feedback message
+ * @param <T_ACTION_GOAL>
+ *          action goal message
+ * @param <T_ACTION_RESULT>
+ *          action result message
+ */
+public class LoopbackChannel<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message> {
+
+  /**
+   * The system property enabling or disabling the loopback transport
+   */
+  public static final String ENABLED_PROPERTY = "org.ros.actionlib.loopback";
+
+  /**
+   * The receiving end of an action server.
+   */
+  public interface ServerEndpoint<T_ACTION_GOAL extends Message> {
+
+    void goalReceived(T_ACTION_GOAL actionGoal);
+
+    void cancelReceived(GoalID goalID);
+  }
+
+  /**
+   * The receiving end of an action client.
+   */
+  public interface ClientEndpoint<T_ACTION_FEEDBACK extends Message, T_ACTION_RESULT extends Message> {
+
+    void statusReceived(GoalStatusArray statusArray);
+
+    void feedbackReceived(T_ACTION_FEEDBACK actionFeedback);
+
+    void resultReceived(T_ACTION_RESULT actionResult);
+  }
+
+  /**
+   * All channels that have a server or at least one client, indexed by their
+   * key. Guarded by {@link #registryLock} for modifications.
+   */
+  private static final ConcurrentMap<String, LoopbackChannel<?, ?, ?>> channels =
+      new ConcurrentHashMap<String, LoopbackChannel<?, ?, ?>>();
+  private static final ReentrantLock registryLock = new ReentrantLock();
+  private static final DaemonThreadFactory threadFactory = new DaemonThreadFactory("actionlib-loopback");
+
+  private final String key;
+  private volatile Connection<ServerEndpoint<T_ACTION_GOAL>> server;
+  private final CopyOnWriteArrayList<ClientConnection<T_ACTION_FEEDBACK, T_ACTION_RESULT>> clients =
+      new CopyOnWriteArrayList<ClientConnection<T_ACTION_FEEDBACK, T_ACTION_RESULT>>();
+
+  /**
+   * An endpoint on the channel together with the thread delivering its
+   * messages in order. The thread terminates while the endpoint is idle.
+   */
+  private static class Connection<E> {
+    final E endpoint;
+    final ThreadPoolExecutor executor;
+
+    Connection(E endpoint) {
+      this.endpoint = endpoint;
+      this.executor =
+          new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+              threadFactory);
+      this.executor.allowCoreThreadTimeOut(true);
+    }
+  }
+
+  /**
+   * The connection of a client together with its conflated messages. A
+   * delivery is queued only for the first message of a kind that is waiting,
+   * and delivers the latest message of that kind when it runs.
+   */
+  private static class ClientConnection<T_ACTION_FEEDBACK extends Message, T_ACTION_RESULT extends Message>
+      extends Connection<ClientEndpoint<T_ACTION_FEEDBACK, T_ACTION_RESULT>> {
+
+    /**
+     * The latest status message waiting for delivery
+     */
+    final AtomicReference<GoalStatusArray> latestStatus = new AtomicReference<GoalStatusArray>();
+
+    /**
+     * The latest feedback message waiting for delivery for each goal, indexed
+     * by GoalID
+     */
+    final ConcurrentMap<String, T_ACTION_FEEDBACK> latestFeedback =
+        new ConcurrentHashMap<String, T_ACTION_FEEDBACK>();
+
+    final Runnable statusDelivery = new Runnable() {
+      @Override
+      public void run() {
+        GoalStatusArray statusArray = latestStatus.getAndSet(null);
+        if (statusArray != null) {
+          endpoint.statusReceived(statusArray);
+        }
+      }
+    };
+
+    ClientConnection(ClientEndpoint<T_ACTION_FEEDBACK, T_ACTION_RESULT> endpoint) {
+      super(endpoint);
+    }
+  }
+
+  private LoopbackChannel(String key) {
+    this.key = key;
+  }
+
+  /**
+   * Checks whether the loopback transport is enabled.
+   * 
+   * @return <tt>false</tt> - if the system property {@value #ENABLED_PROPERTY}
+   *         is set to <tt>false</tt><br>
+   *         <tt>true</tt> - otherwise
+   */
+  public static boolean isEnabled() {
+    return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+  }
+
+  /**
+   * Gets the channel of an action. The channel is created if it does not exist
+   * yet, and is released once neither a server nor a client is attached
+   * anymore.
+   * 
+   * @param node
+   *          The node of the server or client
+   * @param actionName
+   *          The resolved name of the action
+   * @param actionGoalType
+   *          The message type of the action goal
+   * @return The channel or <tt>null</tt> if the loopback transport is disabled
+   */
+  @SuppressWarnings("unchecked")
+  public static <T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message>
+      LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT>
+      open(ConnectedNode node, String actionName, String actionGoalType) {
+    if (!isEnabled()) {
+      return null;
+    }
+    // The action type is part of the key, so the message types of all
+    // endpoints of a channel match.
+    String key = node.getMasterUri() + " " + actionName + " " + actionGoalType;
+    registryLock.lock();
+    try {
+      LoopbackChannel<?, ?, ?> channel = channels.get(key);
+      if (channel == null) {
+        channel = new LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT>(key);
+        channels.put(key, channel);
+      }
+      return (LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT>) channel;
+    } finally {
+      registryLock.unlock();
+    }
+  }
+
+  /**
+   * Binds an action server to the channel. Only one server can be bound at a
+   * time.
+   * 
+   * @param endpoint
+   *          The receiving end of the server
+   * @return <tt>true</tt> - if the server was bound<br>
+   *         <tt>false</tt> - if another server is already bound
+   */
+  public boolean bindServer(ServerEndpoint<T_ACTION_GOAL> endpoint) {
+    registryLock.lock();
+    try {
+      if (server != null) {
+        return false;
+      }
+      channels.put(key, this);
+      server = new Connection<ServerEndpoint<T_ACTION_GOAL>>(endpoint);
+      return true;
+    } finally {
+      registryLock.unlock();
+    }
+  }
+
+  /**
+   * Unbinds an action server from the channel. Messages that have already
+   * been sent to it are still delivered.
+   * 
+   * @param endpoint
+   *          The receiving end of the server
+   */
+  public void unbindServer(ServerEndpoint<T_ACTION_GOAL> endpoint) {
+    registryLock.lock();
+    try {
+      Connection<ServerEndpoint<T_ACTION_GOAL>> connection = server;
+      if (connection != null && connection.endpoint == endpoint) {
+        server = null;
+        connection.executor.shutdown();
+        releaseIfUnused();
+      }
+    } finally {
+      registryLock.unlock();
+    }
+  }
+
+  /**
+   * Adds an action client to the channel.
+   * 
+   * @param endpoint
+   *          The receiving end of the client
+   */
+  public void addClient(ClientEndpoint<T_ACTION_FEEDBACK, T_ACTION_RESULT> endpoint) {
+    registryLock.lock();
+    try {
+      channels.put(key, this);
+      clients.add(new ClientConnection<T_ACTION_FEEDBACK, T_ACTION_RESULT>(endpoint));
+    } finally {
+      registryLock.unlock();
+    }
+  }
+
+  /**
+   * Removes an action client from the channel. Messages that have already been
+   * sent to it are still delivered.
+   * 
+   * @param endpoint
+   *          The receiving end of the client
+   */
+  public void removeClient(ClientEndpoint<T_ACTION_FEEDBACK, T_ACTION_RESULT> endpoint) {
+    registryLock.lock();
+    try {
+      for (ClientConnection<T_ACTION_FEEDBACK, T_ACTION_RESULT> connection : clients) {
+        if (connection.endpoint == endpoint) {
+          clients.remove(connection);
+          connection.executor.shutdown();
+        }
+      }
+      releaseIfUnused();
+    } finally {
+      registryLock.unlock();
+    }
+  }
+
+  private void releaseIfUnused() {
+    if (server == null && clients.isEmpty()) {
+      channels.remove(key, this);
+    }
+  }
+
+  /**
+   * Checks whether an action server in this JVM is bound to the channel. While
+   * it is, it is the server of the action, and all of its messages reach the
+   * clients of the channel through the channel.
+   * 
+   * @return <tt>true</tt> - if a server is bound<br>
+   *         <tt>false</tt> - otherwise
+   */
+  public boolean isServerBound() {
+    return server != null;
+  }
+
+  /**
+   * Checks whether action clients in this JVM are attached to the channel.
+   * 
+   * @return <tt>true</tt> - if there are clients<br>
+   *         <tt>false</tt> - otherwise
+   */
+  public boolean hasClients() {
+    return !clients.isEmpty();
+  }
+
+  /**
+   * Hands an action goal to the bound server.
+   * 
+   * @param actionGoal
+   *          The action goal
+   * @return <tt>true</tt> - if the goal was handed to the server<br>
+   *         <tt>false</tt> - if no server is bound and the goal has to be
+   *         published through rosjava
+   */
+  public boolean sendGoal(final T_ACTION_GOAL actionGoal) {
+    final Connection<ServerEndpoint<T_ACTION_GOAL>> connection = server;
+    if (connection == null) {
+      return false;
+    }
+    return deliver(connection, new Runnable() {
+      @Override
+      public void run() {
+        connection.endpoint.goalReceived(actionGoal);
+      }
+    });
+  }
+
+  /**
+   * Hands a cancel request to the bound server.
+   * 
+   * @param goalID
+   *          The GoalID of the goals to cancel
+   * @return <tt>true</tt> - if the request was handed to the server<br>
+   *         <tt>false</tt> - if no server is bound and the request has to be
+   *         published through rosjava
+   */
+  public boolean sendCancel(final GoalID goalID) {
+    final Connection<ServerEndpoint<T_ACTION_GOAL>> connection = server;
+    if (connection == null) {
+      return false;
+    }
+    return deliver(connection, new Runnable() {
+      @Override
+      public void run() {
+        connection.endpoint.cancelReceived(goalID);
+      }
+    });
+  }
+
+  /**
+   * Hands a status message to all clients. A status message that has not
+   * been delivered to a client yet is replaced by this one.
+   * 
+   * @param statusArray
+   *          The status message
+   */
+  public void publishStatus(GoalStatusArray statusArray) {
+    for (ClientConnection<T_ACTION_FEEDBACK, T_ACTION_RESULT> connection : clients) {
+      if (connection.latestStatus.getAndSet(statusArray) == null) {
+        deliver(connection, connection.statusDelivery);
+      }
+    }
+  }
+
+  /**
+   * Hands an action feedback message to all clients. A feedback message for
+   * the same goal that has not been delivered to a client yet is replaced by
+   * this one.
+   * 
+   * @param goalID
+   *          The id of the goal the feedback is published for
+   * @param actionFeedback
+   *          The action feedback message
+   */
+  public void publishFeedback(final String goalID, T_ACTION_FEEDBACK actionFeedback) {
+    for (final ClientConnection<T_ACTION_FEEDBACK, T_ACTION_RESULT> connection : clients) {
+      if (connection.latestFeedback.put(goalID, actionFeedback) == null) {
+        deliver(connection, new Runnable() {
+          @Override
+          public void run() {
+            T_ACTION_FEEDBACK latest = connection.latestFeedback.remove(goalID);
+            if (latest != null) {
+              connection.endpoint.feedbackReceived(latest);
+            }
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Hands an action result message to all clients.
+   * 
+   * @param actionResult
+   *          The action result message
+   */
+  public void publishResult(final T_ACTION_RESULT actionResult) {
+    for (final ClientConnection<T_ACTION_FEEDBACK, T_ACTION_RESULT> connection : clients) {
+      deliver(connection, new Runnable() {
+        @Override
+        public void run() {
+          connection.endpoint.resultReceived(actionResult);
+        }
+      });
+    }
+  }
+
+  private static boolean deliver(Connection<?> connection, Runnable delivery) {
+    try {
+      connection.executor.execute(delivery);
+      return true;
+    } catch (RejectedExecutionException e) {
+      // The endpoint has just been detached.
+      return false;
+    }
+  }
+
+}
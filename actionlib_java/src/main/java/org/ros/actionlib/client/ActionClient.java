@@ -18,6 +18,11 @@ package org.ros.actionlib.client;
 
 import org.ros.actionlib.ActionConstants;
 import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.LoopbackChannel;
+import org.ros.actionlib.metrics.ActionMetrics;
+import org.ros.actionlib.metrics.NoOpActionMetrics;
+import org.ros.actionlib.state.CommState;
+import org.ros.actionlib.util.DaemonThreadFactory;
 import org.ros.exception.RosException;
 import org.ros.internal.message.Message;
 import org.ros.message.MessageListener;
@@ -32,6 +37,9 @@ import org.ros.node.topic.Subscriber;
 import org.ros.internal.node.topic.*;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -132,6 +140,47 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
    */
   protected volatile boolean active = true;
 
+  /**
+   * The executor that calls the feedback callbacks of all goals, so that the
+   * thread receiving feedback messages never runs them itself
+   */
+  protected volatile Executor feedbackExecutor;
+
+  /**
+   * The executor created by this ActionClient for the feedback callbacks, if
+   * any. It is shut down along with the ActionClient.
+   */
+  private ExecutorService ownFeedbackExecutor;
+
+  /**
+   * The metrics recorded by the client
+   */
+  protected volatile ActionMetrics metrics = NoOpActionMetrics.INSTANCE;
+
+  /**
+   * The in-process channel to an action server in the same JVM, if the
+   * loopback transport is enabled
+   */
+  protected volatile LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT> loopback;
+
+  private final LoopbackChannel.ClientEndpoint<T_ACTION_FEEDBACK, T_ACTION_RESULT> loopbackEndpoint =
+      new LoopbackChannel.ClientEndpoint<T_ACTION_FEEDBACK, T_ACTION_RESULT>() {
+        @Override
+        public void statusReceived(GoalStatusArray statusArray) {
+          doStatusCallback(statusArray);
+        }
+
+        @Override
+        public void feedbackReceived(T_ACTION_FEEDBACK actionFeedback) {
+          doFeedbackCallback(actionFeedback);
+        }
+
+        @Override
+        public void resultReceived(T_ACTION_RESULT actionResult) {
+          doResultCallback(actionResult);
+        }
+      };
+
   /**
    * Listeners to know when the client is connected or not.
    */
@@ -158,6 +207,8 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
       throws RosException {
     this.nameSpace = nameSpace;
     this.spec = spec;
+    this.ownFeedbackExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("actionlib-feedback"));
+    this.feedbackExecutor = ownFeedbackExecutor;
     this.readyLatch = new CountDownLatch(2);
     this.goalPublisherListener = new DefaultPublisherListener<T_ACTION_GOAL>() {
       @Override
@@ -187,7 +238,9 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
     MessageListener<T_ACTION_FEEDBACK> feedbackCallback = new MessageListener<T_ACTION_FEEDBACK>() {
       @Override
       public void onNewMessage(T_ACTION_FEEDBACK actionFeedback) {
-        doFeedbackCallback(actionFeedback);
+        if (!isLoopbackServerBound()) {
+          doFeedbackCallback(actionFeedback);
+        }
       }
     };
     subFeedback =
@@ -197,7 +250,9 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
     MessageListener<T_ACTION_RESULT> resultCallback = new MessageListener<T_ACTION_RESULT>() {
       @Override
       public void onNewMessage(T_ACTION_RESULT actionResult) {
-        doResultCallback(actionResult);
+        if (!isLoopbackServerBound()) {
+          doResultCallback(actionResult);
+        }
       }
     };
     subResult =
@@ -207,7 +262,9 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
     MessageListener<GoalStatusArray> statusCallback = new MessageListener<GoalStatusArray>() {
       @Override
       public void onNewMessage(GoalStatusArray statusArray) {
-        doStatusCallback(statusArray);
+        if (!isLoopbackServerBound()) {
+          doStatusCallback(statusArray);
+        }
       }
     };
     subStatus =
@@ -224,6 +281,27 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
     goalManager =
         new GoalManager<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
             this);
+
+    // While an action server of the same action runs in this JVM, messages
+    // are exchanged with it directly and the copies of its messages received
+    // through rosjava are ignored.
+    loopback =
+        LoopbackChannel.open(node, node.resolveName(nameSpace).toString(), spec.getActionGoalMessage());
+    if (loopback != null) {
+      loopback.addClient(loopbackEndpoint);
+    }
+  }
+
+  /**
+   * Checks whether an action server of this client's action runs in the same
+   * JVM and is reached through the in-process loopback transport.
+   * 
+   * @return <tt>true</tt> - if messages are exchanged with a local server<br>
+   *         <tt>false</tt> - if they are exchanged through rosjava
+   */
+  public boolean isLoopbackServerBound() {
+    LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT> channel = loopback;
+    return channel != null && channel.isServerBound();
   }
 
   /**
@@ -256,12 +334,37 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
           T_GOAL goal,
           ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks)
           throws RosException {
+    return sendGoal(goal, callbacks, null);
+  }
+
+  /**
+   * Sends a goal message to the action server demanding callback methods which
+   * enable the user to track the progress of the goal. The goal's
+   * ClientGoalHandle is handed to the given listener before the goal is sent
+   * out, so that callbacks arriving before this method returns can already be
+   * matched with it.
+   * 
+   * @param goal
+   *          The goal message
+   * @param callbacks
+   *          The user's callback methods
+   * @param goalHandleListener
+   *          The listener that is told about the ClientGoalHandle, may be NULL
+   * @return The ClientGoalHandle that is associated with the goal message.
+   */
+  public
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>
+      sendGoal(
+          T_GOAL goal,
+          ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks,
+          GoalHandleListener<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandleListener)
+          throws RosException {
 
     ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle =
         null;
 
     if (active) {
-      goalHandle = goalManager.initGoal(goal, callbacks, spec);
+      goalHandle = goalManager.initGoal(goal, callbacks, spec, goalHandleListener);
     } else {
       node.getLog()
           .warn(
@@ -272,6 +375,84 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
 
   }
 
+  /**
+   * Sends a goal message to the action server without waiting for its
+   * outcome.
+   * 
+   * @param goal
+   *          The goal message
+   * @return A GoalFuture that completes when the goal reaches a terminal
+   *         state. If the goal could not be sent out, the GoalFuture is
+   *         canceled.
+   * 
+   * @see #sendGoalAsync(Message, FeedbackListener)
+   */
+  public GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> sendGoalAsync(
+      T_GOAL goal) throws RosException {
+    return sendGoalAsync(goal, null);
+  }
+
+  /**
+   * Sends a goal message to the action server without waiting for its
+   * outcome. Received feedback messages are handed to the given listener. Once
+   * the goal reaches a terminal state, the returned GoalFuture is completed
+   * and the goal's GoalHandle is removed from the list of active goals.
+   * 
+   * @param goal
+   *          The goal message
+   * @param feedbackListener
+   *          The user's feedback listener, may be NULL
+   * @return A GoalFuture that completes when the goal reaches a terminal
+   *         state. If the goal could not be sent out, the GoalFuture is
+   *         canceled.
+   */
+  public GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> sendGoalAsync(
+      T_GOAL goal, FeedbackListener<T_FEEDBACK> feedbackListener) throws RosException {
+
+    final GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> future =
+        new GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(feedbackListener);
+
+    ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks =
+        new ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>() {
+          @Override
+          public void transitionCallback(
+              ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle)
+              throws RosException {
+            if (goalHandle.getCommState().getState() == CommState.StateEnum.DONE) {
+              future.complete(new GoalOutcome<T_RESULT>(goalHandle.getTerminalState(), goalHandle
+                  .getGoalStatusText(), goalHandle.getResult()));
+              goalHandle.shutdown(true);
+            }
+          }
+
+          @Override
+          public void feedbackCallback(
+              ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle,
+              T_FEEDBACK feedback) {
+            future.feedback(feedback);
+          }
+        };
+
+    // Hand the GoalHandle to the GoalFuture before the goal is sent out, so
+    // that it is known before the action server can answer.
+    GoalHandleListener<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandleListener =
+        new GoalHandleListener<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>() {
+          @Override
+          public void goalHandleCreated(
+              ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle) {
+            future.setGoalHandle(goalHandle);
+          }
+        };
+
+    ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle =
+        sendGoal(goal, callbacks, goalHandleListener);
+    if (goalHandle == null) {
+      future.abandon();
+    }
+    return future;
+
+  }
+
   /**
    * Cancels the execution of all goals that were sent out with a timestamp
    * equal to or before the specified time.
@@ -325,6 +506,10 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
     active = false;
 
     goalManager.clear();
+    ownFeedbackExecutor.shutdown();
+    if (loopback != null) {
+      loopback.removeClient(loopbackEndpoint);
+    }
 
     // pubGoal.shutdown();
     // pubCancelGoal.shutdown();
@@ -345,6 +530,9 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
    *         established)
    */
   public void waitForActionServerToStart() throws InterruptedException {
+    if (isLoopbackServerBound()) {
+      return;
+    }
 	  this.readyLatch = new CountDownLatch(2);
     readyLatch.await();
   }
@@ -368,10 +556,57 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
     // TODO(keith): This isn't quite right since it will only have connection to
     // the goal and cancel publishers. This should be extended to include the
     // subscribers.
+    if (isLoopbackServerBound()) {
+      return true;
+    }
 	  this.readyLatch = new CountDownLatch(2);
     return readyLatch.await(timeout, units);
   }
 
+  /**
+   * Gets the metrics recorded by the client.
+   * 
+   * @return The metrics
+   */
+  public ActionMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Sets the metrics recorded by the client, its GoalManager and a
+   * SimpleActionClient using it.
+   * 
+   * @param metrics
+   *          The metrics, or <tt>null</tt> to stop recording metrics
+   */
+  public void setMetrics(ActionMetrics metrics) {
+    this.metrics = metrics == null ? NoOpActionMetrics.INSTANCE : metrics;
+  }
+
+  /**
+   * Gets the executor that calls the feedback callbacks.
+   * 
+   * @return The feedback executor
+   */
+  public Executor getFeedbackExecutor() {
+    return feedbackExecutor;
+  }
+
+  /**
+   * Sets the executor that calls the feedback callbacks of all goals instead
+   * of the dedicated feedback thread of this ActionClient. The feedback of a
+   * single goal is still delivered in order and never concurrently.
+   * 
+   * @param executor
+   *          The executor to use for the feedback callbacks
+   */
+  public void setFeedbackExecutor(Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("The feedback executor must not be null");
+    }
+    feedbackExecutor = executor;
+  }
+
   /**
    * Gets the ActionClient's node.
    * 
@@ -388,7 +623,7 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
    *          The action goal message
    */
   protected void publishActionGoal(T_ACTION_GOAL actionGoal) {
-    if (active) {
+    if (active && (loopback == null || !loopback.sendGoal(actionGoal))) {
       pubGoal.publish(actionGoal);
     }
   }
@@ -401,7 +636,7 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
    *          The GoalID message using the id of the goal that shall be canceled
    */
   protected void publishCancelGoal(GoalID cancelMessage) {
-    if (active) {
+    if (active && (loopback == null || !loopback.sendCancel(cancelMessage))) {
       pubCancelGoal.publish(cancelMessage);
     }
   }
@@ -438,7 +673,8 @@ public class ActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exten
   /**
    * Callback method used when the subscriber of the action server's feedback
    * topic receives a new action feedback message. This ActionClient's
-   * GoalManager gets informed about the newly arrived message.
+   * GoalManager gets informed about the newly arrived message. The feedback
+   * callback itself is called later on the feedback executor.
    * 
    * @param actionFeedback
    *          An action feedback message
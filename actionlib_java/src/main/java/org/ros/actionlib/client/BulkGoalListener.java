@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.internal.message.Message;
+
+/**
+ * An interface between a {@link BulkSubmission} and user code. Allows user code
+ * to react on the outcome of every goal of the submission.
+ * 
+ * @param <T_GOAL>
+ *          goal message
+ * @param <T_RESULT>
+ *          result message
+ */
+public interface BulkGoalListener<T_GOAL extends Message, T_RESULT extends Message> {
+
+  /**
+   * Gets called when a goal of the submission is done. The implementation of
+   * this method should not contain any time-consuming operations and return
+   * immediately, since the next goal is only sent out afterwards.
+   * 
+   * @param goal
+   *          The goal message
+   * @param outcome
+   *          The outcome of the goal, or NULL if the goal could not be sent out
+   *          or was canceled on the client side
+   */
+  void goalDone(T_GOAL goal, GoalOutcome<T_RESULT> outcome);
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.internal.message.Message;
+
+import java.util.Iterator;
+
+/**
+ * A BulkGoalSubmitter pushes batches of goals through an ActionClient. At most
+ * a fixed number of goals of a batch are in flight at any time, so that the
+ * action server is not flooded. Whenever a goal reaches a terminal state, the
+ * next goal of the batch is sent out.
+ * 
+ * <pre>
+ * BulkSubmission&lt;...&gt; batch = new BulkGoalSubmitter&lt;...&gt;(actionClient, 32).submit(goals, null);
+ * BulkStatistics statistics = batch.await();
+ * </pre>
+ * 
+ * @param <T_ACTION_FEEDBACK>
+ *          action feedback message
+ * @param <T_ACTION_GOAL>
+ *          action goal message
+ * @param <T_ACTION_RESULT>
+ *          action result message
+ * @param <T_FEEDBACK>
+ *          feedback message
+ * @param <T_GOAL>
+ *          goal message
+ * @param <T_RESULT>
+ *          result message
+ */
+public class BulkGoalSubmitter<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
+
+  private final ActionClient<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionClient;
+  private final int window;
+
+  /**
+   * Constructor to create a BulkGoalSubmitter sending goals through the given
+   * ActionClient.
+   * 
+   * @param actionClient
+   *          The ActionClient used to send out the goals
+   * @param window
+   *          The maximum number of goals of a batch in flight at the same time
+   */
+  public BulkGoalSubmitter(
+      ActionClient<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionClient,
+      int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("The window must contain at least one goal");
+    }
+    this.actionClient = actionClient;
+    this.window = window;
+  }
+
+  /**
+   * Starts sending out the goals of the given collection.
+   * 
+   * @param goals
+   *          The goal messages
+   * @param listener
+   *          Gets informed about the outcome of every goal, may be NULL
+   * @return The submission of the batch
+   */
+  public BulkSubmission<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>
+      submit(Iterable<? extends T_GOAL> goals, BulkGoalListener<T_GOAL, T_RESULT> listener) {
+    return submit(goals.iterator(), listener);
+  }
+
+  /**
+   * Starts sending out the goals of the given sequence. The iterator is only
+   * advanced when there is room for another goal in flight, so it may produce
+   * its goals lazily. It is only accessed by one thread at a time.
+   * 
+   * @param goals
+   *          The goal messages
+   * @param listener
+   *          Gets informed about the outcome of every goal, may be NULL
+   * @return The submission of the batch
+   */
+  public BulkSubmission<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>
+      submit(Iterator<? extends T_GOAL> goals, BulkGoalListener<T_GOAL, T_RESULT> listener) {
+    BulkSubmission<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> submission =
+        new BulkSubmission<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+            actionClient, window, goals, listener);
+    submission.start();
+    return submission;
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.actionlib.state.TerminalState;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency statistics of a {@link BulkSubmission}. The latency of
+ * a goal is the time from sending it out until it reached a terminal state.
+ * Goals that could not be sent out or were canceled on the client side are
+ * only counted, they do not contribute to the latencies.
+ */
+public class BulkStatistics {
+
+  private final int goalCount;
+  private final int canceledCount;
+  private final Map<TerminalState.StateEnum, Integer> terminalStateCounts;
+  private final long elapsedNanos;
+  private final long[] sortedLatencyNanos;
+
+  BulkStatistics(int goalCount, int canceledCount,
+      Map<TerminalState.StateEnum, Integer> terminalStateCounts, long elapsedNanos,
+      long[] latencyNanos, int latencyCount) {
+    this.goalCount = goalCount;
+    this.canceledCount = canceledCount;
+    this.terminalStateCounts =
+        new EnumMap<TerminalState.StateEnum, Integer>(TerminalState.StateEnum.class);
+    this.terminalStateCounts.putAll(terminalStateCounts);
+    this.elapsedNanos = elapsedNanos;
+    this.sortedLatencyNanos = Arrays.copyOf(latencyNanos, latencyCount);
+    Arrays.sort(this.sortedLatencyNanos);
+  }
+
+  /**
+   * @return The number of goals that are done
+   */
+  public int getGoalCount() {
+    return goalCount;
+  }
+
+  /**
+   * @return The number of goals that could not be sent out or were canceled on
+   *         the client side
+   */
+  public int getCanceledCount() {
+    return canceledCount;
+  }
+
+  /**
+   * @param state
+   *          A terminal state
+   * @return The number of goals that reached the given terminal state
+   */
+  public int getCount(TerminalState.StateEnum state) {
+    Integer count = terminalStateCounts.get(state);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * @param unit
+   *          The unit of the returned time
+   * @return The time from sending out the first goal until the last goal was
+   *         done
+   */
+  public long getElapsedTime(TimeUnit unit) {
+    return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return The number of goals done per second
+   */
+  public double getThroughput() {
+    return elapsedNanos == 0 ? 0 : goalCount * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * @param unit
+   *          The unit of the returned latency
+   * @return The mean latency, or zero if no goal reached a terminal state
+   */
+  public double getMeanLatency(TimeUnit unit) {
+    if (sortedLatencyNanos.length == 0) {
+      return 0;
+    }
+    double sum = 0;
+    for (long latency : sortedLatencyNanos) {
+      sum += latency;
+    }
+    return sum / sortedLatencyNanos.length / unit.toNanos(1);
+  }
+
+  /**
+   * @param percentile
+   *          The percentile, between 0 and 100
+   * @param unit
+   *          The unit of the returned latency
+   * @return The latency below or at which the given percentage of goals
+   *         reached their terminal state, or zero if no goal reached a
+   *         terminal state
+   */
+  public long getLatencyPercentile(double percentile, TimeUnit unit) {
+    if (sortedLatencyNanos.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile / 100 * sortedLatencyNanos.length) - 1;
+    index = Math.max(0, Math.min(sortedLatencyNanos.length - 1, index));
+    return unit.convert(sortedLatencyNanos[index], TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @param unit
+   *          The unit of the returned latency
+   * @return The maximum latency, or zero if no goal reached a terminal state
+   */
+  public long getMaxLatency(TimeUnit unit) {
+    return getLatencyPercentile(100, unit);
+  }
+
+  @Override
+  public String toString() {
+    return "BulkStatistics [goals=" + goalCount + ", canceled=" + canceledCount + ", states="
+        + terminalStateCounts + ", elapsed=" + getElapsedTime(TimeUnit.MILLISECONDS)
+        + "ms, throughput=" + getThroughput() + "/s, latency mean="
+        + getMeanLatency(TimeUnit.MICROSECONDS) + "us, p50="
+        + getLatencyPercentile(50, TimeUnit.MICROSECONDS) + "us, p99="
+        + getLatencyPercentile(99, TimeUnit.MICROSECONDS) + "us, max="
+        + getMaxLatency(TimeUnit.MICROSECONDS) + "us]";
+  }
+
+}
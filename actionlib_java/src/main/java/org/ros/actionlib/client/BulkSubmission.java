@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.actionlib.state.TerminalState;
+import org.ros.exception.RosException;
+import org.ros.internal.message.Message;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A BulkSubmission sends out the goals of a sequence through an ActionClient
+ * while keeping at most a fixed number of them in flight. Whenever a goal is
+ * done, the next one is sent out. No thread is blocked while goals are in
+ * flight; the goals are sent out by the thread submitting the batch and then
+ * by the threads processing the goals' results.
+ * 
+ * @param <T_ACTION_FEEDBACK>
+ *          action feedback message
+ * @param <T_ACTION_GOAL>
+ *          action goal message
+ * @param <T_ACTION_RESULT>
+ *          action result message
+ * @param <T_FEEDBACK>
+ *          feedback message
+ * @param <T_GOAL>
+ *          goal message
+ * @param <T_RESULT>
+ *          result message
+ * 
+ * @see BulkGoalSubmitter
+ */
+public class BulkSubmission<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
+
+  /**
+   * Runs listeners on the thread completing a GoalFuture
+   */
+  private static final Executor DIRECT_EXECUTOR = new Executor() {
+    @Override
+    public void execute(Runnable command) {
+      command.run();
+    }
+  };
+
+  private final ActionClient<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionClient;
+  private final int window;
+  private final BulkGoalListener<T_GOAL, T_RESULT> listener;
+
+  /**
+   * Guards the goal iterator and all counters.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Iterator<? extends T_GOAL> goals;
+  private int inFlight = 0;
+  private boolean canceled = false;
+  private long startNanos;
+  private long endNanos;
+  private int goalCount = 0;
+  private int canceledCount = 0;
+  private final Map<TerminalState.StateEnum, Integer> terminalStateCounts =
+      new EnumMap<TerminalState.StateEnum, Integer>(TerminalState.StateEnum.class);
+  private long[] latencyNanos = new long[64];
+  private int latencyCount = 0;
+
+  /**
+   * The GoalFutures of all goals in flight
+   */
+  private final Set<GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> futuresInFlight =
+      Collections
+          .newSetFromMap(new ConcurrentHashMap<GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>, Boolean>());
+
+  private final CountDownLatch doneLatch = new CountDownLatch(1);
+
+  /**
+   * Number of requests to fill the window. Only the thread raising it from
+   * zero sends out goals, all other threads leave their request to that
+   * thread. This keeps goals that are done right away from recursing into
+   * fill() again.
+   */
+  private final AtomicInteger fillRequests = new AtomicInteger(0);
+
+  BulkSubmission(
+      ActionClient<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionClient,
+      int window, Iterator<? extends T_GOAL> goals, BulkGoalListener<T_GOAL, T_RESULT> listener) {
+    this.actionClient = actionClient;
+    this.window = window;
+    this.goals = goals;
+    this.listener = listener;
+  }
+
+  /**
+   * Sends out the first goals of the batch.
+   */
+  void start() {
+    lock.lock();
+    try {
+      startNanos = System.nanoTime();
+    } finally {
+      lock.unlock();
+    }
+    fill();
+  }
+
+  /**
+   * Stops sending out further goals and cancels all goals in flight.
+   */
+  public void cancel() {
+    lock.lock();
+    try {
+      canceled = true;
+    } finally {
+      lock.unlock();
+    }
+    for (GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> future : futuresInFlight) {
+      future.cancel(false);
+    }
+    fill();
+  }
+
+  /**
+   * @return <tt>true</tt> if all goals of the batch are done or the batch was
+   *         canceled and no goal is in flight anymore
+   */
+  public boolean isDone() {
+    return doneLatch.getCount() == 0;
+  }
+
+  /**
+   * Waits until all goals of the batch are done.
+   * 
+   * @return The statistics of the batch
+   */
+  public BulkStatistics await() throws InterruptedException {
+    doneLatch.await();
+    return getStatistics();
+  }
+
+  /**
+   * Waits up to the specified duration until all goals of the batch are done.
+   * 
+   * @return <tt>true</tt> if all goals are done, <tt>false</tt> otherwise
+   */
+  public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+    return doneLatch.await(timeout, unit);
+  }
+
+  /**
+   * Gets the statistics of all goals that are done so far.
+   * 
+   * @return The statistics
+   */
+  public BulkStatistics getStatistics() {
+    lock.lock();
+    try {
+      long end = isDone() ? endNanos : System.nanoTime();
+      return new BulkStatistics(goalCount, canceledCount, terminalStateCounts, end - startNanos,
+          latencyNanos, latencyCount);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Sends out goals until the window is full or the batch is exhausted.
+   */
+  private void fill() {
+    if (fillRequests.getAndIncrement() != 0) {
+      return;
+    }
+    int requests = 1;
+    do {
+      fillWindow();
+      requests = fillRequests.addAndGet(-requests);
+    } while (requests != 0);
+  }
+
+  private void fillWindow() {
+    while (true) {
+      T_GOAL goal;
+      lock.lock();
+      try {
+        if (canceled || !goals.hasNext()) {
+          if (inFlight == 0 && doneLatch.getCount() > 0) {
+            endNanos = System.nanoTime();
+            doneLatch.countDown();
+          }
+          return;
+        }
+        if (inFlight >= window) {
+          return;
+        }
+        goal = goals.next();
+        inFlight++;
+      } finally {
+        lock.unlock();
+      }
+      send(goal);
+    }
+  }
+
+  private void send(final T_GOAL goal) {
+    final long sentNanos = System.nanoTime();
+    final GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> future;
+    try {
+      future = actionClient.sendGoalAsync(goal);
+    } catch (RosException e) {
+      actionClient.getNode().getLog().error("[BulkSubmission] Couldn't send goal", e);
+      goalDone(goal, null, 0);
+      return;
+    }
+    futuresInFlight.add(future);
+    // A cancel() running while the goal was sent out may have missed the
+    // future, so it is canceled here once it can be found by cancel().
+    boolean cancelFuture;
+    lock.lock();
+    try {
+      cancelFuture = canceled;
+    } finally {
+      lock.unlock();
+    }
+    if (cancelFuture) {
+      future.cancel(false);
+    }
+    future.addListener(new Runnable() {
+      @Override
+      public void run() {
+        futuresInFlight.remove(future);
+        GoalOutcome<T_RESULT> outcome = null;
+        if (!future.isCancelled()) {
+          try {
+            outcome = future.get();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        goalDone(goal, outcome, System.nanoTime() - sentNanos);
+      }
+    }, DIRECT_EXECUTOR);
+  }
+
+  private void goalDone(T_GOAL goal, GoalOutcome<T_RESULT> outcome, long latency) {
+    lock.lock();
+    try {
+      inFlight--;
+      goalCount++;
+      if (outcome == null) {
+        canceledCount++;
+      } else {
+        TerminalState.StateEnum state = outcome.getTerminalState().getState();
+        Integer count = terminalStateCounts.get(state);
+        terminalStateCounts.put(state, count == null ? 1 : count + 1);
+        if (latencyCount == latencyNanos.length) {
+          latencyNanos = Arrays.copyOf(latencyNanos, latencyCount * 2);
+        }
+        latencyNanos[latencyCount++] = latency;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (listener != null) {
+      listener.goalDone(goal, outcome);
+    }
+    fill();
+  }
+
+}
@@ -140,7 +140,7 @@ public class ClientGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
           .getLog()
           .error(
               "[ClientGoalHandle] Trying to getCommState() on an inactive ClientGoalHandle. You are incorrectly using a ClientGoalHandle.");
-      return new CommState(CommState.StateEnum.DONE);
+      return CommState.valueOf(CommState.StateEnum.DONE);
     }
 
     CommState commState = null;
@@ -174,7 +174,7 @@ public class ClientGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
           .getLog()
           .error(
               "[ClientGoalHandle] Trying to getTerminalState() on an inactive ClientGoalHandle. You are incorrectly using a ClientGoalHandle.");
-      return new TerminalState(TerminalState.StateEnum.LOST);
+      return TerminalState.valueOf(TerminalState.StateEnum.LOST);
     }
 
     CommState commState = null;
@@ -202,19 +202,19 @@ public class ClientGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
           .error(
               "[ClientGoalHandle] Asking for terminal state, but latest goal status is '"
                   + goalStatus.getStatus() + "'");
-      return new TerminalState(TerminalState.StateEnum.LOST, goalStatus.getText());
+      return TerminalState.valueOf(TerminalState.StateEnum.LOST);
     case GoalStatus.PREEMPTED:
-      return new TerminalState(TerminalState.StateEnum.PREEMPTED, goalStatus.getText());
+      return TerminalState.valueOf(TerminalState.StateEnum.PREEMPTED);
     case GoalStatus.SUCCEEDED:
-      return new TerminalState(TerminalState.StateEnum.SUCCEEDED, goalStatus.getText());
+      return TerminalState.valueOf(TerminalState.StateEnum.SUCCEEDED);
     case GoalStatus.ABORTED:
-      return new TerminalState(TerminalState.StateEnum.ABORTED, goalStatus.getText());
+      return TerminalState.valueOf(TerminalState.StateEnum.ABORTED);
     case GoalStatus.REJECTED:
-      return new TerminalState(TerminalState.StateEnum.REJECTED, goalStatus.getText());
+      return TerminalState.valueOf(TerminalState.StateEnum.REJECTED);
     case GoalStatus.RECALLED:
-      return new TerminalState(TerminalState.StateEnum.RECALLED, goalStatus.getText());
+      return TerminalState.valueOf(TerminalState.StateEnum.RECALLED);
     case GoalStatus.LOST:
-      return new TerminalState(TerminalState.StateEnum.LOST, goalStatus.getText());
+      return TerminalState.valueOf(TerminalState.StateEnum.LOST);
     default:
       actionClient.getNode().getLog()
           .error("[ClientGoalHandle] Unknown goal status '" + goalStatus.getStatus() + "'");
@@ -222,7 +222,29 @@ public class ClientGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
     }
 
     actionClient.getNode().getLog().error("[ClientGoalHandle] Bug in determining terminal state");
-    return new TerminalState(TerminalState.StateEnum.LOST, goalStatus.getText());
+    return TerminalState.valueOf(TerminalState.StateEnum.LOST);
+
+  }
+
+  /**
+   * Gets the text the action server sent along with the latest status of the
+   * goal, e.g. the reason why the goal was aborted.
+   * 
+   * @return The status text, or NULL if no status has been received yet
+   */
+  public String getGoalStatusText() {
+
+    if (!active) {
+      actionClient
+          .getNode()
+          .getLog()
+          .error(
+              "[ClientGoalHandle] Trying to getGoalStatusText() on an inactive ClientGoalHandle. You are incorrectly using a ClientGoalHandle.");
+      return null;
+    }
+
+    GoalStatus goalStatus = commStateMachine.getGoalStatus();
+    return goalStatus == null ? null : goalStatus.getText();
 
   }
 
@@ -244,6 +266,17 @@ public class ClientGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
     return commStateMachine.getResult();
   }
 
+  /**
+   * Gets the number of feedback messages of this goal that were dropped,
+   * because a newer one arrived before the feedback callback could process
+   * them.
+   * 
+   * @return The number of dropped feedback messages
+   */
+  public long getDroppedFeedbackCount() {
+    return commStateMachine.getDroppedFeedbackCount();
+  }
+
   /**
    * Re-sends the GoalHandle's goal message. This can be necessary when the
    * action server didn't receive the goal message which was sent out before.
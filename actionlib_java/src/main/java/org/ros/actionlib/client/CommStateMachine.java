@@ -16,18 +16,18 @@
 
 package org.ros.actionlib.client;
 
+import org.apache.commons.logging.Log;
 import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.recorder.FlightRecorder;
 import org.ros.actionlib.state.CommState;
 import org.ros.exception.RosException;
 import org.ros.internal.message.Message;
 import actionlib_msgs.GoalStatus;
 import actionlib_msgs.GoalStatusArray;
 
-import org.ros.node.NodeConfiguration;
-import org.ros.message.MessageFactory;
-
-
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A CommStateMachine monitors the communication between an action client and an
@@ -50,6 +50,19 @@ import java.util.ArrayList;
  *          result message
  */
 public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
+  /**
+   * The names of the goal statuses, indexed by status.
+   */
+  private static final String[] STATUS_NAMES = { "PENDING", "ACTIVE", "PREEMPTED", "SUCCEEDED", "ABORTED",
+      "REJECTED", "PREEMPTING", "RECALLING", "RECALLED" };
+
+  /**
+   * The transitions on a status update, indexed by the ordinal of the current
+   * state and by the goal status. Statuses beyond RECALLED are unknown. The
+   * state DONE ignores all statuses, so its row is never used.
+   */
+  private static final Transition[][] TRANSITIONS = buildTransitions();
+
   /**
    * Client this goal is associated with.
    */
@@ -72,9 +85,10 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
   protected String actionGoalID;
 
   /**
-   * The current state of the CommStateMachine
+   * The current state of the CommStateMachine. Volatile, so that it can be
+   * read without acquiring the lock.
    */
-  protected CommState commState;
+  protected volatile CommState commState;
 
   /**
    * The latest GoalStatus received
@@ -91,6 +105,26 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
    */
   protected ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec;
 
+  /**
+   * The sequence number of the latest status message that was dispatched to
+   * this CommStateMachine by a {@link GoalStatusDispatcher}
+   */
+  private volatile long statusSequence = 0;
+
+  /**
+   * Guards the state of this CommStateMachine. A lock is used instead of
+   * synchronized methods, because the callbacks run while it is held and a
+   * blocking callback must not pin the carrier of a virtual thread.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Holds the latest feedback message until the action client's feedback
+   * executor delivers it to the callbacks. <tt>null</tt> if there are no
+   * callbacks.
+   */
+  private final FeedbackMailbox<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> feedbackMailbox;
+
   /**
    * Constructor used to create a CommStateMachine, which gets linked to the
    * given action goal message and action specification. The
@@ -119,8 +153,12 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
     this.callbacks = callbacks;
     this.latestGoalStatus = null;
     this.spec = spec;
-    this.commState = new CommState(CommState.StateEnum.WAITING_FOR_GOAL_ACK);
+    this.commState = CommState.valueOf(CommState.StateEnum.WAITING_FOR_GOAL_ACK);
     this.actionClient = actionClient;
+    this.feedbackMailbox =
+        callbacks == null ? null
+            : new FeedbackMailbox<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+                actionClient, callbacks);
   }
 
   /**
@@ -132,12 +170,21 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
     return actionGoal;
   }
 
+  /**
+   * Gets the id of this CommStateMachine's action goal.
+   * 
+   * @return The goal's id
+   */
+  public String getActionGoalID() {
+    return actionGoalID;
+  }
+
   /**
    * Gets the CommStateMachine's current state.
    * 
    * @return The current state
    */
-  public synchronized CommState getCommState() {
+  public CommState getCommState() {
     return commState;
   }
 
@@ -146,8 +193,13 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
    * 
    * @return GoalStatus message
    */
-  public synchronized GoalStatus getGoalStatus() {
-    return latestGoalStatus;
+  public GoalStatus getGoalStatus() {
+    lock.lock();
+    try {
+      return latestGoalStatus;
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
@@ -155,12 +207,17 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
    * 
    * @return Action result message
    */
-  public synchronized T_RESULT getResult() throws RosException {
-    if (latestResult != null) {
-      return spec.getResultFromActionResult(latestResult);
-    }
+  public T_RESULT getResult() throws RosException {
+    lock.lock();
+    try {
+      if (latestResult != null) {
+        return spec.getResultFromActionResult(latestResult);
+      }
 
-    return null;
+      return null;
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
@@ -172,7 +229,7 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
    * @return The GoalStatus message. If no matching GoalStatus message could be
    *         found, NULL is returned.
    */
-  protected GoalStatus findGoalStatus(ArrayList<GoalStatus> listStatus) {
+  protected GoalStatus findGoalStatus(List<GoalStatus> listStatus) {
 
     GoalStatus status = null;
     for (GoalStatus gs : listStatus) {
@@ -186,10 +243,33 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
   }
 
   /**
-   * Extracts feedback messages from received action feedback messages and calls
-   * the action client's callback method for every feedback message processed.
-   * If the action feedback message's GoalID does not match the GoalID of this
-   * CommStateMachine's action goal, this method does nothing.
+   * Stamps this CommStateMachine with the sequence number of the status
+   * message that is currently being dispatched. The GoalManager dispatches
+   * status messages one after another under its status lock, so no further
+   * synchronization is needed.
+   * 
+   * @param sequence
+   *          The sequence number of the status message
+   * @return <tt>true</tt> - if this CommStateMachine was not yet stamped with
+   *         the given sequence number<br>
+   *         <tt>false</tt> - otherwise
+   */
+  boolean markStatusSequence(long sequence) {
+    if (statusSequence == sequence) {
+      return false;
+    }
+    statusSequence = sequence;
+    return true;
+  }
+
+  /**
+   * Hands a received action feedback message to the feedback mailbox of this
+   * CommStateMachine. The feedback message is extracted and the action
+   * client's callback method is called on the action client's feedback
+   * executor. If an earlier action feedback message has not been delivered
+   * yet, it is dropped in favor of the new one. If the action feedback
+   * message's GoalID does not match the GoalID of this CommStateMachine's
+   * action goal, this method does nothing.
    * 
    * @param actionFeedback
    *          The action feedback message
@@ -204,20 +284,29 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
           ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh)
           throws RosException {
 
-    if (actionGoalID.equals(spec.getGoalStatusFromActionFeedback(actionFeedback).getGoalId().getId())
-        && callbacks != null) {
-      callbacks.feedbackCallback(gh, spec.getFeedbackFromActionFeedback(actionFeedback));
-
+    if (feedbackMailbox != null
+        && actionGoalID.equals(spec.getGoalStatusFromActionFeedback(actionFeedback).getGoalId().getId())) {
+      feedbackMailbox.offer(actionFeedback, gh);
     }
 
   }
 
+  /**
+   * Gets the number of feedback messages of this goal that were dropped,
+   * because a newer one arrived before they could be delivered to the
+   * callbacks or because the GoalHandle was shut down.
+   * 
+   * @return The number of dropped feedback messages
+   */
+  public long getDroppedFeedbackCount() {
+    return feedbackMailbox == null ? 0 : feedbackMailbox.getDroppedCount();
+  }
+
   /**
    * Extracts and stores the GoalStatus and result messages from the action
    * result message. It updates the current state of this CommStateMachine to
-   * 'DONE' and calls the
-   * {@link #updateStatus(GoalStatusArray, ClientGoalHandle)} method using the
-   * extracted GoalStatus message. If the GoalID of the action result message's
+   * 'DONE' and calls the {@link #updateStatus(GoalStatus, ClientGoalHandle)}
+   * method using the extracted GoalStatus message. If the GoalID of the action result message's
    * GoalStatus does not match the GoalID of this CommStateMachine's action
    * goal, this method does nothing.
    * 
@@ -227,56 +316,57 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
    *          The GoalHandle associated with the goal on which the action result
    *          message is received
    */
-  public synchronized
+  public
       void
       updateResult(
           T_ACTION_RESULT actionResult,
           ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh)
           throws RosException {
-
-    if (!actionGoalID.equals(spec.getGoalStatusFromActionResult(actionResult).getGoalId().getId())) {
-      return;
+    // The final feedback has to be delivered before the final transition. It
+    // is flushed before the lock is taken, since flush() waits for a delivery
+    // on the feedback executor whose callback may be waiting for the lock.
+    if (feedbackMailbox != null && commState.getState() != CommState.StateEnum.DONE) {
+      feedbackMailbox.flush();
     }
 
-    latestGoalStatus = spec.getGoalStatusFromActionResult(actionResult);
-    latestResult = actionResult;
-
-    switch (commState.getState()) {
-    case WAITING_FOR_GOAL_ACK:
-    case PENDING:
-    case ACTIVE:
-    case WAITING_FOR_RESULT:
-    case WAITING_FOR_CANCEL_ACK:
-    case RECALLING:
-    case PREEMPTING:
-      NodeConfiguration nc = NodeConfiguration.newPrivate();
-      MessageFactory mf = nc.getTopicMessageFactory();
-      GoalStatusArray statusArray = mf.newFromType(GoalStatusArray._TYPE);
-      java.util.ArrayList<actionlib_msgs.GoalStatus> sl = new java.util.ArrayList<actionlib_msgs.GoalStatus>(statusArray.getStatusList());
-      sl.add(spec.getGoalStatusFromActionResult(actionResult));
-      statusArray.setStatusList(sl);
-      updateStatus(statusArray, gh);
-      transitionToState(CommState.StateEnum.DONE, gh);
-      break;
-    case DONE:
-      actionClient.getNode().getLog()
-          .error("[CommStateMachine] Got a result when we were already in the 'DONE' state");
-      break;
-    default:
-      actionClient.getNode().getLog()
-          .error("[CommStateMachine] Unknown comm state '" + commState + "'");
-      break;
-    }
+    lock.lock();
+    try {
+      if (!actionGoalID.equals(spec.getGoalStatusFromActionResult(actionResult).getGoalId().getId())) {
+        return;
+      }
 
+      latestGoalStatus = spec.getGoalStatusFromActionResult(actionResult);
+      latestResult = actionResult;
+
+      switch (commState.getState()) {
+      case WAITING_FOR_GOAL_ACK:
+      case PENDING:
+      case ACTIVE:
+      case WAITING_FOR_RESULT:
+      case WAITING_FOR_CANCEL_ACK:
+      case RECALLING:
+      case PREEMPTING:
+        doUpdateStatus(latestGoalStatus, gh);
+        enterState(CommState.StateEnum.DONE, gh);
+        break;
+      case DONE:
+        actionClient.getNode().getLog()
+            .error("[CommStateMachine] Got a result when we were already in the 'DONE' state");
+        break;
+      default:
+        actionClient.getNode().getLog()
+            .error("[CommStateMachine] Unknown comm state '" + commState + "'");
+        break;
+      }
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
-   * Uses the {@link #findGoalStatus(ArrayList)} method to get the right
-   * GoalStatus message from the given list of GoalStatus messages. Based on
-   * this GoalStatus the CommStateMachine may transition to a new state using
-   * the
-   * {@link #transitionToState(ros.actionlib.state.CommState.StateEnum, ClientGoalHandle)}
-   * method. If no matching GoalStatus could be found, this method does nothing.
+   * Uses the {@link #findGoalStatus(List)} method to get the right
+   * GoalStatus message from the given list of GoalStatus messages and passes
+   * it on to {@link #updateStatus(GoalStatus, ClientGoalHandle)}.
    * 
    * @param gsa
    *          An array of GoalStatus messages
@@ -284,373 +374,93 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
    *          The GoalHandle associated with the goal on which the GoalStatus
    *          messages are received
    */
-  public synchronized
+  public
       void
       updateStatus(
           GoalStatusArray gsa,
           ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh)
           throws RosException {
+    lock.lock();
+    try {
+      doUpdateStatus(findGoalStatus(gsa.getStatusList()), gh);
+    } finally {
+      lock.unlock();
+    }
+  }
 
-    GoalStatus goalStatus = findGoalStatus(new ArrayList<actionlib_msgs.GoalStatus>(gsa.getStatusList()));
+  /**
+   * Based on the given GoalStatus the CommStateMachine may transition to a new
+   * state, possibly passing through intermediate states it has missed. The
+   * transitions are looked up in {@link #TRANSITIONS}. A GoalStatus of NULL
+   * means that the goal was not part of the latest list of GoalStatus messages
+   * received from the action server.
+   * 
+   * @param goalStatus
+   *          The GoalStatus of this CommStateMachine's goal or NULL
+   * @param gh
+   *          The GoalHandle associated with the goal on which the GoalStatus
+   *          message is received
+   */
+  public
+      void
+      updateStatus(
+          GoalStatus goalStatus,
+          ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh)
+          throws RosException {
+    lock.lock();
+    try {
+      doUpdateStatus(goalStatus, gh);
+    } finally {
+      lock.unlock();
+    }
+  }
 
+  /**
+   * Implements {@link #updateStatus(GoalStatus, ClientGoalHandle)}. Must be
+   * called while holding the lock, so that all transitions caused by one
+   * status run under a single acquisition of the lock.
+   */
+  private
+      void
+      doUpdateStatus(
+          GoalStatus goalStatus,
+          ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh)
+          throws RosException {
     // It's possible to receive old GoalStatus messages over the wire, even
     // after receiving a result with a terminal state. Thus, we want to
     // ignore all statuses that we get after we're done, because they are
     // irrelevant. (See trac #2721)
-    if (commState.equals(CommState.StateEnum.DONE)) {
+    CommState.StateEnum state = commState.getState();
+    if (state == CommState.StateEnum.DONE) {
       return;
     }
 
-    if (goalStatus != null) {
-      latestGoalStatus = goalStatus;
-    } else {
-      if (!(commState.equals(CommState.StateEnum.WAITING_FOR_GOAL_ACK)
-          || commState.equals(CommState.StateEnum.WAITING_FOR_RESULT) || commState
-          .equals(CommState.StateEnum.DONE))) {
-
+    if (goalStatus == null) {
+      if (state != CommState.StateEnum.WAITING_FOR_GOAL_ACK && state != CommState.StateEnum.WAITING_FOR_RESULT) {
         actionClient.getNode().getLog().warn("[CommStateMachine] Transitioning goal to 'LOST'");
         latestGoalStatus.setStatus(GoalStatus.LOST);
-        transitionToState(CommState.StateEnum.DONE, gh);
+        FlightRecorder.get().record(FlightRecorder.CLIENT_GOAL_LOST, actionGoalID, GoalStatus.LOST);
+        enterState(CommState.StateEnum.DONE, gh);
       }
       return;
     }
 
-    switch (commState.getState()) {
-    case WAITING_FOR_GOAL_ACK:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        transitionToState(CommState.StateEnum.PENDING, gh);
-        break;
-      case GoalStatus.ACTIVE:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        break;
-      case GoalStatus.PREEMPTED:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.SUCCEEDED:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.ABORTED:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.REJECTED:
-        transitionToState(CommState.StateEnum.PENDING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.RECALLED:
-        transitionToState(CommState.StateEnum.PENDING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.PREEMPTING:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        break;
-      case GoalStatus.RECALLING:
-        transitionToState(CommState.StateEnum.PENDING, gh);
-        transitionToState(CommState.StateEnum.RECALLING, gh);
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    case PENDING:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        break;
-      case GoalStatus.ACTIVE:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        break;
-      case GoalStatus.PREEMPTED:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.SUCCEEDED:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.ABORTED:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.REJECTED:
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.RECALLED:
-        transitionToState(CommState.StateEnum.RECALLING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.PREEMPTING:
-        transitionToState(CommState.StateEnum.ACTIVE, gh);
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        break;
-      case GoalStatus.RECALLING:
-        transitionToState(CommState.StateEnum.RECALLING, gh);
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    case ACTIVE:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'ACTIVE' to 'PENDING'");
-        break;
-      case GoalStatus.ACTIVE:
-        break;
-      case GoalStatus.REJECTED:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'ACTIVE' to 'REJECTED'");
-        break;
-      case GoalStatus.RECALLING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'ACTIVE' to 'RECALLING'");
-        break;
-      case GoalStatus.RECALLED:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'ACTIVE' to 'RECALLED'");
-        break;
-      case GoalStatus.PREEMPTED:
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.SUCCEEDED:
-      case GoalStatus.ABORTED:
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.PREEMPTING:
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    case WAITING_FOR_RESULT:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'WAITING_FOR_RESULT' to 'PENDING'");
-        break;
-      case GoalStatus.PREEMPTING:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Invalid transition from 'WAITING_FOR_RESULT' to 'PREEMPTING'");
-        break;
-      case GoalStatus.RECALLING:
-        actionClient
-            .getNode()
-            .getLog()
-            .error("[CommStateMachine] Invalid transition from 'WAITING_FOR_RESULT' to 'RECALLING'");
-        break;
-      case GoalStatus.ACTIVE:
-      case GoalStatus.PREEMPTED:
-      case GoalStatus.SUCCEEDED:
-      case GoalStatus.ABORTED:
-      case GoalStatus.REJECTED:
-      case GoalStatus.RECALLED:
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    case WAITING_FOR_CANCEL_ACK:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        break;
-      case GoalStatus.ACTIVE:
-        break;
-      case GoalStatus.SUCCEEDED:
-      case GoalStatus.ABORTED:
-      case GoalStatus.PREEMPTED:
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.RECALLED:
-        transitionToState(CommState.StateEnum.RECALLING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.REJECTED:
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.PREEMPTING:
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        break;
-      case GoalStatus.RECALLING:
-        transitionToState(CommState.StateEnum.RECALLING, gh);
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    case RECALLING:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'RECALLING' to 'PENDING'");
-        break;
-      case GoalStatus.ACTIVE:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'RECALLING' to 'ACTIVE'");
-        break;
-      case GoalStatus.SUCCEEDED:
-      case GoalStatus.ABORTED:
-      case GoalStatus.PREEMPTED:
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.RECALLED:
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.REJECTED:
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.PREEMPTING:
-        transitionToState(CommState.StateEnum.PREEMPTING, gh);
-        break;
-      case GoalStatus.RECALLING:
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    case PREEMPTING:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'PREEMPTING' to 'PENDING'");
-        break;
-      case GoalStatus.ACTIVE:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'PREEMPTING' to 'ACTIVE'");
-        break;
-      case GoalStatus.REJECTED:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'PREEMPTING' to 'REJECTED'");
-        break;
-      case GoalStatus.RECALLING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'PREEMPTING' to 'RECALLING'");
-        break;
-      case GoalStatus.RECALLED:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'PREEMPTING' to 'RECALLED'");
-        break;
-      case GoalStatus.PREEMPTED:
-      case GoalStatus.SUCCEEDED:
-      case GoalStatus.ABORTED:
-        transitionToState(CommState.StateEnum.WAITING_FOR_RESULT, gh);
-        break;
-      case GoalStatus.PREEMPTING:
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    case DONE:
-
-      switch (goalStatus.getStatus()) {
-      case GoalStatus.PENDING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'DONE' to 'PENDING'");
-        break;
-      case GoalStatus.ACTIVE:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'DONE' to 'ACTIVE'");
-        break;
-      case GoalStatus.RECALLING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'DONE' to 'RECALLING'");
-        break;
-      case GoalStatus.PREEMPTING:
-        actionClient.getNode().getLog()
-            .error("[CommStateMachine] Invalid transition from 'DONE' to 'PREEMPTING'");
-        break;
-      case GoalStatus.PREEMPTED:
-      case GoalStatus.SUCCEEDED:
-      case GoalStatus.ABORTED:
-      case GoalStatus.RECALLED:
-      case GoalStatus.REJECTED:
-        break;
-      default:
-        actionClient
-            .getNode()
-            .getLog()
-            .error(
-                "[CommStateMachine] Got unknown goal status '" + goalStatus.getStatus()
-                    + "' from the DefaultActionServer");
-        break;
-      }
-      break;
-
-    default:
+    latestGoalStatus = goalStatus;
+    byte status = goalStatus.getStatus();
+    Transition[] transitions = TRANSITIONS[state.ordinal()];
+    if (status < 0 || status >= transitions.length) {
       actionClient.getNode().getLog()
-          .error("[CommStateMachine] Unknown comm state '" + commState + "'");
-      break;
+          .error("[CommStateMachine] Got unknown goal status '" + status + "' from the DefaultActionServer");
+      return;
+    }
+    Transition transition = transitions[status];
+    if (transition.error != null) {
+      actionClient.getNode().getLog().error(transition.error);
+      return;
+    }
+    for (CommState.StateEnum next : transition.states) {
+      enterState(next, gh);
     }
-
   }
 
   /**
@@ -664,20 +474,144 @@ public class CommStateMachine<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
    *          The GoalHandle associated with the goal this CommStateMachine is
    *          monitoring
    */
-  public synchronized
+  public
       void
       transitionToState(
           CommState.StateEnum state,
           ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh)
           throws RosException {
+    lock.lock();
+    try {
+      enterState(state, gh);
+    } finally {
+      lock.unlock();
+    }
+  }
 
-    actionClient.getNode().getLog()
-        .debug("[CommStateMachine] Trying to transition to '" + state + "'");
-    commState.setState(state);
+  /**
+   * Implements {@link #transitionToState(CommState.StateEnum, ClientGoalHandle)}.
+   * Must be called while holding the lock.
+   */
+  private
+      void
+      enterState(
+          CommState.StateEnum state,
+          ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh)
+          throws RosException {
+    Log log = actionClient.getNode().getLog();
+    if (log.isDebugEnabled()) {
+      log.debug("[CommStateMachine] Trying to transition to '" + state + "'");
+    }
+    commState = CommState.valueOf(state);
+    FlightRecorder.get().record(FlightRecorder.CLIENT_TRANSITION, actionGoalID, state.ordinal());
     if (callbacks != null) {
       callbacks.transitionCallback(gh);
     }
+  }
+
+  /**
+   * The reaction of a CommStateMachine in a given state to a given goal
+   * status: either the states to pass through, in order, or the error to log
+   * if the status is invalid in that state.
+   */
+  private static final class Transition {
+
+    static final Transition NONE = new Transition(new CommState.StateEnum[0], null);
+
+    final CommState.StateEnum[] states;
+    final String error;
+
+    Transition(CommState.StateEnum[] states, String error) {
+      this.states = states;
+      this.error = error;
+    }
+
+  }
+
+  private static Transition[][] buildTransitions() {
+    Transition[][] t = new Transition[CommState.StateEnum.values().length][STATUS_NAMES.length];
+    for (Transition[] row : t) {
+      Arrays.fill(row, Transition.NONE);
+    }
+
+    CommState.StateEnum from = CommState.StateEnum.WAITING_FOR_GOAL_ACK;
+    on(t, from, GoalStatus.PENDING, CommState.StateEnum.PENDING);
+    on(t, from, GoalStatus.ACTIVE, CommState.StateEnum.ACTIVE);
+    on(t, from, GoalStatus.PREEMPTED, CommState.StateEnum.ACTIVE, CommState.StateEnum.PREEMPTING,
+        CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.SUCCEEDED, CommState.StateEnum.ACTIVE, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.ABORTED, CommState.StateEnum.ACTIVE, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.REJECTED, CommState.StateEnum.PENDING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.RECALLED, CommState.StateEnum.PENDING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.PREEMPTING, CommState.StateEnum.ACTIVE, CommState.StateEnum.PREEMPTING);
+    on(t, from, GoalStatus.RECALLING, CommState.StateEnum.PENDING, CommState.StateEnum.RECALLING);
+
+    from = CommState.StateEnum.PENDING;
+    on(t, from, GoalStatus.ACTIVE, CommState.StateEnum.ACTIVE);
+    on(t, from, GoalStatus.PREEMPTED, CommState.StateEnum.ACTIVE, CommState.StateEnum.PREEMPTING,
+        CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.SUCCEEDED, CommState.StateEnum.ACTIVE, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.ABORTED, CommState.StateEnum.ACTIVE, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.REJECTED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.RECALLED, CommState.StateEnum.RECALLING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.PREEMPTING, CommState.StateEnum.ACTIVE, CommState.StateEnum.PREEMPTING);
+    on(t, from, GoalStatus.RECALLING, CommState.StateEnum.RECALLING);
+
+    from = CommState.StateEnum.ACTIVE;
+    invalid(t, from, GoalStatus.PENDING);
+    invalid(t, from, GoalStatus.REJECTED);
+    invalid(t, from, GoalStatus.RECALLING);
+    invalid(t, from, GoalStatus.RECALLED);
+    on(t, from, GoalStatus.PREEMPTED, CommState.StateEnum.PREEMPTING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.SUCCEEDED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.ABORTED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.PREEMPTING, CommState.StateEnum.PREEMPTING);
+
+    from = CommState.StateEnum.WAITING_FOR_RESULT;
+    invalid(t, from, GoalStatus.PENDING);
+    invalid(t, from, GoalStatus.PREEMPTING);
+    invalid(t, from, GoalStatus.RECALLING);
+
+    from = CommState.StateEnum.WAITING_FOR_CANCEL_ACK;
+    on(t, from, GoalStatus.SUCCEEDED, CommState.StateEnum.PREEMPTING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.ABORTED, CommState.StateEnum.PREEMPTING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.PREEMPTED, CommState.StateEnum.PREEMPTING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.RECALLED, CommState.StateEnum.RECALLING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.REJECTED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.PREEMPTING, CommState.StateEnum.PREEMPTING);
+    on(t, from, GoalStatus.RECALLING, CommState.StateEnum.RECALLING);
+
+    from = CommState.StateEnum.RECALLING;
+    invalid(t, from, GoalStatus.PENDING);
+    invalid(t, from, GoalStatus.ACTIVE);
+    on(t, from, GoalStatus.SUCCEEDED, CommState.StateEnum.PREEMPTING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.ABORTED, CommState.StateEnum.PREEMPTING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.PREEMPTED, CommState.StateEnum.PREEMPTING, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.RECALLED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.REJECTED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.PREEMPTING, CommState.StateEnum.PREEMPTING);
+
+    from = CommState.StateEnum.PREEMPTING;
+    invalid(t, from, GoalStatus.PENDING);
+    invalid(t, from, GoalStatus.ACTIVE);
+    invalid(t, from, GoalStatus.REJECTED);
+    invalid(t, from, GoalStatus.RECALLING);
+    invalid(t, from, GoalStatus.RECALLED);
+    on(t, from, GoalStatus.PREEMPTED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.SUCCEEDED, CommState.StateEnum.WAITING_FOR_RESULT);
+    on(t, from, GoalStatus.ABORTED, CommState.StateEnum.WAITING_FOR_RESULT);
+
+    return t;
+  }
+
+  private static void on(Transition[][] t, CommState.StateEnum from, byte status, CommState.StateEnum... states) {
+    t[from.ordinal()][status] = new Transition(states, null);
+  }
 
+  private static void invalid(Transition[][] t, CommState.StateEnum from, byte status) {
+    t[from.ordinal()][status] =
+        new Transition(null, "[CommStateMachine] Invalid transition from '" + from + "' to '"
+            + STATUS_NAMES[status] + "'");
   }
 
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.internal.message.Message;
+
+/**
+ * An interface between an asynchronously sent goal and user code. Allows user
+ * code to react on feedback messages received for the goal.
+ * 
+ * @param <T_FEEDBACK>
+ *          feedback message
+ * 
+ * @see ActionClient#sendGoalAsync(Message, FeedbackListener)
+ * @see SimpleActionClient#sendGoalAsync(Message, FeedbackListener)
+ */
+public interface FeedbackListener<T_FEEDBACK extends Message> {
+
+  /**
+   * Gets called when a feedback message for the goal is received. The
+   * implementation of this method should not contain any time-consuming
+   * operations and return immediately.
+   * 
+   * @param feedback
+   *          The received feedback message
+   */
+  void feedbackCallback(T_FEEDBACK feedback);
+
+}
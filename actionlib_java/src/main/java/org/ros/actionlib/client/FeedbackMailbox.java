@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.exception.RosException;
+import org.ros.internal.message.Message;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A FeedbackMailbox decouples the delivery of a goal's feedback messages from
+ * the thread receiving them. The receiving thread only puts the action
+ * feedback message into the mailbox. The feedback callback is then called on
+ * the ActionClient's feedback executor. The mailbox holds one message only: if
+ * a new message arrives before the previous one was delivered, the previous
+ * one is dropped, so a slow callback always sees the latest feedback instead
+ * of a backlog of stale ones. Feedback of one goal is delivered in order and
+ * never concurrently. When the result of the goal arrives, the undelivered
+ * message is delivered by {@link #flush()} on the receiving thread before the
+ * final transition callback, so the final feedback is never lost. Feedback of
+ * a goal whose GoalHandle was shut down is dropped.
+ * 
+ * @param <T_ACTION_FEEDBACK>
+ *          action feedback message
+ * @param <T_ACTION_GOAL>
+ *          action goal message
+ * @param <T_ACTION_RESULT>
+ *          action result message
+ * @param <T_FEEDBACK>
+ *          feedback message
+ * @param <T_GOAL>
+ *          goal message
+ * @param <T_RESULT>
+ *          result message
+ */
+public class FeedbackMailbox<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message>
+    implements Runnable {
+
+  private final ActionClient<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionClient;
+  private final ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks;
+
+  /**
+   * The latest undelivered action feedback message and the GoalHandle it was
+   * received for
+   */
+  private final AtomicReference<Entry> latest = new AtomicReference<Entry>();
+
+  /**
+   * Whether a delivery is scheduled on or running on the executor
+   */
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+  /**
+   * Held while a message is taken from the mailbox and delivered, so that the
+   * feedback executor and {@link #flush()} never deliver concurrently or out
+   * of order
+   */
+  private final ReentrantLock deliveryLock = new ReentrantLock();
+
+  private final AtomicLong droppedCount = new AtomicLong(0);
+
+  private class Entry {
+    final T_ACTION_FEEDBACK actionFeedback;
+    final ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle;
+
+    Entry(
+        T_ACTION_FEEDBACK actionFeedback,
+        ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle) {
+      this.actionFeedback = actionFeedback;
+      this.goalHandle = goalHandle;
+    }
+  }
+
+  FeedbackMailbox(
+      ActionClient<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionClient,
+      ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks) {
+    this.actionClient = actionClient;
+    this.callbacks = callbacks;
+  }
+
+  /**
+   * Puts an action feedback message into the mailbox and schedules its
+   * delivery. An undelivered previous message is dropped.
+   * 
+   * @param actionFeedback
+   *          The action feedback message
+   * @param gh
+   *          The GoalHandle the message was received for
+   */
+  void offer(
+      T_ACTION_FEEDBACK actionFeedback,
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh) {
+    if (latest.getAndSet(new Entry(actionFeedback, gh)) != null) {
+      droppedCount.incrementAndGet();
+    }
+    schedule();
+  }
+
+  /**
+   * Gets the number of feedback messages that were replaced by a newer one
+   * before they could be delivered, or that were not delivered because their
+   * GoalHandle was shut down.
+   * 
+   * @return The number of dropped feedback messages
+   */
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  private void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      Executor executor = actionClient.getFeedbackExecutor();
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        // The ActionClient has been shut down.
+        scheduled.set(false);
+        if (latest.getAndSet(null) != null) {
+          droppedCount.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  /**
+   * Delivers the undelivered action feedback message on the calling thread,
+   * after a delivery running on the feedback executor has finished. Called
+   * when the result of the goal arrives, before its final transition.
+   */
+  void flush() {
+    deliverLatest();
+  }
+
+  /**
+   * Delivers the latest action feedback message, unless its goal is no longer
+   * tracked. Called on the feedback executor.
+   */
+  @Override
+  public void run() {
+    deliverLatest();
+    scheduled.set(false);
+    // A message may have arrived after the latest one was taken, while this
+    // delivery was still marked as scheduled.
+    if (latest.get() != null) {
+      schedule();
+    }
+  }
+
+  private void deliverLatest() {
+    deliveryLock.lock();
+    try {
+      Entry entry = latest.getAndSet(null);
+      if (entry == null) {
+        return;
+      }
+      if (entry.goalHandle.isExpired()) {
+        droppedCount.incrementAndGet();
+        return;
+      }
+      try {
+        callbacks.feedbackCallback(entry.goalHandle,
+            actionClient.spec.getFeedbackFromActionFeedback(entry.actionFeedback));
+      } catch (RosException e) {
+        actionClient.getNode().getLog().error("Exception during feedback callback", e);
+      } catch (RuntimeException e) {
+        actionClient.getNode().getLog().error("Exception during feedback callback", e);
+      }
+    } finally {
+      deliveryLock.unlock();
+    }
+  }
+
+}
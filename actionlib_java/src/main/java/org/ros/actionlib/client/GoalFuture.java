@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.exception.RosException;
+import org.ros.internal.message.Message;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A GoalFuture represents a goal that was sent out asynchronously. It completes
+ * with the {@link GoalOutcome} of the goal as soon as the goal reaches a
+ * terminal state. Feedback messages received in the meantime are handed to
+ * the goal's {@link FeedbackListener}.<br>
+ * Instead of blocking in one of the get()-methods, user code may register
+ * listeners using {@link #addListener(Runnable, Executor)}. They are run once
+ * the GoalFuture is done, so that any number of goals can be pursued without a
+ * waiting thread per goal.<br>
+ * Canceling a GoalFuture sends a cancel request for its goal to the action
+ * server and completes the GoalFuture right away. A GoalFuture whose goal
+ * could not be sent out, or whose goal is no longer tracked, is completed as
+ * canceled as well.
+ * 
+ * @param <T_ACTION_FEEDBACK>
+ *          action feedback message
+ * @param <T_ACTION_GOAL>
+ *          action goal message
+ * @param <T_ACTION_RESULT>
+ *          action result message
+ * @param <T_FEEDBACK>
+ *          feedback message
+ * @param <T_GOAL>
+ *          goal message
+ * @param <T_RESULT>
+ *          result message
+ */
+public class GoalFuture<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message>
+    implements Future<GoalOutcome<T_RESULT>> {
+
+  /**
+   * The user's feedback listener, may be NULL
+   */
+  private final FeedbackListener<T_FEEDBACK> feedbackListener;
+
+  /**
+   * The GoalHandle tracking the goal
+   */
+  private volatile ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle;
+
+  /**
+   * Set by the first completion of this GoalFuture
+   */
+  private final AtomicBoolean completed = new AtomicBoolean(false);
+  private final CountDownLatch doneLatch = new CountDownLatch(1);
+  private volatile GoalOutcome<T_RESULT> outcome;
+  private volatile boolean cancelled = false;
+
+  /**
+   * Set by {@link #cancel(boolean)}, so that a cancel request that arrives
+   * before the GoalHandle is known is sent by {@link #setGoalHandle}
+   */
+  private volatile boolean cancelRequested = false;
+
+  /**
+   * Set once the cancel request has been sent to the action server
+   */
+  private final AtomicBoolean cancelSent = new AtomicBoolean(false);
+
+  /**
+   * Listeners which have not been run yet
+   */
+  private final Queue<Runnable> listeners = new ConcurrentLinkedQueue<Runnable>();
+
+  /**
+   * Constructor to create a GoalFuture whose feedback messages are handed to
+   * the given listener.
+   * 
+   * @param feedbackListener
+   *          The user's feedback listener, may be NULL
+   */
+  GoalFuture(FeedbackListener<T_FEEDBACK> feedbackListener) {
+    this.feedbackListener = feedbackListener;
+  }
+
+  /**
+   * Gets the GoalHandle that is tracking the goal.
+   * 
+   * @return The GoalHandle or NULL if the goal could not be sent out
+   */
+  public
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>
+      getGoalHandle() {
+    return goalHandle;
+  }
+
+  /**
+   * Registers a listener that is run by the given executor as soon as this
+   * GoalFuture is done. If it already is done, the listener is run right away.
+   * 
+   * @param listener
+   *          The listener
+   * @param executor
+   *          The executor running the listener
+   */
+  public void addListener(final Runnable listener, final Executor executor) {
+    listeners.add(new Runnable() {
+      @Override
+      public void run() {
+        executor.execute(listener);
+      }
+    });
+    if (isDone()) {
+      runListeners();
+    }
+  }
+
+  /**
+   * Requests the cancellation of the goal from the action server and completes
+   * this GoalFuture as canceled. If the goal is still being sent out, the
+   * cancel request follows as soon as the goal's GoalHandle is known.
+   * 
+   * @param mayInterruptIfRunning
+   *          Ignored, the goal is always canceled on the action server
+   * @return <tt>false</tt> if this GoalFuture was already done, <tt>true</tt>
+   *         otherwise
+   */
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    if (!abandon()) {
+      return false;
+    }
+    cancelRequested = true;
+    ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh =
+        goalHandle;
+    if (gh != null) {
+      sendCancel(gh);
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public boolean isDone() {
+    return doneLatch.getCount() == 0;
+  }
+
+  /**
+   * Waits until the goal reaches a terminal state.
+   * 
+   * @return The outcome of the goal
+   * @throws CancellationException
+   *           If this GoalFuture was canceled
+   */
+  @Override
+  public GoalOutcome<T_RESULT> get() throws InterruptedException {
+    doneLatch.await();
+    return getOutcome();
+  }
+
+  /**
+   * Waits up to the specified duration until the goal reaches a terminal
+   * state.
+   * 
+   * @return The outcome of the goal
+   * @throws CancellationException
+   *           If this GoalFuture was canceled
+   * @throws TimeoutException
+   *           If the goal did not reach a terminal state in time
+   */
+  @Override
+  public GoalOutcome<T_RESULT> get(long timeout, TimeUnit unit) throws InterruptedException,
+      TimeoutException {
+    if (!doneLatch.await(timeout, unit)) {
+      throw new TimeoutException();
+    }
+    return getOutcome();
+  }
+
+  /**
+   * Sets the GoalHandle that is tracking the goal. If this GoalFuture was
+   * canceled in the meantime, the cancel request is sent now.
+   */
+  void setGoalHandle(
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle) {
+    this.goalHandle = goalHandle;
+    if (cancelRequested) {
+      sendCancel(goalHandle);
+    }
+  }
+
+  /**
+   * Hands a received feedback message to the feedback listener, unless this
+   * GoalFuture is already done.
+   */
+  void feedback(T_FEEDBACK feedback) {
+    if (feedbackListener != null && !isDone()) {
+      feedbackListener.feedbackCallback(feedback);
+    }
+  }
+
+  /**
+   * Completes this GoalFuture with the outcome of its goal.
+   * 
+   * @return <tt>false</tt> if this GoalFuture was already done
+   */
+  boolean complete(GoalOutcome<T_RESULT> outcome) {
+    if (!completed.compareAndSet(false, true)) {
+      return false;
+    }
+    this.outcome = outcome;
+    finish();
+    return true;
+  }
+
+  /**
+   * Completes this GoalFuture as canceled without sending a cancel request.
+   * Used when the goal is no longer tracked.
+   * 
+   * @return <tt>false</tt> if this GoalFuture was already done
+   */
+  boolean abandon() {
+    if (!completed.compareAndSet(false, true)) {
+      return false;
+    }
+    cancelled = true;
+    finish();
+    return true;
+  }
+
+  /**
+   * Sends the cancel request for the goal, unless {@link #cancel(boolean)}
+   * and {@link #setGoalHandle} both got here and the other one already did.
+   */
+  private void sendCancel(
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> gh) {
+    if (!cancelSent.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      gh.cancel();
+    } catch (RosException e) {
+      gh.actionClient.getNode().getLog().error("[GoalFuture] Couldn't cancel goal", e);
+    }
+  }
+
+  private void finish() {
+    doneLatch.countDown();
+    runListeners();
+  }
+
+  private void runListeners() {
+    Runnable listener;
+    while ((listener = listeners.poll()) != null) {
+      listener.run();
+    }
+  }
+
+  private GoalOutcome<T_RESULT> getOutcome() {
+    if (cancelled) {
+      throw new CancellationException();
+    }
+    return outcome;
+  }
+
+}
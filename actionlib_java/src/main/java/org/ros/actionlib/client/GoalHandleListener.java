@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.internal.message.Message;
+
+/**
+ * Gets told about the GoalHandle of a new goal before the goal is sent out.
+ * Since the action server may answer before the sending thread returns, e.g.
+ * through the in-process loopback, code that routes callbacks by GoalHandle
+ * has to know the GoalHandle at this point already.
+ * 
+ * @param <T_ACTION_FEEDBACK>
+ *          action feedback message
+ * @param <T_ACTION_GOAL>
+ *          action goal message
+ * @param <T_ACTION_RESULT>
+ *          action result message
+ * @param <T_FEEDBACK>
+ *          feedback message
+ * @param <T_GOAL>
+ *          goal message
+ * @param <T_RESULT>
+ *          result message
+ * 
+ * @see ActionClient#sendGoal(Message, ActionClientCallbacks, GoalHandleListener)
+ */
+public interface GoalHandleListener<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
+
+  /**
+   * Gets called with the GoalHandle of a new goal after it has been registered
+   * and before the goal is sent out. The implementation of this method should
+   * not contain any time-consuming operations and return immediately.
+   * 
+   * @param goalHandle
+   *          The GoalHandle that tracks the new goal
+   */
+  void goalHandleCreated(
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle);
+
+}
@@ -17,6 +17,7 @@
 package org.ros.actionlib.client;
 
 import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.metrics.Metric;
 import org.ros.actionlib.util.GoalIDGenerator;
 import org.ros.exception.RosException;
 import org.ros.internal.message.Message;
@@ -24,9 +25,10 @@ import org.ros.message.Time;
 import actionlib_msgs.GoalID;
 import actionlib_msgs.GoalStatusArray;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A GoalManager maintains a collection of all active goals represented by their
@@ -37,7 +39,12 @@ import java.util.List;
  * can use the GoalManager to update the affected GoalHandles in a convenient
  * way. If a GoalHandle shall not be updated anymore, it can be deleted using
  * the {@link #deleteGoalHandle(ClientGoalHandle)} or
- * {@link #deleteGoalHandles(Collection)} method.
+ * {@link #deleteGoalHandles(Collection)} method.<br>
+ * The collection of active goals is a concurrent map and is never locked as a
+ * whole. Goals may be sent and deleted from any thread while status, feedback
+ * and result messages are being processed. Status messages may arrive on
+ * several threads, e.g. from the rosjava subscriber and from the in-process
+ * loopback, and are dispatched one at a time under a lock of the GoalManager.
  * 
  * @author Alexander C. Perzylo, perzylo@cs.tum.edu
  * 
@@ -57,15 +64,30 @@ import java.util.List;
 public class GoalManager<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
 
   /**
-   * The collection of active GoalHandles
+   * The collection of active GoalHandles indexed by the id of their goal. Used
+   * to route status, feedback and result messages directly to the GoalHandle
+   * they concern.
    */
-  protected List<ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> listOfGoalHandles;
+  protected ConcurrentMap<String, ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> goalHandlesByID;
 
   /**
    * The associated ActionClient
    */
   protected ActionClient<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionClient;
 
+  /**
+   * Dispatches received GoalStatus messages to the GoalHandles of their goals
+   */
+  protected GoalStatusDispatcher<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> statusDispatcher;
+
+  /**
+   * Serializes the dispatch of status messages, which relies on one status
+   * message being dispatched at a time. A lock is used instead of a
+   * synchronized method, because the transition callbacks run while it is
+   * held.
+   */
+  private final ReentrantLock statusLock = new ReentrantLock();
+
   /**
    * ID Generator for creating unique GoalIDs
    */
@@ -84,9 +106,12 @@ public class GoalManager<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extend
 
     this.actionClient = actionClient;
     idGenerator = new GoalIDGenerator(actionClient.getNode());
-    listOfGoalHandles =
-        new ArrayList<ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>(
-            50);
+    goalHandlesByID =
+        new ConcurrentHashMap<String, ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>(
+            64);
+    statusDispatcher =
+        new GoalStatusDispatcher<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+            goalHandlesByID);
   }
 
   /**
@@ -112,17 +137,39 @@ public class GoalManager<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extend
           ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks,
           ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec)
           throws RosException {
+    return initGoal(goal, callbacks, spec, null);
+  }
+
+  /**
+   * Like {@link #initGoal(Message, ActionClientCallbacks, ActionSpec)}, but
+   * hands the new GoalHandle to the given listener before the goal is sent
+   * out.
+   * 
+   * @param goal
+   *          The goal message, which shall be sent to the action server
+   * @param callbacks
+   *          The callback methods that get called when transitions in a
+   *          GoalHandle's CommStateMachine occur or feedback messages are
+   *          received.
+   * @param spec
+   *          The action specification
+   * @param goalHandleListener
+   *          The listener that is told about the GoalHandle, may be NULL
+   * @return The GoalHandle used to track the goal
+   */
+  public
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>
+      initGoal(
+          T_GOAL goal,
+          ActionClientCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks,
+          ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec,
+          GoalHandleListener<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandleListener)
+          throws RosException {
 
     GoalID id = idGenerator.generateID();
     Time time = actionClient.getNode().getCurrentTime();
     T_ACTION_GOAL actionGoal = spec.createActionGoalMessage(goal, time, id);
 
-    if (actionGoal == null) {
-      actionClient.getNode().getLog().error("[GoalManager] Couldn't create action goal message");
-    } else {
-      actionClient.publishActionGoal(actionGoal);
-    }
-
     CommStateMachine<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> stateMachine =
         new CommStateMachine<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
             actionGoal, callbacks, spec, actionClient);
@@ -130,8 +177,18 @@ public class GoalManager<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extend
         new ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
             this, actionClient, stateMachine);
 
-    synchronized (listOfGoalHandles) {
-      listOfGoalHandles.add(goalHandle);
+    // Register the goal before sending it out, so that not even the fastest
+    // answer of the action server can miss its GoalHandle.
+    goalHandlesByID.put(id.getId(), goalHandle);
+    actionClient.getMetrics().record(Metric.CLIENT_GOALS_IN_FLIGHT, goalHandlesByID.size());
+    if (goalHandleListener != null) {
+      goalHandleListener.goalHandleCreated(goalHandle);
+    }
+
+    if (actionGoal == null) {
+      actionClient.getNode().getLog().error("[GoalManager] Couldn't create action goal message");
+    } else {
+      actionClient.publishActionGoal(actionGoal);
     }
 
     return goalHandle;
@@ -150,8 +207,8 @@ public class GoalManager<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extend
       deleteGoalHandle(
           ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle) {
     actionClient.getNode().getLog().debug("[GoalManager] Deleting goal handle");
-    synchronized (listOfGoalHandles) {
-      listOfGoalHandles.remove(goalHandle);
+    if (goalHandlesByID.remove(goalHandle.getStateMachine().getActionGoalID(), goalHandle)) {
+      actionClient.getMetrics().record(Metric.CLIENT_GOALS_IN_FLIGHT, goalHandlesByID.size());
     }
   }
 
@@ -167,54 +224,62 @@ public class GoalManager<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extend
       deleteGoalHandles(
           Collection<ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> c) {
     actionClient.getNode().getLog().debug("[GoalManager] Deleting goal handles");
-    synchronized (listOfGoalHandles) {
-      listOfGoalHandles.removeAll(c);
+    for (ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle : c) {
+      goalHandlesByID.remove(goalHandle.getStateMachine().getActionGoalID(), goalHandle);
     }
+    actionClient.getMetrics().record(Metric.CLIENT_GOALS_IN_FLIGHT, goalHandlesByID.size());
   }
 
   /**
-   * Updates all listed GoalHandles on received GoalStatus messages.
+   * Updates all listed GoalHandles on received GoalStatus messages. Every
+   * GoalStatus is handed to the GoalHandle of its goal only. Concurrent calls
+   * are dispatched one after another.
    * 
    * @param goalStatuses
    *          A list of GoalStatus messages
+   * 
+   * @see GoalStatusDispatcher
    */
   public void updateStatuses(GoalStatusArray goalStatuses) {
-    synchronized (listOfGoalHandles) { // TODO use reentrant read write lock
-                                       // instead? lots of read access and way
-                                       // less write access
-      for (ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle : listOfGoalHandles) {
-        try {
-          goalHandle.getStateMachine().updateStatus(goalStatuses, goalHandle);
-        } catch (RosException e) {
-          actionClient.getNode().getLog().error("Error during updateStatuses", e);
-        }
-      }
+    statusLock.lock();
+    try {
+      long start = System.nanoTime();
+      statusDispatcher.dispatch(goalStatuses, goalHandlesByID.values());
+      actionClient.getMetrics().record(Metric.CLIENT_STATUS_DISPATCH_NANOS, System.nanoTime() - start);
+    } catch (RosException e) {
+      actionClient.getNode().getLog().error("Error during updateStatuses", e);
+    } finally {
+      statusLock.unlock();
     }
   }
 
   /**
-   * Updates all listed GoalHandles on received action feedback messages.
+   * Updates the GoalHandle of the goal referenced by a received action
+   * feedback message.
    * 
    * @param actionFeedback
    */
   public void updateFeedbacks(T_ACTION_FEEDBACK actionFeedback) throws RosException {
-    synchronized (listOfGoalHandles) {
-      for (ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle : listOfGoalHandles) {
-        goalHandle.getStateMachine().updateFeedback(actionFeedback, goalHandle);
-      }
+    String id = actionClient.spec.getGoalStatusFromActionFeedback(actionFeedback).getGoalId().getId();
+    ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle =
+        goalHandlesByID.get(id);
+    if (goalHandle != null) {
+      goalHandle.getStateMachine().updateFeedback(actionFeedback, goalHandle);
     }
   }
 
   /**
-   * Updates all listed GoalHandles on received action result messages.
+   * Updates the GoalHandle of the goal referenced by a received action result
+   * message.
    * 
    * @param actionResult
    */
   public void updateResults(T_ACTION_RESULT actionResult) throws RosException {
-    synchronized (listOfGoalHandles) {
-      for (ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle : listOfGoalHandles) {
-        goalHandle.getStateMachine().updateResult(actionResult, goalHandle);
-      }
+    String id = actionClient.spec.getGoalStatusFromActionResult(actionResult).getGoalId().getId();
+    ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle =
+        goalHandlesByID.get(id);
+    if (goalHandle != null) {
+      goalHandle.getStateMachine().updateResult(actionResult, goalHandle);
     }
   }
 
@@ -223,11 +288,9 @@ public class GoalManager<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extend
    * clears the list.
    */
   public void clear() {
-    synchronized (listOfGoalHandles) {
-      for (ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle : listOfGoalHandles) {
-        goalHandle.shutdown(false);
-      }
-      listOfGoalHandles.clear();
+    for (ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle : goalHandlesByID.values()) {
+      goalHandle.shutdown(false);
+      goalHandlesByID.remove(goalHandle.getStateMachine().getActionGoalID(), goalHandle);
     }
   }
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.actionlib.state.TerminalState;
+import org.ros.internal.message.Message;
+
+/**
+ * The outcome of a goal, consisting of its terminal state, the status text and
+ * the result message received from the action server.
+ * 
+ * @param <T_RESULT>
+ *          result message
+ */
+public class GoalOutcome<T_RESULT extends Message> {
+
+  private final TerminalState terminalState;
+  private final String text;
+  private final T_RESULT result;
+
+  /**
+   * @param terminalState
+   *          The terminal state of the goal
+   * @param text
+   *          The status text sent by the action server along with the
+   *          terminal state, may be NULL
+   * @param result
+   *          The result message, may be NULL if no result was received
+   */
+  public GoalOutcome(TerminalState terminalState, String text, T_RESULT result) {
+    this.terminalState = terminalState;
+    this.text = text;
+    this.result = result;
+  }
+
+  /**
+   * @return The terminal state of the goal
+   */
+  public TerminalState getTerminalState() {
+    return terminalState;
+  }
+
+  /**
+   * @return The status text sent by the action server along with the terminal
+   *         state, or NULL if there is none
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * @return The result message received from the action server, or NULL if no
+   *         result message was received
+   */
+  public T_RESULT getResult() {
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return terminalState.toString();
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import org.ros.exception.RosException;
+import org.ros.internal.message.Message;
+import actionlib_msgs.GoalStatus;
+import actionlib_msgs.GoalStatusArray;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A GoalStatusDispatcher distributes the GoalStatus messages of a received
+ * GoalStatusArray among the CommStateMachines of a {@link GoalManager}'s
+ * GoalHandles. The list of GoalStatus messages is walked exactly once per
+ * message and every GoalStatus is handed to the CommStateMachine of its goal
+ * only, which is found by the goal id. Every status message is given a
+ * sequence number that is stamped onto the CommStateMachines that received a
+ * GoalStatus. A final walk over the GoalHandles informs all CommStateMachines
+ * without a matching stamp that their goal was missing from the message. No
+ * copies of the list of GoalStatus messages are made.
+ *
+ * @param <T_ACTION_FEEDBACK>
+ *          action feedback message
+ * @param <T_ACTION_GOAL>
+ *          action goal message
+ * @param <T_ACTION_RESULT>
+ *          action result message
+ * @param <T_FEEDBACK>
+ *          feedback message
+ * @param <T_GOAL>
+ *          goal message
+ * @param <T_RESULT>
+ *          result message
+ */
+public class GoalStatusDispatcher<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
+
+  /**
+   * The GoalHandles to dispatch to, indexed by the id of their goal
+   */
+  protected Map<String, ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> goalHandlesByID;
+
+  /**
+   * The sequence number of the latest dispatched status message
+   */
+  protected AtomicLong statusSequence = new AtomicLong(0);
+
+  /**
+   * Constructor to create a GoalStatusDispatcher working on the given index
+   * of GoalHandles.
+   *
+   * @param goalHandlesByID
+   *          The active GoalHandles indexed by the id of their goal
+   */
+  public GoalStatusDispatcher(
+      Map<String, ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> goalHandlesByID) {
+    this.goalHandlesByID = goalHandlesByID;
+  }
+
+  /**
+   * Hands every GoalStatus of the given message to the CommStateMachine of its
+   * goal. Afterwards, the CommStateMachines of all given GoalHandles whose goal
+   * was not part of the message get updated with a NULL GoalStatus. Only one
+   * message may be dispatched at a time.
+   *
+   * @param goalStatuses
+   *          A list of GoalStatus messages
+   * @param goalHandles
+   *          All GoalHandles that have to be informed about the message
+   * @throws RosException
+   *           If updating one of the CommStateMachines fails. All remaining
+   *           CommStateMachines are still updated before the first exception
+   *           is rethrown.
+   */
+  public
+      void
+      dispatch(
+          GoalStatusArray goalStatuses,
+          Iterable<ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> goalHandles)
+          throws RosException {
+
+    long sequence = statusSequence.incrementAndGet();
+    RosException firstException = null;
+
+    for (GoalStatus goalStatus : goalStatuses.getStatusList()) {
+      ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle =
+          goalHandlesByID.get(goalStatus.getGoalId().getId());
+      if (goalHandle != null && goalHandle.getStateMachine().markStatusSequence(sequence)) {
+        try {
+          goalHandle.getStateMachine().updateStatus(goalStatus, goalHandle);
+        } catch (RosException e) {
+          if (firstException == null) {
+            firstException = e;
+          }
+        }
+      }
+    }
+
+    for (ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle : goalHandles) {
+      if (goalHandle.getStateMachine().markStatusSequence(sequence)) {
+        try {
+          goalHandle.getStateMachine().updateStatus((GoalStatus) null, goalHandle);
+        } catch (RosException e) {
+          if (firstException == null) {
+            firstException = e;
+          }
+        }
+      }
+    }
+
+    if (firstException != null) {
+      throw firstException;
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ package org.ros.actionlib.client;
 
 import org.apache.commons.logging.Log;
 import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.metrics.Metric;
 import org.ros.actionlib.state.CommState;
 import org.ros.actionlib.state.SimpleClientGoalState;
 import org.ros.actionlib.state.SimpleGoalState;
@@ -79,17 +80,29 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
   /**
    * The ClientGoalHandle that is tracking the current goal.
    */
-  protected ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle;
+  protected volatile ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle;
 
   /**
    * Current simple goal state (one of PENDING, ACTIVE or DONE)
    */
-  protected SimpleGoalState currSimpleState;
+  protected volatile SimpleGoalState currSimpleState;
 
   /**
-   * Countdown latch to be used for goal completion.
+   * The GoalFuture of the current goal, if it was sent out asynchronously
    */
-  private CountDownLatch goalFinalStateLatch;
+  protected volatile GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalFuture;
+
+  /**
+   * Countdown latch to be used for goal completion. A new latch is created for
+   * every goal before it is sent out, so that waiting for a goal's result does
+   * not miss a final state that has already been reached.
+   */
+  private volatile CountDownLatch goalFinalStateLatch;
+
+  /**
+   * When the current goal was sent out, as given by {@link System#nanoTime()}
+   */
+  private volatile long goalSentNanos;
 
   /**
    * Constructor used to create a SimpleActionClient that will be a child node
@@ -115,7 +128,7 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
             nameSpace, spec);
     this.callbacks = null;
     this.goalHandle = null;
-    this.currSimpleState = new SimpleGoalState(SimpleGoalState.StateEnum.PENDING);
+    this.currSimpleState = SimpleGoalState.valueOf(SimpleGoalState.StateEnum.PENDING);
     goalFinalStateLatch = new CountDownLatch(1);
   }
 
@@ -172,14 +185,83 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
    */
   public void sendGoal(T_GOAL goal, SimpleActionClientCallbacks<T_FEEDBACK, T_RESULT> callbacks)
       throws RosException {
+    sendGoal(goal, callbacks, null);
+  }
+
+  /**
+   * Sends a goal message to the action server without waiting for its
+   * outcome. If there is another active goal currently being worked on by the
+   * server, tracking of that goal stops without canceling it.
+   * 
+   * @param goal
+   *          A goal message
+   * @return A GoalFuture that completes when the goal reaches a terminal
+   *         state. It is canceled if the goal could not be sent out or if
+   *         another goal is sent out before.
+   * 
+   * @see #sendGoalAsync(Message, FeedbackListener)
+   */
+  public GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> sendGoalAsync(
+      T_GOAL goal) throws RosException {
+    return sendGoalAsync(goal, null);
+  }
+
+  /**
+   * Sends a goal message to the action server without waiting for its
+   * outcome. Received feedback messages are handed to the given listener. If
+   * there is another active goal currently being worked on by the server,
+   * tracking of that goal stops without canceling it.
+   * 
+   * @param goal
+   *          A goal message
+   * @param feedbackListener
+   *          The user's feedback listener, may be NULL
+   * @return A GoalFuture that completes when the goal reaches a terminal
+   *         state. It is canceled if the goal could not be sent out or if
+   *         another goal is sent out before.
+   */
+  public GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> sendGoalAsync(
+      T_GOAL goal, FeedbackListener<T_FEEDBACK> feedbackListener) throws RosException {
+    GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> future =
+        new GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(feedbackListener);
+    sendGoal(goal, null, future);
+    return future;
+  }
+
+  private void sendGoal(T_GOAL goal, SimpleActionClientCallbacks<T_FEEDBACK, T_RESULT> callbacks,
+      final GoalFuture<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> future)
+      throws RosException {
     this.callbacks = callbacks;
 
     if (goalHandle != null) {
       goalHandle.shutdown(true);
     }
+    if (goalFuture != null) {
+      goalFuture.abandon();
+    }
 
-    currSimpleState.setState(SimpleGoalState.StateEnum.PENDING);
-    goalHandle = actionClient.sendGoal(goal, this);
+    goalFuture = future;
+    goalFinalStateLatch = new CountDownLatch(1);
+    currSimpleState = SimpleGoalState.valueOf(SimpleGoalState.StateEnum.PENDING);
+    goalSentNanos = System.nanoTime();
+
+    // The callbacks of the new goal are only accepted once its GoalHandle is
+    // known, and the action server may answer before sendGoal() returns.
+    goalHandle = actionClient.sendGoal(goal, this,
+        new GoalHandleListener<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>() {
+          @Override
+          public void goalHandleCreated(
+              ClientGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> newGoalHandle) {
+            goalHandle = newGoalHandle;
+            if (future != null) {
+              future.setGoalHandle(newGoalHandle);
+            }
+          }
+        });
+
+    if (future != null && goalHandle == null) {
+      future.abandon();
+    }
   }
 
   /**
@@ -375,41 +457,40 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
       return null;
     }
 
-    SimpleClientGoalState state = new SimpleClientGoalState(SimpleClientGoalState.StateEnum.LOST);
+    SimpleClientGoalState.StateEnum state = SimpleClientGoalState.StateEnum.LOST;
 
     CommState commState = goalHandle.getCommState();
     switch (commState.getState()) {
       case WAITING_FOR_GOAL_ACK:
       case PENDING:
       case RECALLING:
-        state.setState(SimpleClientGoalState.StateEnum.PENDING);
+        state = SimpleClientGoalState.StateEnum.PENDING;
         break;
       case ACTIVE:
       case PREEMPTING:
-        state.setState(SimpleClientGoalState.StateEnum.ACTIVE);
+        state = SimpleClientGoalState.StateEnum.ACTIVE;
         break;
       case DONE: {
 
         TerminalState terminalState = goalHandle.getTerminalState();
-        state.setText(terminalState.getText());
         switch (terminalState.getState()) {
           case RECALLED:
-            state.setState(SimpleClientGoalState.StateEnum.RECALLED);
+            state = SimpleClientGoalState.StateEnum.RECALLED;
             break;
           case REJECTED:
-            state.setState(SimpleClientGoalState.StateEnum.REJECTED);
+            state = SimpleClientGoalState.StateEnum.REJECTED;
             break;
           case PREEMPTED:
-            state.setState(SimpleClientGoalState.StateEnum.PREEMPTED);
+            state = SimpleClientGoalState.StateEnum.PREEMPTED;
             break;
           case ABORTED:
-            state.setState(SimpleClientGoalState.StateEnum.ABORTED);
+            state = SimpleClientGoalState.StateEnum.ABORTED;
             break;
           case SUCCEEDED:
-            state.setState(SimpleClientGoalState.StateEnum.SUCCEEDED);
+            state = SimpleClientGoalState.StateEnum.SUCCEEDED;
             break;
           case LOST:
-            state.setState(SimpleClientGoalState.StateEnum.LOST);
+            state = SimpleClientGoalState.StateEnum.LOST;
             break;
           default:
             actionClient
@@ -428,10 +509,10 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
 
         switch (currSimpleState.getState()) {
           case PENDING:
-            state.setState(SimpleClientGoalState.StateEnum.PENDING);
+            state = SimpleClientGoalState.StateEnum.PENDING;
             break;
           case ACTIVE:
-            state.setState(SimpleClientGoalState.StateEnum.ACTIVE);
+            state = SimpleClientGoalState.StateEnum.ACTIVE;
             break;
           case DONE:
             actionClient
@@ -439,7 +520,7 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
                 .getLog()
                 .error(
                     "[SimpleActionClient] In WAITING_FOR_RESULT or WAITING_FOR_CANCEL_ACK, yet we are in SimpleGoalState DONE. This is a bug in SimpleActionClient!");
-            state.setState(SimpleClientGoalState.StateEnum.LOST);
+            state = SimpleClientGoalState.StateEnum.LOST;
             break;
           default:
             actionClient
@@ -459,10 +540,29 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
         break;
     }
 
-    return state;
+    return SimpleClientGoalState.valueOf(state);
 
   }
 
+  /**
+   * Gets the text the action server sent along with the latest status of the
+   * current goal, e.g. the reason why the goal was aborted. The text belongs to
+   * the state returned by {@link #getState()}.
+   * 
+   * @return The status text, or NULL if there is none
+   */
+  public String getStateText() {
+    if (goalHandle == null || goalHandle.isExpired()) {
+      actionClient
+          .getNode()
+          .getLog()
+          .error(
+              "[SimpleActionClient] Trying to getStateText() while no goal is active. You are incorrectly using SimpleActionClient!");
+      return null;
+    }
+    return goalHandle.getGoalStatusText();
+  }
+
   /**
    * Sets the simplified goal state. This is used internally in the
    * {@link #transitionCallback(ClientGoalHandle)} method. It is the
@@ -478,7 +578,7 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
    *          A new simplified goal state
    */
   protected void setSimpleState(SimpleGoalState.StateEnum nextState) {
-    currSimpleState.setState(nextState);
+    currSimpleState = SimpleGoalState.valueOf(nextState);
   }
 
   // /**
@@ -605,7 +705,6 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
    * when the goal was recalled, rejected, preempted, aborted or lost.
    */
   public void waitForResult() throws InterruptedException {
-	  this.goalFinalStateLatch = new CountDownLatch(1);
     goalFinalStateLatch.await();
   }
 
@@ -625,7 +724,6 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
    *         <tt>false</tt> - Otherwise
    */
   public boolean waitForResult(long timeout, TimeUnit units) throws InterruptedException {
-	  this.goalFinalStateLatch = new CountDownLatch(1);
     return goalFinalStateLatch.await(timeout, units);
   }
 
@@ -635,11 +733,15 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
     if (this.goalHandle != goalHandle) {
       actionClient.getNode().getLog()
       	.error("[SimpleActionClient] Got a callback on a goalHandle that the client is not tracking. This is an internal SimpleActionClient/ActionClient bug or a GoalID collision.");
+      return;
     }
 
     if (callbacks != null) {
       callbacks.feedbackCallback(feedback);
     }
+    if (goalFuture != null) {
+      goalFuture.feedback(feedback);
+    }
   }
 
   @Override
@@ -744,9 +846,15 @@ public class SimpleActionClient<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL
           case PENDING:
           case ACTIVE:
             setSimpleState(SimpleGoalState.StateEnum.DONE);
+            actionClient.getMetrics().record(Metric.CLIENT_SEND_TO_DONE_NANOS,
+                System.nanoTime() - goalSentNanos);
             if (callbacks != null) {
               callbacks.doneCallback(getState(), goalHandle.getResult());
             }
+            if (goalFuture != null) {
+              goalFuture.complete(new GoalOutcome<T_RESULT>(goalHandle.getTerminalState(),
+                  goalHandle.getGoalStatusText(), goalHandle.getResult()));
+            }
             goalFinalStateLatch.countDown();
             break;
           case DONE:
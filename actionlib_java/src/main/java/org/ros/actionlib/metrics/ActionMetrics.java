@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.metrics;
+
+/**
+ * The interface through which action servers and action clients report their
+ * runtime behavior. An implementation is set using
+ * <tt>setMetrics()</tt> of the DefaultActionServer or the ActionClient;
+ * without one, {@link NoOpActionMetrics} is used.
+ * 
+ * <p>
+ * The methods are called on the hot paths of the actionlib, from many threads
+ * at once. Implementations must be thread-safe, must not block and should not
+ * allocate memory.
+ */
+public interface ActionMetrics {
+
+  /**
+   * Counts an event.
+   * 
+   * @param metric
+   *          The counter metric
+   */
+  void count(Metric metric);
+
+  /**
+   * Records a value, e.g. a duration in nanoseconds or a size.
+   * 
+   * @param metric
+   *          The metric
+   * @param value
+   *          The value
+   */
+  void record(Metric metric, long value);
+
+}
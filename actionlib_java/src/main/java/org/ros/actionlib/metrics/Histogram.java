@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative long values with a bounded relative error, in
+ * the style of HdrHistogram. Values below 2^{@link #PRECISION_BITS} are
+ * counted exactly. Larger values are counted in buckets covering a
+ * 2^-{@link #PRECISION_BITS} fraction of their power of two, i.e. with a
+ * relative error of at most about 3%. The buckets are a fixed array of atomic
+ * counters, so recording a value is lock-free and never allocates memory.
+ * 
+ * <p>
+ * Reading the histogram while values are recorded gives a consistent enough
+ * view for monitoring, but not an atomic snapshot.
+ */
+public class Histogram {
+
+  /**
+   * The number of bits of precision kept for every value
+   */
+  public static final int PRECISION_BITS = 5;
+
+  private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+  private static final int BUCKETS = (64 - PRECISION_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a value. Negative values are recorded as zero.
+   * 
+   * @param value
+   *          The value
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    sum.addAndGet(value);
+    long currentMax = max.get();
+    while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+      currentMax = max.get();
+    }
+  }
+
+  /**
+   * @return The number of recorded values
+   */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * @return The largest recorded value, or zero if no value was recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * @return The mean of the recorded values, or zero if no value was recorded
+   */
+  public double getMean() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : (double) sum.get() / count;
+  }
+
+  /**
+   * Gets the value below or at which the given percentage of the recorded
+   * values lies. The result is the lower bound of the bucket containing that
+   * value.
+   * 
+   * @param percentile
+   *          The percentile between 0 and 100
+   * @return The value at the percentile, or zero if no value was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count);
+    rank = Math.max(1, rank);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(bucketLowerBound(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Removes all recorded values. Values recorded concurrently may be lost or
+   * only partially removed.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    totalCount.set(0);
+    sum.set(0);
+    max.set(0);
+  }
+
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - PRECISION_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  private static long bucketLowerBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ActionMetrics keeping all metrics in memory: a counter for every metric
+ * passed to {@link #count(Metric)} and a {@link Histogram} for every metric
+ * passed to {@link #record(Metric, long)}. All storage is allocated up front,
+ * so recording never allocates memory.
+ * 
+ * <p>
+ * One instance can be shared by several action servers and clients to
+ * aggregate their metrics.
+ */
+public class InMemoryActionMetrics implements ActionMetrics {
+
+  private final AtomicLongArray counters = new AtomicLongArray(Metric.values().length);
+  private final Histogram[] histograms = new Histogram[Metric.values().length];
+  private volatile long startNanos = System.nanoTime();
+
+  public InMemoryActionMetrics() {
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new Histogram();
+    }
+  }
+
+  @Override
+  public void count(Metric metric) {
+    counters.incrementAndGet(metric.ordinal());
+  }
+
+  @Override
+  public void record(Metric metric, long value) {
+    histograms[metric.ordinal()].record(value);
+  }
+
+  /**
+   * Gets the number of events counted for a metric since the creation or the
+   * last reset.
+   * 
+   * @param metric
+   *          The counter metric
+   * @return The number of events
+   */
+  public long getCount(Metric metric) {
+    return counters.get(metric.ordinal());
+  }
+
+  /**
+   * Gets the average rate of the events counted for a metric since the
+   * creation or the last reset.
+   * 
+   * @param metric
+   *          The counter metric
+   * @return The number of events per second
+   */
+  public double getRatePerSecond(Metric metric) {
+    long elapsedNanos = System.nanoTime() - startNanos;
+    return elapsedNanos <= 0 ? 0 : getCount(metric) * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Gets the histogram of the values recorded for a metric.
+   * 
+   * @param metric
+   *          The metric
+   * @return The histogram
+   */
+  public Histogram getHistogram(Metric metric) {
+    return histograms[metric.ordinal()];
+  }
+
+  /**
+   * Removes all counted events and recorded values.
+   */
+  public void reset() {
+    for (int i = 0; i < histograms.length; i++) {
+      counters.set(i, 0);
+      histograms[i].reset();
+    }
+    startNanos = System.nanoTime();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (Metric metric : Metric.values()) {
+      long count = getCount(metric);
+      Histogram histogram = getHistogram(metric);
+      if (count == 0 && histogram.getCount() == 0) {
+        continue;
+      }
+      sb.append(metric);
+      if (count > 0) {
+        sb.append(": count=").append(count).append(", rate=")
+            .append(String.format("%.1f", getRatePerSecond(metric))).append("/s");
+      } else {
+        sb.append(": n=").append(histogram.getCount()).append(", mean=")
+            .append(String.format("%.1f", histogram.getMean())).append(", p50=")
+            .append(histogram.getValueAtPercentile(50)).append(", p99=")
+            .append(histogram.getValueAtPercentile(99)).append(", max=")
+            .append(histogram.getMax());
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.metrics;
+
+import actionlib_msgs.GoalStatus;
+
+/**
+ * The metrics recorded by the actionlib. Every metric is either a counter of
+ * events, which is passed to {@link ActionMetrics#count(Metric)}, or a
+ * distribution of values, which are passed to
+ * {@link ActionMetrics#record(Metric, long)}. Durations are given in
+ * nanoseconds.
+ */
+public enum Metric {
+
+  /**
+   * Counter of goals received by an action server
+   */
+  SERVER_GOALS_RECEIVED,
+
+  /**
+   * Number of goals in the status list of an action server, recorded on every
+   * status publication
+   */
+  SERVER_STATUS_LIST_SIZE,
+
+  /**
+   * Duration of building and publishing a status message
+   */
+  SERVER_STATUS_PUBLISH_NANOS,
+
+  /**
+   * Duration of building and publishing a feedback message
+   */
+  SERVER_FEEDBACK_PUBLISH_NANOS,
+
+  /**
+   * Duration of building and publishing a result message
+   */
+  SERVER_RESULT_PUBLISH_NANOS,
+
+  /**
+   * Time spent waiting for the lock of an action server
+   */
+  SERVER_LOCK_WAIT_NANOS,
+
+  /**
+   * Time a goal of an action server spent in the PENDING state
+   */
+  GOAL_PENDING_NANOS,
+
+  /**
+   * Time a goal of an action server spent in the ACTIVE state
+   */
+  GOAL_ACTIVE_NANOS,
+
+  /**
+   * Time a goal of an action server spent in the PREEMPTING state
+   */
+  GOAL_PREEMPTING_NANOS,
+
+  /**
+   * Time a goal of an action server spent in the RECALLING state
+   */
+  GOAL_RECALLING_NANOS,
+
+  /**
+   * Number of goals tracked by an action client, recorded whenever a goal is
+   * added or removed
+   */
+  CLIENT_GOALS_IN_FLIGHT,
+
+  /**
+   * Duration of dispatching a received status message to the goals of an
+   * action client
+   */
+  CLIENT_STATUS_DISPATCH_NANOS,
+
+  /**
+   * Time from sending a goal with a simple action client until it is done
+   */
+  CLIENT_SEND_TO_DONE_NANOS;
+
+  /**
+   * Gets the metric measuring the time goals spend in the given non-terminal
+   * state.
+   * 
+   * @param status
+   *          A GoalStatus constant
+   * @return The metric or <tt>null</tt> if the state is terminal
+   */
+  public static Metric timeInStatus(byte status) {
+    switch (status) {
+    case GoalStatus.PENDING:
+      return GOAL_PENDING_NANOS;
+    case GoalStatus.ACTIVE:
+      return GOAL_ACTIVE_NANOS;
+    case GoalStatus.PREEMPTING:
+      return GOAL_PREEMPTING_NANOS;
+    case GoalStatus.RECALLING:
+      return GOAL_RECALLING_NANOS;
+    default:
+      return null;
+    }
+  }
+
+}
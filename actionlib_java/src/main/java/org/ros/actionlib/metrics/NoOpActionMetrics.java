@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.metrics;
+
+/**
+ * ActionMetrics discarding everything. Used by default.
+ */
+public class NoOpActionMetrics implements ActionMetrics {
+
+  /**
+   * The only instance
+   */
+  public static final NoOpActionMetrics INSTANCE = new NoOpActionMetrics();
+
+  private NoOpActionMetrics() {
+  }
+
+  @Override
+  public void count(Metric metric) {
+  }
+
+  @Override
+  public void record(Metric metric, long value) {
+  }
+
+}
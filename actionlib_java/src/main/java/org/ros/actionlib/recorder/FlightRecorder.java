@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.recorder;
+
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An always-on recorder of the lifecycle events of goals. Every event is
+ * written as a fixed-size binary record into a ring of slots in a
+ * memory-mapped file, so the latest events survive a crash of the JVM and can
+ * be inspected afterwards with the {@link FlightRecorderDecoder}.
+ * 
+ * <p>
+ * Recording an event is lock-free and does not allocate memory: it claims a
+ * sequence number and writes a few values into the mapped file. The file
+ * holds the latest {@link #DEFAULT_CAPACITY} events unless configured
+ * otherwise.
+ * 
+ * <p>
+ * The shared recorder returned by {@link #get()} is configured with system
+ * properties:
+ * <ul>
+ * <li>{@value #ENABLED_PROPERTY}: <tt>false</tt> disables recording</li>
+ * <li>{@value #FILE_PROPERTY}: the ring file, by default
+ * <tt>actionlib-&lt;process&gt;.rec</tt> in the temporary directory</li>
+ * <li>{@value #CAPACITY_PROPERTY}: the number of events the ring holds, at
+ * most {@link #MAX_CAPACITY}</li>
+ * </ul>
+ * The default ring file is deleted when the JVM exits normally, so only the
+ * recordings of crashed processes are left behind. A ring file given with
+ * {@value #FILE_PROPERTY} is kept. If the shared recorder cannot be created,
+ * a warning is logged and nothing is recorded.
+ * 
+ * <p>
+ * File layout, in big-endian byte order: a header of {@link #HEADER_SIZE}
+ * bytes (magic, version, slot size, capacity, wall clock time in milliseconds
+ * and {@link System#nanoTime()} at creation), followed by the slots. A slot
+ * holds the sequence number of its event plus one (zero for an empty slot),
+ * the nano time, the hash code of the goal id, the event source and the state.
+ */
+public final class FlightRecorder {
+
+  public static final String ENABLED_PROPERTY = "org.ros.actionlib.recorder";
+  public static final String FILE_PROPERTY = "org.ros.actionlib.recorder.file";
+  public static final String CAPACITY_PROPERTY = "org.ros.actionlib.recorder.capacity";
+
+  public static final int DEFAULT_CAPACITY = 65536;
+
+  /**
+   * A goal was received by an action server. The state is PENDING.
+   */
+  public static final byte SERVER_GOAL_RECEIVED = 1;
+
+  /**
+   * A cancel request was received by an action server. The goal id is empty
+   * for a request to cancel all goals.
+   */
+  public static final byte SERVER_CANCEL_RECEIVED = 2;
+
+  /**
+   * The status of a goal of an action server changed. The state is the new
+   * GoalStatus.
+   */
+  public static final byte SERVER_TRANSITION = 3;
+
+  /**
+   * The CommStateMachine of a goal of an action client changed its state. The
+   * state is the ordinal of the new CommState.
+   */
+  public static final byte CLIENT_TRANSITION = 4;
+
+  /**
+   * An action client considers a goal as lost. The state is LOST.
+   */
+  public static final byte CLIENT_GOAL_LOST = 5;
+
+  static final int MAGIC = 0x414c4652; // "ALFR"
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 64;
+  static final int SLOT_SIZE = 24;
+
+  // Offsets within a slot
+  static final int SEQUENCE_OFFSET = 0;
+  static final int NANOS_OFFSET = 8;
+  static final int GOAL_HASH_OFFSET = 16;
+  static final int SOURCE_OFFSET = 20;
+  static final int STATE_OFFSET = 21;
+
+  /**
+   * The largest number of events a ring can hold. A larger ring file could
+   * not be mapped as a whole.
+   */
+  public static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+  private final AtomicLong sequence = new AtomicLong();
+
+  private FlightRecorder(MappedByteBuffer buffer, int capacity) {
+    this.buffer = buffer;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Lazily initialized holder of the shared recorder.
+   */
+  private static class Holder {
+    static final FlightRecorder INSTANCE = openShared();
+  }
+
+  /**
+   * Gets the recorder shared by all action servers and clients in the JVM.
+   * 
+   * @return The recorder. It does not record anything if it is disabled or
+   *         the ring file could not be created.
+   */
+  public static FlightRecorder get() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Creates a recorder as configured by the system properties.
+   * 
+   * @return The recorder, which does not record anything if it is disabled or
+   *         the ring file could not be created
+   */
+  static FlightRecorder openShared() {
+    if ("false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY))) {
+      return new FlightRecorder(null, 0);
+    }
+    String fileName = System.getProperty(FILE_PROPERTY);
+    File file;
+    if (fileName != null) {
+      file = new File(fileName);
+    } else {
+      String process = ManagementFactory.getRuntimeMXBean().getName().replaceAll("[^A-Za-z0-9._-]", "_");
+      file = new File(System.getProperty("java.io.tmpdir"), "actionlib-" + process + ".rec");
+      // A file named after the process is never reused, so it is only kept
+      // when the process crashed.
+      file.deleteOnExit();
+    }
+    int capacity = DEFAULT_CAPACITY;
+    try {
+      capacity = Integer.parseInt(System.getProperty(CAPACITY_PROPERTY, String.valueOf(DEFAULT_CAPACITY)));
+    } catch (NumberFormatException e) {
+      // Keep the default.
+    }
+    // Any failure has to be caught, as an exception escaping the
+    // initialization of the Holder would make every later get() fail.
+    try {
+      return open(file, capacity);
+    } catch (IOException e) {
+      return disabled(file, e);
+    } catch (RuntimeException e) {
+      return disabled(file, e);
+    }
+  }
+
+  private static FlightRecorder disabled(File file, Exception e) {
+    LogFactory.getLog(FlightRecorder.class).warn(
+        "[FlightRecorder] Couldn't create " + file + ", recording is disabled", e);
+    return new FlightRecorder(null, 0);
+  }
+
+  /**
+   * Creates a recorder writing to the given file. An existing file is
+   * overwritten.
+   * 
+   * @param file
+   *          The ring file
+   * @param capacity
+   *          The number of events the ring holds, between 1 and
+   *          {@link #MAX_CAPACITY}
+   * @return The recorder
+   * @throws IOException
+   *           If the file cannot be created or mapped
+   */
+  public static FlightRecorder open(File file, int capacity) throws IOException {
+    if (capacity < 1 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("The capacity must be between 1 and " + MAX_CAPACITY + ", not "
+          + capacity);
+    }
+    long size = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      // Truncating first zeroes all slots of a previous run.
+      raf.setLength(0);
+      raf.setLength(size);
+      MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      buffer.order(ByteOrder.BIG_ENDIAN);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      buffer.putInt(8, SLOT_SIZE);
+      buffer.putInt(12, capacity);
+      buffer.putLong(16, System.currentTimeMillis());
+      buffer.putLong(24, System.nanoTime());
+      return new FlightRecorder(buffer, capacity);
+    } finally {
+      // The mapping stays valid after the file is closed.
+      raf.close();
+    }
+  }
+
+  /**
+   * Checks whether the recorder writes events.
+   * 
+   * @return <tt>true</tt> - if events are recorded<br>
+   *         <tt>false</tt> - if recording is disabled
+   */
+  public boolean isEnabled() {
+    return buffer != null;
+  }
+
+  /**
+   * Records an event.
+   * 
+   * @param source
+   *          The source of the event, one of the event constants of this class
+   * @param goalID
+   *          The id of the goal concerned, may be <tt>null</tt>
+   * @param state
+   *          The state of the goal after the event
+   */
+  public void record(byte source, String goalID, int state) {
+    if (buffer == null) {
+      return;
+    }
+    long seq = sequence.getAndIncrement();
+    int slot = HEADER_SIZE + (int) (seq % capacity) * SLOT_SIZE;
+    // The slot is marked empty while it is written, so the decoder skips
+    // an event that was interrupted by a crash.
+    buffer.putLong(slot + SEQUENCE_OFFSET, 0);
+    buffer.putLong(slot + NANOS_OFFSET, System.nanoTime());
+    buffer.putInt(slot + GOAL_HASH_OFFSET, goalID == null ? 0 : goalID.hashCode());
+    buffer.put(slot + SOURCE_OFFSET, source);
+    buffer.put(slot + STATE_OFFSET, (byte) state);
+    buffer.putLong(slot + SEQUENCE_OFFSET, seq + 1);
+  }
+
+  /**
+   * Writes the recorded events to the storage device. Not needed to survive a
+   * crash of the JVM, only a crash of the operating system.
+   */
+  public void force() {
+    if (buffer != null) {
+      buffer.force();
+    }
+  }
+
+}
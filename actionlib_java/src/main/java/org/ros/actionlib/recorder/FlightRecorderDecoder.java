@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.recorder;
+
+import org.ros.actionlib.state.CommState;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Dumps the ring file of a {@link FlightRecorder} as text, one line per event
+ * in the order the events were recorded:
+ * 
+ * <pre>
+ * java -cp actionlib_java.jar org.ros.actionlib.recorder.FlightRecorderDecoder [--goal &lt;goal id&gt;] &lt;file&gt;
+ * </pre>
+ * 
+ * With <tt>--goal</tt>, only the events of the goal with the given id are
+ * dumped. Goals are identified by the hash code of their id, so events of
+ * other goals with the same hash code may show up as well.
+ */
+public class FlightRecorderDecoder {
+
+  private static final String[] GOAL_STATUS_NAMES = { "PENDING", "ACTIVE", "PREEMPTED",
+      "SUCCEEDED", "ABORTED", "REJECTED", "PREEMPTING", "RECALLING", "RECALLED", "LOST" };
+
+  /**
+   * A decoded event.
+   */
+  public static class Event {
+    public final long sequence;
+    public final long wallTimeMicros;
+    public final int goalHash;
+    public final byte source;
+    public final byte state;
+
+    Event(long sequence, long wallTimeMicros, int goalHash, byte source, byte state) {
+      this.sequence = sequence;
+      this.wallTimeMicros = wallTimeMicros;
+      this.goalHash = goalHash;
+      this.source = source;
+      this.state = state;
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    String goalID = null;
+    String file = null;
+    for (int i = 0; i < args.length; i++) {
+      if ("--goal".equals(args[i]) && i + 1 < args.length) {
+        goalID = args[++i];
+      } else {
+        file = args[i];
+      }
+    }
+    if (file == null) {
+      System.err.println("Usage: FlightRecorderDecoder [--goal <goal id>] <file>");
+      System.exit(2);
+    }
+    dump(new File(file), goalID, System.out);
+  }
+
+  /**
+   * Reads all events of a ring file.
+   * 
+   * @param file
+   *          The ring file
+   * @return The events in the order they were recorded
+   * @throws IOException
+   *           If the file cannot be read or is not a ring file
+   */
+  public static List<Event> decode(File file) throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+      buffer.order(ByteOrder.BIG_ENDIAN);
+      if (buffer.capacity() < FlightRecorder.HEADER_SIZE || buffer.getInt(0) != FlightRecorder.MAGIC) {
+        throw new IOException(file + " is not a flight recorder file");
+      }
+      if (buffer.getInt(4) != FlightRecorder.VERSION) {
+        throw new IOException("Unsupported flight recorder file version " + buffer.getInt(4));
+      }
+      int slotSize = buffer.getInt(8);
+      int capacity = buffer.getInt(12);
+      long startWallMillis = buffer.getLong(16);
+      long startNanos = buffer.getLong(24);
+      if ((long) FlightRecorder.HEADER_SIZE + (long) capacity * slotSize > buffer.capacity()) {
+        throw new IOException(file + " is truncated");
+      }
+
+      List<Event> events = new ArrayList<Event>();
+      for (int i = 0; i < capacity; i++) {
+        int slot = FlightRecorder.HEADER_SIZE + i * slotSize;
+        long sequence = buffer.getLong(slot + FlightRecorder.SEQUENCE_OFFSET) - 1;
+        if (sequence < 0 || sequence % capacity != i) {
+          continue;
+        }
+        long nanos = buffer.getLong(slot + FlightRecorder.NANOS_OFFSET);
+        events.add(new Event(sequence, startWallMillis * 1000 + (nanos - startNanos) / 1000, buffer
+            .getInt(slot + FlightRecorder.GOAL_HASH_OFFSET), buffer.get(slot
+            + FlightRecorder.SOURCE_OFFSET), buffer.get(slot + FlightRecorder.STATE_OFFSET)));
+      }
+      Collections.sort(events, new Comparator<Event>() {
+        @Override
+        public int compare(Event e1, Event e2) {
+          return e1.sequence < e2.sequence ? -1 : (e1.sequence == e2.sequence ? 0 : 1);
+        }
+      });
+      return events;
+    } finally {
+      raf.close();
+    }
+  }
+
+  /**
+   * Dumps the events of a ring file as text.
+   * 
+   * @param file
+   *          The ring file
+   * @param goalID
+   *          The id of the goal whose events are dumped, or <tt>null</tt> to
+   *          dump all events
+   * @param out
+   *          The stream to write to
+   * @throws IOException
+   *           If the file cannot be read or is not a ring file
+   */
+  public static void dump(File file, String goalID, PrintStream out) throws IOException {
+    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    for (Event event : decode(file)) {
+      if (goalID != null && event.goalHash != goalID.hashCode()) {
+        continue;
+      }
+      out.println(String.format("%10d %s%03d goal=%08x %-22s %s", event.sequence,
+          format.format(new Date(event.wallTimeMicros / 1000)), event.wallTimeMicros % 1000,
+          event.goalHash, sourceName(event.source), stateName(event.source, event.state)));
+    }
+  }
+
+  private static String sourceName(byte source) {
+    switch (source) {
+    case FlightRecorder.SERVER_GOAL_RECEIVED:
+      return "SERVER_GOAL_RECEIVED";
+    case FlightRecorder.SERVER_CANCEL_RECEIVED:
+      return "SERVER_CANCEL_RECEIVED";
+    case FlightRecorder.SERVER_TRANSITION:
+      return "SERVER_TRANSITION";
+    case FlightRecorder.CLIENT_TRANSITION:
+      return "CLIENT_TRANSITION";
+    case FlightRecorder.CLIENT_GOAL_LOST:
+      return "CLIENT_GOAL_LOST";
+    default:
+      return "UNKNOWN(" + source + ")";
+    }
+  }
+
+  private static String stateName(byte source, byte state) {
+    if (source == FlightRecorder.SERVER_CANCEL_RECEIVED) {
+      return "";
+    }
+    if (source == FlightRecorder.CLIENT_TRANSITION) {
+      CommState.StateEnum[] states = CommState.StateEnum.values();
+      return state >= 0 && state < states.length ? states[state].toString() : "UNKNOWN(" + state + ")";
+    }
+    return state >= 0 && state < GOAL_STATUS_NAMES.length ? GOAL_STATUS_NAMES[state] : "UNKNOWN("
+        + state + ")";
+  }
+
+}
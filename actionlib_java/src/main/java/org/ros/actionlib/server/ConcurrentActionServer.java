@@ -0,0 +1,375 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.util.DaemonThreadFactory;
+import org.ros.actionlib.util.VirtualThreadFactory;
+import org.ros.internal.message.Message;
+import actionlib_msgs.GoalStatus;
+import org.ros.node.ConnectedNode;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An action server which executes up to a fixed number of goals concurrently.
+ * It is built on a {@link DefaultActionServer}, to which it is registered as
+ * the {@link ActionServerCallbacks}.
+ * 
+ * <p>
+ * Every received goal is put into a bounded queue of pending goals and stays
+ * in the PENDING state until a worker thread is available. The worker accepts
+ * the goal and runs
+ * {@link ConcurrentActionServerCallbacks#executeCallback(Message, ServerGoalHandle)}
+ * for it. If the queue of pending goals is full, new goals are rejected.
+ * 
+ * <p>
+ * A cancel request for a pending goal cancels it right away. A cancel request
+ * for a goal that is being executed is routed to the worker executing it: the
+ * goal's status changes to PREEMPTING and
+ * {@link ConcurrentActionServerCallbacks#preemptCallback(ServerGoalHandle)} is
+ * called with the GoalHandle used by the worker.
+ * 
+ * <p>
+ * Like the blocking goal callback of the {@link DefaultSimpleActionServer}, a
+ * goal gets aborted if its executeCallback throws an exception or returns
+ * without setting the goal to a terminal state.
+ * 
+ * <p>
+ * The workers share no lock, so CPU-bound goals scale with the number of
+ * workers up to the number of available processors.
+ */
+public class ConcurrentActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message>
+    implements
+    ActionServerCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> {
+
+  /**
+   * The default capacity of the queue of pending goals.
+   */
+  public static final int DEFAULT_MAX_PENDING_GOALS = 1024;
+
+  private static final int PENDING = 0;
+  private static final int RUNNING = 1;
+  private static final int DONE = 2;
+
+  /**
+   * The action server which is doing all of the communication.
+   */
+  protected DefaultActionServer<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionServer;
+
+  /**
+   * The callbacks which this server will use.
+   */
+  protected ConcurrentActionServerCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks;
+
+  /**
+   * The worker threads and the queue of pending goals.
+   */
+  protected ThreadPoolExecutor workers;
+
+  /**
+   * The pending and running goals indexed by their GoalID.
+   */
+  protected ConcurrentMap<String, GoalExecution> executions =
+      new ConcurrentHashMap<String, GoalExecution>();
+
+  /**
+   * Constructor to create a ConcurrentActionServer executing as many goals
+   * concurrently as there are available processors.
+   * 
+   * @param nameSpace
+   *          The name space of the action server
+   * @param spec
+   *          The action specification
+   * @param callbacks
+   *          The callbacks executing and preempting goals
+   */
+  public ConcurrentActionServer(
+      String nameSpace,
+      ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec,
+      ConcurrentActionServerCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks) {
+    this(nameSpace, spec, callbacks, Runtime.getRuntime().availableProcessors(),
+        DEFAULT_MAX_PENDING_GOALS);
+  }
+
+  /**
+   * Constructor to create a ConcurrentActionServer.
+   * 
+   * @param nameSpace
+   *          The name space of the action server
+   * @param spec
+   *          The action specification
+   * @param callbacks
+   *          The callbacks executing and preempting goals
+   * @param maxConcurrentGoals
+   *          The number of worker threads, i.e. the maximum number of goals
+   *          executed at the same time
+   * @param maxPendingGoals
+   *          The maximum number of goals waiting for a worker. Further goals
+   *          are rejected.
+   */
+  public ConcurrentActionServer(
+      String nameSpace,
+      ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec,
+      ConcurrentActionServerCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks,
+      int maxConcurrentGoals, int maxPendingGoals) {
+    this(nameSpace, spec, callbacks, maxConcurrentGoals, maxPendingGoals, false);
+  }
+
+  /**
+   * Constructor to create a ConcurrentActionServer, whose worker threads may
+   * be virtual threads. Since a goal waiting on a virtual thread does not
+   * occupy a platform thread, the number of concurrent goals can be much
+   * larger than the number of processors for goals that mostly wait.
+   * 
+   * @param nameSpace
+   *          The name space of the action server
+   * @param spec
+   *          The action specification
+   * @param callbacks
+   *          The callbacks executing and preempting goals
+   * @param maxConcurrentGoals
+   *          The number of worker threads, i.e. the maximum number of goals
+   *          executed at the same time
+   * @param maxPendingGoals
+   *          The maximum number of goals waiting for a worker. Further goals
+   *          are rejected.
+   * @param useVirtualThreads
+   *          If <tt>true</tt>, the workers are virtual threads when the Java
+   *          runtime supports them, and daemon platform threads otherwise.
+   * 
+   * @see VirtualThreadFactory
+   */
+  public ConcurrentActionServer(
+      String nameSpace,
+      ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec,
+      ConcurrentActionServerCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks,
+      int maxConcurrentGoals, int maxPendingGoals, boolean useVirtualThreads) {
+    if (maxConcurrentGoals < 1 || maxPendingGoals < 0) {
+      throw new IllegalArgumentException(
+          "At least one concurrent goal and no negative number of pending goals are required");
+    }
+
+    BlockingQueue<Runnable> pendingGoals =
+        maxPendingGoals == 0 ? new SynchronousQueue<Runnable>() : new LinkedBlockingQueue<Runnable>(
+            maxPendingGoals);
+    ThreadFactory threadFactory =
+        useVirtualThreads ? new VirtualThreadFactory("actionlib-worker") : new DaemonThreadFactory(
+            "actionlib-worker");
+
+    this.callbacks = callbacks;
+    this.workers =
+        new ThreadPoolExecutor(maxConcurrentGoals, maxConcurrentGoals, 0, TimeUnit.NANOSECONDS,
+            pendingGoals, threadFactory);
+    this.actionServer =
+        new DefaultActionServer<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+            nameSpace, spec, this);
+  }
+
+  /**
+   * Add all action server publishers and subscribers to the given node.
+   * 
+   * <p>
+   * Lifetime of the node is taken over by the server.
+   * 
+   * @param node
+   */
+  public void addClientPubSub(ConnectedNode node) {
+    actionServer.addClientPubSub(node);
+  }
+
+  /**
+   * Shut the server down. Pending goals are rejected and the worker threads
+   * executing goals are interrupted.
+   */
+  public void shutdown() {
+    workers.shutdownNow();
+    // The drained queue holds the pending goals as plain Runnables, so they
+    // are looked up in the typed index instead. A goal a worker took from the
+    // queue but did not start yet is still PENDING and rejected here as well.
+    for (GoalExecution execution : executions.values()) {
+      if (execution.state.compareAndSet(PENDING, DONE)) {
+        executions.remove(execution.id, execution);
+        execution.goalHandle.setRejected(actionServer.spec.createResultMessage(),
+            "This goal was rejected because the action server was shut down");
+      }
+    }
+    actionServer.shutdown();
+  }
+
+  /**
+   * Gets the number of goals that are currently being executed.
+   * 
+   * @return The number of running goals
+   */
+  public int getActiveGoalCount() {
+    return workers.getActiveCount();
+  }
+
+  /**
+   * Gets the number of goals waiting for a worker thread.
+   * 
+   * @return The number of pending goals
+   */
+  public int getPendingGoalCount() {
+    return workers.getQueue().size();
+  }
+
+  /**
+   * Checks whether the preemption of a goal that is being executed was
+   * requested.
+   * 
+   * @param goalHandle
+   *          The GoalHandle passed to the goal's executeCallback
+   * @return <tt>true</tt> - if a cancel request for the goal was received<br>
+   *         <tt>false</tt> - otherwise
+   */
+  public
+      boolean
+      isPreemptRequested(
+          ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle) {
+    GoalExecution execution = executions.get(goalHandle.getGoalID().getId());
+    return execution != null && execution.preemptRequested;
+  }
+
+  @Override
+  public
+      void
+      goalCallback(
+          ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goal) {
+
+    GoalExecution execution = new GoalExecution(goal);
+    if (executions.putIfAbsent(execution.id, execution) != null) {
+      // The goal is already known.
+      return;
+    }
+
+    try {
+      workers.execute(execution);
+    } catch (RejectedExecutionException e) {
+      execution.state.set(DONE);
+      executions.remove(execution.id, execution);
+      actionServer.getNode().getLog()
+          .warn("[ConcurrentActionServer] Rejecting a goal, the queue of pending goals is full");
+      goal.setRejected(actionServer.spec.createResultMessage(),
+          "This goal was rejected because the queue of pending goals of the action server is full");
+    }
+  }
+
+  @Override
+  public
+      void
+      cancelCallback(
+          ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalToCancel) {
+
+    GoalExecution execution = executions.get(goalToCancel.getGoalID().getId());
+    if (execution == null) {
+      return;
+    }
+
+    if (execution.state.compareAndSet(PENDING, DONE)) {
+      actionServer.getNode().getLog()
+          .debug("[ConcurrentActionServer] Canceling a pending goal");
+      workers.remove(execution);
+      executions.remove(execution.id, execution);
+      execution.goalHandle.setCanceled(actionServer.spec.createResultMessage(),
+          "This goal was canceled before the action server started to execute it");
+    } else if (execution.state.get() == RUNNING) {
+      actionServer.getNode().getLog()
+          .debug("[ConcurrentActionServer] Routing a preempt request to the worker of the goal");
+      execution.preemptRequested = true;
+      try {
+        callbacks.preemptCallback(execution.goalHandle);
+      } catch (RuntimeException e) {
+        actionServer.getNode().getLog()
+            .error("[ConcurrentActionServer] Exception in user callback (preemptCallback())", e);
+      }
+    }
+  }
+
+  /**
+   * The execution of a single goal by a worker thread.
+   */
+  protected class GoalExecution implements Runnable {
+
+    private final String id;
+    private final ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private volatile boolean preemptRequested = false;
+
+    GoalExecution(
+        ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle) {
+      this.goalHandle = goalHandle;
+      this.id = goalHandle.getGoalID().getId();
+    }
+
+    @Override
+    public void run() {
+      if (!state.compareAndSet(PENDING, RUNNING)) {
+        // Canceled while pending.
+        return;
+      }
+
+      boolean exception = false;
+      try {
+        goalHandle.setAccepted("This goal has been accepted by the concurrent action server");
+        callbacks.executeCallback(goalHandle.getGoal(), goalHandle);
+      } catch (Exception e) {
+        actionServer
+            .getNode()
+            .getLog()
+            .error(
+                "[ConcurrentActionServer] Exception in user callback, the goal gets aborted: "
+                    + e.toString());
+        exception = true;
+      } finally {
+        state.set(DONE);
+        executions.remove(id, this);
+      }
+
+      if (exception) {
+        goalHandle.setAborted(
+            actionServer.spec.createResultMessage(),
+            "This goal was set to 'ABORTED' by the concurrent action server due to an exception in the user callback (executeCallback()).");
+      } else if (isActive()) {
+        actionServer
+            .getNode()
+            .getLog()
+            .error(
+                "The executeCallback did not set the goal to a terminal status.\nThis is a bug in the user's action server implementation, which has to be fixed!\n For now, the goal gets set to 'ABORTED'.");
+        goalHandle.setAborted(
+            actionServer.spec.createResultMessage(),
+            "This goal was aborted by the concurrent action server. The user should have set a terminal status on this goal but did not.");
+      }
+    }
+
+    private boolean isActive() {
+      short status = goalHandle.getGoalStatus().getStatus();
+      return status == GoalStatus.ACTIVE || status == GoalStatus.PREEMPTING;
+    }
+  }
+
+}
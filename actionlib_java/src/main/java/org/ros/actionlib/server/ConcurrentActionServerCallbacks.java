@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import org.ros.internal.message.Message;
+
+/**
+ * Callbacks to the {@link ConcurrentActionServer}.
+ */
+public interface ConcurrentActionServerCallbacks<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
+
+  /**
+   * Executes a goal. Called on a worker thread of the server after the goal
+   * was accepted. The callback has to set the goal to a terminal state using
+   * its GoalHandle before it returns, otherwise the goal gets aborted.
+   * 
+   * @param goal
+   *          The goal to be done.
+   * @param goalHandle
+   *          The GoalHandle of the goal, used to publish feedback and to set
+   *          the goal's terminal state.
+   */
+  void
+  executeCallback(
+      T_GOAL goal,
+      ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle);
+
+  /**
+   * A request to preempt a goal that is being executed has been received by
+   * the server. Called on the thread receiving the request, while the
+   * {@link #executeCallback(Message, ServerGoalHandle)} of the goal is still
+   * running.
+   * 
+   * @param goalHandle
+   *          The GoalHandle of the goal to preempt, the same one that was
+   *          passed to the goal's executeCallback.
+   */
+  void
+  preemptCallback(
+      ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle);
+}
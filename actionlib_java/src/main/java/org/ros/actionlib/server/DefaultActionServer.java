@@ -18,7 +18,13 @@ package org.ros.actionlib.server;
 
 import org.ros.actionlib.ActionConstants;
 import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.LoopbackChannel;
+import org.ros.actionlib.metrics.ActionMetrics;
+import org.ros.actionlib.metrics.Metric;
+import org.ros.actionlib.metrics.NoOpActionMetrics;
+import org.ros.actionlib.recorder.FlightRecorder;
 import org.ros.actionlib.util.GoalIDGenerator;
+import org.ros.actionlib.util.SharedMessageFactory;
 import org.ros.exception.RosException;
 import org.ros.message.Duration;
 import org.ros.internal.message.Message;
@@ -33,10 +39,12 @@ import org.ros.node.parameter.ParameterTree;
 import org.ros.node.topic.Publisher;
 import org.ros.node.topic.Subscriber;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -86,11 +94,10 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
   protected Publisher<GoalStatusArray> pubStatus;
 
   /**
-   * The list of status trackers for every goal being handled by the server.
+   * The status trackers for every goal being handled by the server.
    */
-  protected List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> statusList =
-      new ArrayList<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>(
-          50);
+  protected StatusTrackerTable<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> statusList =
+      new StatusTrackerTable<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>();
 
   /**
    * Last time when a cancel was done.
@@ -100,9 +107,59 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
   protected Duration statusListTimeout;
 
   /**
-   * Timer for sending out status updates on the server.
+   * Scheduler for sending out status updates on the server.
    */
-  protected Timer statusTimer = new Timer();
+  protected StatusScheduler statusScheduler;
+
+  /**
+   * Whether the latest status publication contained goals that are not
+   * finished yet.
+   */
+  protected volatile boolean unfinishedGoals = false;
+
+  /**
+   * The minimum time between two feedback publications for the same goal in
+   * nanoseconds. Zero disables the feedback rate limit.
+   */
+  protected volatile long feedbackPeriodNanos = 0;
+
+  /**
+   * The metrics recorded by the server and its goal handles.
+   */
+  protected volatile ActionMetrics metrics = NoOpActionMetrics.INSTANCE;
+
+  /**
+   * The in-process channel to the action clients in the same JVM, if the
+   * server is bound to it.
+   */
+  protected volatile LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT> loopback;
+
+  /**
+   * The status list of the {@link #statusList} that was last copied for the
+   * local clients, and the copies of its GoalStatus messages. Guarded by the
+   * lock of the server.
+   */
+  private List<GoalStatus> copiedStatusList = Collections.emptyList();
+  private List<GoalStatus> statusCopies = Collections.emptyList();
+
+  private final LoopbackChannel.ServerEndpoint<T_ACTION_GOAL> loopbackEndpoint =
+      new LoopbackChannel.ServerEndpoint<T_ACTION_GOAL>() {
+        @Override
+        public void goalReceived(T_ACTION_GOAL actionGoal) {
+          doGoalCallback(actionGoal);
+        }
+
+        @Override
+        public void cancelReceived(GoalID goalID) {
+          doCancelCallback(goalID);
+        }
+      };
+
+  /**
+   * The journal from which the goals are recovered after a restart, or null
+   * if goals are not journaled.
+   */
+  protected volatile GoalJournal journal;
 
   protected GoalIDGenerator idGenerator;
   protected boolean active = false;
@@ -137,6 +194,8 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
     if (!active) {
       if (initServer()) {
         active = true;
+        recoverGoals();
+        bindLoopback();
         publishStatus();
       } else {
         node.getLog()
@@ -150,14 +209,24 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
    * Shut the server down.
    */
   public void shutdown() {
-    if (statusTimer != null) {
-      statusTimer.cancel();
-      statusTimer = null;
+    if (statusScheduler != null) {
+      statusScheduler.stop();
+      statusScheduler = null;
     }
 
     shutdown = true;
     active = false;
 
+    if (loopback != null) {
+      loopback.unbindServer(loopbackEndpoint);
+      loopback = null;
+    }
+
+    if (journal != null) {
+      journal.close();
+      journal = null;
+    }
+
     // pubStatus.shutdown();
     // pubFeedback.shutdown();
     // pubResult.shutdown();
@@ -232,7 +301,10 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
     }
 
     double pStatusFrequency;
+    double pStatusIdleFrequency;
     double pStatusListTimeout;
+    double pStatusCoalescingWindow;
+    double pFeedbackMaxRate;
 
     ParameterTree parameterClient = node.getParameterTree();
     try {
@@ -256,12 +328,66 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
               "[DefaultActionServer] Status frequency parameter is not a positive number. Using default value of 5Hz!");
     }
 
-    TimerTask task = new TimerTask() {
-      @Override
-      public void run() {
-        publishStatus();
+    try {
+      pStatusIdleFrequency = parameterClient.getDouble("status_idle_frequency", 1.0);
+    } catch (Exception e) {
+      e.printStackTrace();
+      pStatusIdleFrequency = 1.0;
+    }
+    if (pStatusIdleFrequency <= 0) {
+      pStatusIdleFrequency = 1.0;
+      node.getLog()
+          .warn(
+              "[DefaultActionServer] Status idle frequency parameter is not a positive number. Using default value of 1Hz!");
+    }
+    if (pStatusIdleFrequency > pStatusFrequency) {
+      pStatusIdleFrequency = pStatusFrequency;
+    }
+
+    try {
+      pStatusCoalescingWindow = parameterClient.getDouble("status_coalescing_window", 0.01);
+    } catch (Exception e) {
+      e.printStackTrace();
+      pStatusCoalescingWindow = 0.01;
+    }
+    if (pStatusCoalescingWindow < 0) {
+      pStatusCoalescingWindow = 0.01;
+      node.getLog()
+          .warn(
+              "[DefaultActionServer] Status coalescing window parameter is negative. Using default value of 10ms!");
+    }
+
+    try {
+      pFeedbackMaxRate = parameterClient.getDouble("feedback_max_rate", 0.0);
+    } catch (Exception e) {
+      e.printStackTrace();
+      pFeedbackMaxRate = 0.0;
+    }
+    if (pFeedbackMaxRate < 0) {
+      pFeedbackMaxRate = 0.0;
+      node.getLog()
+          .warn(
+              "[DefaultActionServer] Feedback max rate parameter is negative. Feedback rate is not limited!");
+    }
+    feedbackPeriodNanos = pFeedbackMaxRate > 0 ? (long) (1e9 / pFeedbackMaxRate) : 0;
+
+    String pJournalFile;
+    try {
+      pJournalFile = parameterClient.getString("journal_file", "");
+    } catch (Exception e) {
+      e.printStackTrace();
+      pJournalFile = "";
+    }
+    if (journal == null && !pJournalFile.isEmpty()) {
+      try {
+        journal = GoalJournal.open(new File(pJournalFile), node.getLog());
+      } catch (IOException e) {
+        node.getLog().error(
+            "[DefaultActionServer] Cannot open the goal journal " + pJournalFile
+                + ". Goals are not journaled!", e);
       }
-    };
+    }
+
     long milliSecsPeriod = (long) (1000 / pStatusFrequency);
     if (milliSecsPeriod == 0) {
       node.getLog()
@@ -269,16 +395,95 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
               "[DefaultActionServer] Status frequency parameter is too large. Maximum status update rate capped to 1000Hz.");
       milliSecsPeriod = 1;
     }
-    if (statusTimer != null) {
-      statusTimer.cancel();
+    long milliSecsIdlePeriod = Math.max(milliSecsPeriod, (long) (1000 / pStatusIdleFrequency));
+
+    if (statusScheduler != null) {
+      statusScheduler.stop();
     }
-    statusTimer = new Timer();
-    statusTimer.scheduleAtFixedRate(task, 0, milliSecsPeriod);
+    statusScheduler =
+        new StatusScheduler(this, milliSecsPeriod * 1000000L, milliSecsIdlePeriod * 1000000L,
+            (long) (pStatusCoalescingWindow * 1e9));
+    statusScheduler.start();
 
     return true;
 
   }
 
+  /**
+   * Rebuilds the status table from the goals recovered from the journal.
+   * Finished goals are tracked again with their terminal status until the
+   * status list timeout has passed since they finished. Goals which had not
+   * finished when the server stopped are aborted, because their execution is
+   * lost, and their result is published, so that their clients are done with
+   * them right away instead of waiting to lose them.
+   */
+  protected void recoverGoals() {
+    GoalJournal j = journal;
+    if (j == null || j.getRecoveredGoals().isEmpty()) {
+      return;
+    }
+
+    int finished = 0;
+    int aborted = 0;
+    lockServer();
+    try {
+      Time now = node.getCurrentTime();
+      long expiryNsecs = now.totalNsecs() - statusListTimeout.totalNsecs();
+      for (GoalJournal.RecoveredGoal goal : j.getRecoveredGoals()) {
+        if (statusList.get(goal.getGoalID()) != null
+            || (goal.isFinished() && goal.getTime().totalNsecs() < expiryNsecs)) {
+          continue;
+        }
+        GoalID goalID = SharedMessageFactory.get().newFromType(GoalID._TYPE);
+        goalID.setId(goal.getGoalID());
+        goalID.setStamp(goal.getStamp());
+        StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> tracker;
+        if (goal.isFinished()) {
+          tracker =
+              new StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+                  this, goalID, goal.getStatus());
+          tracker.goalStatus.setText(goal.getText());
+          tracker.destructionTime = goal.getTime();
+          statusList.add(tracker);
+          finished++;
+        } else {
+          tracker =
+              new StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+                  this, goalID, GoalStatus.ABORTED);
+          tracker.goalStatus.setText("The action server was restarted before the goal finished.");
+          tracker.destructionTime = now;
+          statusList.add(tracker);
+          publishResult(tracker.goalStatus, spec.createResultMessage());
+          aborted++;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    node.getLog().info(
+        "[DefaultActionServer] Recovered " + finished + " finished goals from the goal journal and aborted "
+            + aborted + " goals which were not finished.");
+  }
+
+  /**
+   * Binds the server to the loopback channel of its action, so that action
+   * clients in the same JVM exchange messages with it directly.
+   */
+  protected void bindLoopback() {
+    LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT> channel =
+        LoopbackChannel.open(node, node.getName().toString(), spec.getActionGoalMessage());
+    if (channel == null) {
+      return;
+    }
+    if (channel.bindServer(loopbackEndpoint)) {
+      loopback = channel;
+    } else {
+      node.getLog().warn(
+          "[DefaultActionServer] Another action server of the same action is running in this JVM. "
+              + "Local clients keep using it.");
+    }
+  }
+
   /**
    * Gets the action server's node.
    * 
@@ -288,6 +493,57 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
     return node;
   }
 
+  /**
+   * Gets the metrics recorded by the server.
+   * 
+   * @return The metrics
+   */
+  public ActionMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Sets the metrics recorded by the server and its goal handles.
+   * 
+   * @param metrics
+   *          The metrics, or <tt>null</tt> to stop recording metrics
+   */
+  public void setMetrics(ActionMetrics metrics) {
+    this.metrics = metrics == null ? NoOpActionMetrics.INSTANCE : metrics;
+  }
+
+  /**
+   * Acquires the lock of the server, recording the time spent waiting for it.
+   */
+  protected void lockServer() {
+    long start = System.nanoTime();
+    lock.lock();
+    metrics.record(Metric.SERVER_LOCK_WAIT_NANOS, System.nanoTime() - start);
+  }
+
+  /**
+   * Checks whether the latest status publication contained goals that are not
+   * finished yet, i.e. goals that are pending, active, preempting or
+   * recalling.
+   * 
+   * @return True if there are unfinished goals, false otherwise.
+   */
+  protected boolean hasUnfinishedGoals() {
+    return unfinishedGoals;
+  }
+
+  /**
+   * Announce that the status of a goal has changed. The status of the server
+   * is published as soon as possible, coalescing all changes within the
+   * status coalescing window into a single publication.
+   */
+  protected void markStatusDirty() {
+    StatusScheduler scheduler = statusScheduler;
+    if (scheduler != null) {
+      scheduler.markDirty();
+    }
+  }
+
   /**
    * Publish feedback for a given goal.
    * 
@@ -303,13 +559,22 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
       return;
     }
 
+    long start = System.nanoTime();
+    LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT> channel = loopback;
+    boolean local = channel != null && channel.hasClients();
     Time now = node.getCurrentTime();
-    T_ACTION_FEEDBACK actionFeedback = spec.createActionFeedbackMessage(feedback, pubFeedback, now, goalStatus);
-    System.out.println("publishing feedback" );
-    node.getLog().debug(
-        "[DefaultActionServer] Publishing feedback for goal, id: " + goalStatus.getGoalId().getId()
-        + ", stamp: " + (goalStatus.getGoalId().getStamp().totalNsecs() / 1000000) + "ms");
+    T_ACTION_FEEDBACK actionFeedback =
+        spec.createActionFeedbackMessage(feedback, pubFeedback, now, local ? copyOf(goalStatus) : goalStatus);
+    if (node.getLog().isDebugEnabled()) {
+      node.getLog().debug(
+          "[DefaultActionServer] Publishing feedback for goal, id: " + goalStatus.getGoalId().getId()
+          + ", stamp: " + (goalStatus.getGoalId().getStamp().totalNsecs() / 1000000) + "ms");
+    }
     pubFeedback.publish(actionFeedback);
+    if (local) {
+      channel.publishFeedback(goalStatus.getGoalId().getId(), actionFeedback);
+    }
+    metrics.record(Metric.SERVER_FEEDBACK_PUBLISH_NANOS, System.nanoTime() - start);
   }
 
   /**
@@ -328,12 +593,26 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
       return;
     }
 
+    long start = System.nanoTime();
+    LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT> channel = loopback;
+    boolean local = channel != null && channel.hasClients();
     Time now = node.getCurrentTime();
-    T_ACTION_RESULT actionResult = spec.createActionResultMessage(result, now, goalStatus);
+    T_ACTION_RESULT actionResult =
+        spec.createActionResultMessage(result, now, local ? copyOf(goalStatus) : goalStatus);
     node.getLog().debug(
         "[DefaultActionServer] Publishing result for goal, id: " + goalStatus.getGoalId().getId()
             + ", stamp: " + (goalStatus.getGoalId().getStamp().totalNsecs() / 1000000) + "ms");
     pubResult.publish(actionResult);
+    if (local) {
+      channel.publishResult(actionResult);
+    }
+    GoalJournal j = journal;
+    if (j != null) {
+      j.goalFinished(goalStatus.getGoalId().getId(), goalStatus.getGoalId().getStamp(),
+          goalStatus.getStatus(), goalStatus.getText(), now);
+    }
+    metrics.record(Metric.SERVER_RESULT_PUBLISH_NANOS, System.nanoTime() - start);
+    markStatusDirty();
   }
 
   /**
@@ -349,37 +628,50 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
       return;
     }
 
-    lock.lock();
+    lockServer();
     try {
-      GoalStatusArray statusArray = pubStatus.newMessage();
-      std_msgs.Header header = statusArray.getHeader();
-      header.setStamp(node.getCurrentTime());
-      statusArray.setHeader(header);
-      java.util.ArrayList<actionlib_msgs.GoalStatus> sl = new java.util.ArrayList( statusArray.getStatusList() );
-      sl.clear();
-      sl.ensureCapacity(statusList.size());
-      
-      for (int i = 0; i < statusList.size(); i++) {
-
-        StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> st =
-            statusList.get(i);
-
-        sl.add(st.goalStatus);
-
+      long start = System.nanoTime();
+      Time now = node.getCurrentTime();
+      // Trackers destroyed before this time have timed out.
+      long expiryNsecs = now.totalNsecs() - statusListTimeout.totalNsecs();
+      boolean unfinished = false;
+
+      for (Iterator<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> it =
+          statusList.iterator(); it.hasNext();) {
+
+        StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> st = it.next();
+
+        switch (st.goalStatus.getStatus()) {
+        case GoalStatus.PENDING:
+        case GoalStatus.ACTIVE:
+        case GoalStatus.PREEMPTING:
+        case GoalStatus.RECALLING:
+          unfinished = true;
+          break;
+        }
 
-        if (!st.destructionTime.isZero() || st.goalStatus.getStatus() == 8) {
 
-          Time timeoutTime = st.destructionTime.add(statusListTimeout);
-          Duration timeoutDur = timeoutTime.subtract(node.getCurrentTime());
-          if (timeoutDur.isNegative()) {
-            statusList.remove(st);
-            i--;
-          }
+        if ((!st.destructionTime.isZero() || st.goalStatus.getStatus() == GoalStatus.RECALLED)
+            && st.destructionTime.totalNsecs() < expiryNsecs) {
+          it.remove();
         }
       }
 
+      // The status list is maintained by the StatusTrackerTable as trackers
+      // are added and removed. Only the message itself is new, because
+      // rosjava serializes published messages asynchronously.
+      List<GoalStatus> sl = statusList.getStatusList();
+      GoalStatusArray statusArray = pubStatus.newMessage();
+      statusArray.getHeader().setStamp(now);
       statusArray.setStatusList(sl);
       pubStatus.publish(statusArray);
+      LoopbackChannel<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT> channel = loopback;
+      if (channel != null && channel.hasClients()) {
+        channel.publishStatus(copyForLocalClients(statusArray));
+      }
+      unfinishedGoals = unfinished;
+      metrics.record(Metric.SERVER_STATUS_PUBLISH_NANOS, System.nanoTime() - start);
+      metrics.record(Metric.SERVER_STATUS_LIST_SIZE, sl.size());
 
     } finally {
       lock.unlock();
@@ -387,6 +679,67 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
 
   }
 
+  /**
+   * Copies a GoalStatus, so that local clients never see the later changes of
+   * the goal's status.
+   * 
+   * @param goalStatus
+   *          The GoalStatus
+   * @return The copy
+   */
+  protected GoalStatus copyOf(GoalStatus goalStatus) {
+    GoalStatus copy = SharedMessageFactory.get().newFromType(GoalStatus._TYPE);
+    copy.setGoalId(goalStatus.getGoalId());
+    copy.setStatus(goalStatus.getStatus());
+    copy.setText(goalStatus.getText());
+    return copy;
+  }
+
+  /**
+   * Copies a status message and the GoalStatus messages it contains, so that
+   * local clients never see the later changes of the goals' status. The
+   * copies are kept together with the status list of the
+   * {@link StatusTrackerTable} they were taken from. While no tracker is added
+   * or removed, the table returns the same list and only the GoalStatus
+   * messages whose status or text changed since the last call are copied
+   * again. Lists handed out before are never modified. Must be called while
+   * holding the lock.
+   * 
+   * @param statusArray
+   *          The status message
+   * @return The copy
+   */
+  private GoalStatusArray copyForLocalClients(GoalStatusArray statusArray) {
+    List<GoalStatus> statusList = statusArray.getStatusList();
+    List<GoalStatus> copies = statusCopies;
+    if (statusList != copiedStatusList) {
+      copies = new ArrayList<GoalStatus>(statusList.size());
+      for (GoalStatus goalStatus : statusList) {
+        copies.add(copyOf(goalStatus));
+      }
+    } else {
+      for (int i = 0; i < statusList.size(); i++) {
+        GoalStatus goalStatus = statusList.get(i);
+        GoalStatus copy = copies.get(i);
+        // The same reference means the same text, so the texts need not be
+        // compared character by character.
+        if (copy.getStatus() != goalStatus.getStatus() || copy.getText() != goalStatus.getText()) {
+          if (copies == statusCopies) {
+            copies = new ArrayList<GoalStatus>(copies);
+          }
+          copies.set(i, copyOf(goalStatus));
+        }
+      }
+    }
+    copiedStatusList = statusList;
+    statusCopies = copies;
+
+    GoalStatusArray copy = SharedMessageFactory.get().newFromType(GoalStatusArray._TYPE);
+    copy.setHeader(statusArray.getHeader());
+    copy.setStatusList(copies);
+    return copy;
+  }
+
   /**
    * A new goal has arrived in the server from the client. Add it to the queue.
    * 
@@ -398,7 +751,9 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
     StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> newTracker =
         null;
 
-    lock.lock();
+    metrics.count(Metric.SERVER_GOALS_RECEIVED);
+
+    lockServer();
     try {
 
       if (!active) {
@@ -409,24 +764,23 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
 
       // check if new goal already is represented in status list
       GoalID goalID = spec.getGoalIDFromActionGoal(actionGoal);
-      for (StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> st : statusList) {
+      FlightRecorder.get().record(FlightRecorder.SERVER_GOAL_RECEIVED, goalID.getId(), GoalStatus.PENDING);
+      StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> st = statusList.get(goalID.getId());
+      if (st != null) {
         GoalStatus statusOfExistingGoal = st.goalStatus;
-        if (goalID.getId().equals(statusOfExistingGoal.getGoalId().getId())) {
-
-          // The goal can be in a RECALLING state if a cancel message came in
-          // before the goal
-          if (statusOfExistingGoal.getStatus() == GoalStatus.RECALLING) {
-            statusOfExistingGoal.setStatus(GoalStatus.RECALLED);
-            publishResult(statusOfExistingGoal, spec.createResultMessage());
-          }
 
-          if (st.goalHandle == null) {
-            st.destructionTime = node.getCurrentTime();
-          }
+        // The goal can be in a RECALLING state if a cancel message came in
+        // before the goal
+        if (statusOfExistingGoal.getStatus() == GoalStatus.RECALLING) {
+          statusOfExistingGoal.setStatus(GoalStatus.RECALLED);
+          publishResult(statusOfExistingGoal, spec.createResultMessage());
+        }
 
-          return;
+        if (st.goalHandle == null) {
+          st.destructionTime = node.getCurrentTime();
         }
 
+        return;
       }
 
       // Goal didn't exist. Create a new one.
@@ -434,6 +788,11 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
           new StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
               actionGoal, spec, idGenerator);
       statusList.add(newTracker);
+      if (journal != null) {
+        GoalID acceptedID = newTracker.goalStatus.getGoalId();
+        journal.goalAccepted(acceptedID.getId(), acceptedID.getStamp(), node.getCurrentTime());
+      }
+      markStatusDirty();
 
       // if goal has already been canceled by a cancel message according to its
       // timestamp
@@ -470,7 +829,7 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
     List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> callbackList =
         null;
 
-    lock.lock();
+    lockServer();
     try {
 
       if (!active) {
@@ -478,60 +837,78 @@ public class DefaultActionServer<T_ACTION_FEEDBACK extends Message, T_ACTION_GOA
       }
 
       node.getLog().debug("[DefaultActionServer] Received a new cancel request");
+      FlightRecorder.get().record(FlightRecorder.SERVER_CANCEL_RECEIVED, cancelGoal.getId(), 0);
 
       boolean cancelIDfound = false;
       callbackList =
           new ArrayList<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>();
-      for (int i = 0; i < statusList.size(); i++) {
 
-        StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> existingST =
-            statusList.get(i);
-        if (existingST.isCancelRequestTracker()) {
-          continue;
+      // if id is "" and time stamp is 0 => cancel everything
+      // if ids match => cancel this goal
+      // if time stamp is not 0 => cancel everything before time stamp
+      List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> affectedTrackers =
+          new ArrayList<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>();
+      StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> trackerOfID = null;
+      if (cancelGoal.getId().equals("") && cancelGoal.getStamp().isZero()) {
+        for (StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> st : statusList) {
+          if (!st.isCancelRequestTracker()) {
+            affectedTrackers.add(st);
+          }
         }
-        GoalID existingGoal = existingST.goalStatus.getGoalId();
-
-        // if id is "" and time stamp is 0 => cancel everything
-        // if ids match => cancel this goal
-        // if time stamp is not 0 => cancel everything before time stamp
-        if ((cancelGoal.getId().equals("") && cancelGoal.getStamp().isZero())
-            || cancelGoal.getId().equals(existingGoal.getId())
-            || (!cancelGoal.getStamp().isZero() && cancelGoal.getStamp().subtract(existingGoal.getStamp())
-                .isPositive())) {
-
-          if (cancelGoal.getId().equals(existingGoal.getId())) {
+      } else {
+        if (!cancelGoal.getId().equals("")) {
+          trackerOfID = statusList.get(cancelGoal.getId());
+          if (trackerOfID != null && !trackerOfID.isCancelRequestTracker()) {
             cancelIDfound = true;
+            affectedTrackers.add(trackerOfID);
           }
-
-          if (!existingST.isCancelRequestTracker()) {
-            if (existingST.goalHandle == null) {
-              new ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
-                  existingST, this);
-              //existingST.destructionTime = new Time(0, 0);
-              existingST.destructionTime = node.getCurrentTime();
-
-            }
-
-            if (existingST.goalHandle.setCancelRequested()) {
-              callbackList.add(existingST);
+        }
+        if (!cancelGoal.getStamp().isZero()) {
+          int i = affectedTrackers.size();
+          statusList.collectStampedBefore(cancelGoal.getStamp(), affectedTrackers);
+          if (cancelIDfound) {
+            // The goal with the given id may have been collected twice.
+            for (; i < affectedTrackers.size(); i++) {
+              if (affectedTrackers.get(i) == trackerOfID) {
+                affectedTrackers.remove(i);
+                break;
+              }
             }
           }
+        }
+      }
+
+      for (StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> existingST : affectedTrackers) {
+        if (existingST.goalHandle == null) {
+          new ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+              existingST, this);
+          existingST.destructionTime = node.getCurrentTime();
+        }
 
+        if (existingST.goalHandle.setCancelRequested()) {
+          callbackList.add(existingST);
         }
       }
 
       if (!cancelGoal.getId().equals("") && !cancelIDfound) {
-        StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> cancelTracker =
-            new StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
-                this, cancelGoal, GoalStatus.RECALLING);
-        cancelTracker.destructionTime = node.getCurrentTime();
-        statusList.add(cancelTracker);
+        if (trackerOfID != null) {
+          // The goal has already been canceled before it was received.
+          trackerOfID.destructionTime = node.getCurrentTime();
+        } else {
+          StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> cancelTracker =
+              new StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
+                  this, cancelGoal, GoalStatus.RECALLING);
+          cancelTracker.destructionTime = node.getCurrentTime();
+          statusList.add(cancelTracker);
+        }
       }
 
       if (cancelGoal.getStamp().subtract(lastCancelTime).isPositive()) {
         lastCancelTime = new Time(cancelGoal.getStamp());
       }
 
+      markStatusDirty();
+
     } finally {
       lock.unlock();
     }
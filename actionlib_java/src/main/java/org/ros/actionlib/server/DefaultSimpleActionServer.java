@@ -17,6 +17,7 @@
 package org.ros.actionlib.server;
 
 import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.util.VirtualThreadFactory;
 import org.ros.exception.RosException;
 import org.ros.internal.message.Message;
 import actionlib_msgs.GoalStatus;
@@ -72,17 +73,39 @@ public class DefaultSimpleActionServer<T_ACTION_FEEDBACK extends Message, T_ACTI
 
   protected boolean useBlockingGoalCallback = false;
 
+  /**
+   * Whether the blocking goal callback runs on a virtual thread, if the Java
+   * runtime supports them.
+   */
+  protected boolean useVirtualThreads = false;
+
   public DefaultSimpleActionServer(
       String nameSpace,
       ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec,
       SimpleActionServerCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks,
       boolean useBlockingGoalCallback) {
+    this(nameSpace, spec, callbacks, useBlockingGoalCallback, false);
+  }
+
+  /**
+   * @param useVirtualThreads
+   *          If <tt>true</tt>, the blocking goal callback runs on a virtual
+   *          thread when the Java runtime supports them, and on a
+   *          non-daemon platform thread, as by default, otherwise.
+   * 
+   * @see VirtualThreadFactory
+   */
+  public DefaultSimpleActionServer(
+      String nameSpace,
+      ActionSpec<?, T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> spec,
+      SimpleActionServerCallbacks<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> callbacks,
+      boolean useBlockingGoalCallback, boolean useVirtualThreads) {
 
     this.callbacks = callbacks;
+    this.useVirtualThreads = useVirtualThreads;
     this.actionServer =
       new DefaultActionServer<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>(
           nameSpace, spec, this);
-    System.out.println( "useBlockingGoalCallback: " + useBlockingGoalCallback );
     if (useBlockingGoalCallback) {
        this.useBlockingGoalCallback = true;
        startCallbackThread();
@@ -150,12 +173,10 @@ public class DefaultSimpleActionServer<T_ACTION_FEEDBACK extends Message, T_ACTI
   public boolean isActive() {
 
     if (currentGoal == null) {
-      //System.out.println( "Current goal is false, so !isActive" );
       return false;
     }
 
     short currStatus = currentGoal.getGoalStatus().getStatus();
-    //System.out.println( "currStatus: " + currStatus );
     return (currStatus == GoalStatus.ACTIVE || currStatus == GoalStatus.PREEMPTING);
 
   }
@@ -250,26 +271,27 @@ public class DefaultSimpleActionServer<T_ACTION_FEEDBACK extends Message, T_ACTI
         final DefaultSimpleActionServer<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> sas =
             this;
 
-        callbackThread = new Thread() {
+        Runnable callbackLoop = new Runnable() {
 
           @Override
           public void run() {
 
             while (actionServer != null) {
-              System.out.print(":");
-              if (killCallbackThread) {
-                killCallbackThread = false;
-                return;
-              }
 
               lock.lock();
               try {
+                if (killCallbackThread) {
+                  killCallbackThread = false;
+                  return;
+                }
+
                 if (isActive()) {
                   actionServer
                       .getNode()
                       .getLog()
                       .error(
                           "[DefaultSimpleActionServer] This code should never be reached with an active goal.");
+                  c.await();
                 } else if (isNewGoalAvailable()) {
 
                   T_GOAL goal = acceptNewGoal();
@@ -306,9 +328,10 @@ public class DefaultSimpleActionServer<T_ACTION_FEEDBACK extends Message, T_ACTI
                   }
 
                 } else {
-                  if (!killCallbackThread) {
-                    c.awaitNanos(1000000000);
-                  }
+                  // Sleep until goalCallback() signals a new goal or
+                  // stopCallbackThread() asks for termination. Both set their
+                  // flag while holding the lock, so no signal can get lost.
+                  c.await();
                 }
 
               } catch (RosException e) {
@@ -322,6 +345,13 @@ public class DefaultSimpleActionServer<T_ACTION_FEEDBACK extends Message, T_ACTI
           }
 
         };
+        // Without support for virtual threads, the callback runs on the same
+        // kind of thread as when virtual threads were not asked for.
+        if (useVirtualThreads && VirtualThreadFactory.isSupported()) {
+          callbackThread = new VirtualThreadFactory("actionlib-callback").newThread(callbackLoop);
+        } else {
+          callbackThread = new Thread(callbackLoop);
+        }
         callbackThread.start();
       } else {
         actionServer
@@ -338,10 +368,9 @@ public class DefaultSimpleActionServer<T_ACTION_FEEDBACK extends Message, T_ACTI
     synchronized (threadSync) {
       if (callbackThread != null) {
 
-        killCallbackThread = true;
-
         lock.lock();
         try {
+          killCallbackThread = true;
           c.signalAll();
         } finally {
           lock.unlock();
@@ -408,7 +437,6 @@ public class DefaultSimpleActionServer<T_ACTION_FEEDBACK extends Message, T_ACTI
 
     lock.lock();
     try {
-      System.out.println( "DSAS: goalCallback" );
       actionServer.getNode().getLog().debug("[DefaultSimpleActionServer] received a new goal");
 
       long goalTime = goal.getGoalID().getStamp().totalNsecs();
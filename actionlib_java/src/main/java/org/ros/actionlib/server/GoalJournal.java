@@ -0,0 +1,619 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import org.apache.commons.logging.Log;
+import org.ros.actionlib.util.DaemonThreadFactory;
+import org.ros.message.Time;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the goals of an action server, from which the
+ * server rebuilds its status table after a restart. The journal records when
+ * a goal is accepted into the status table and when it reaches a terminal
+ * status.
+ * 
+ * <p>
+ * Records are appended by the goal callbacks without waiting for the disk. A
+ * single writer thread collects all records appended since its last write,
+ * writes them with one sequential write and forces them to the disk with one
+ * sync (group commit). A crash may therefore lose the records of the latest
+ * commit. {@link #sync()} waits until all records appended so far are on the
+ * disk.
+ * 
+ * <p>
+ * When the journal file grows beyond its size limit and to twice its size
+ * after the previous compaction, it is replaced by a compacted file containing
+ * only the goals that are not finished yet. A server with many long-running
+ * goals thus does not rewrite all of them on every commit.
+ * 
+ * <p>
+ * File layout: a sequence of records, each consisting of the length of its
+ * payload, the CRC32 checksum of the payload and the payload itself (record
+ * type, status, goal stamp, time of the record, goal id and status text). A
+ * torn record at the end of the file, as left by a crash during a write, is
+ * discarded when the journal is opened.
+ */
+public class GoalJournal {
+
+  /**
+   * The default size of the journal file in bytes beyond which it is
+   * compacted.
+   */
+  public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+  private static final byte GOAL_ACCEPTED = 1;
+  private static final byte GOAL_FINISHED = 2;
+
+  /**
+   * The size of the length and checksum preceding each payload, and the size
+   * of a payload with an empty goal id and status text.
+   */
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final int MIN_PAYLOAD_SIZE = 26;
+  private static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final DaemonThreadFactory threadFactory = new DaemonThreadFactory("actionlib-journal");
+
+  /**
+   * The goal of an action server as recovered from its journal.
+   */
+  public static class RecoveredGoal {
+
+    private final String goalID;
+    private Time stamp;
+    private boolean finished = false;
+    private byte status;
+    private String text = "";
+    private Time time;
+
+    /**
+     * The acceptance record of an unfinished goal as read from the file.
+     */
+    private byte[] record;
+
+    private RecoveredGoal(String goalID) {
+      this.goalID = goalID;
+    }
+
+    /**
+     * @return The id of the goal
+     */
+    public String getGoalID() {
+      return goalID;
+    }
+
+    /**
+     * @return The time stamp of the goal
+     */
+    public Time getStamp() {
+      return stamp;
+    }
+
+    /**
+     * @return True if the goal reached a terminal status, false if the goal
+     *         was accepted but did not finish
+     */
+    public boolean isFinished() {
+      return finished;
+    }
+
+    /**
+     * @return The terminal status of a finished goal
+     */
+    public byte getStatus() {
+      return status;
+    }
+
+    /**
+     * @return The status text of a finished goal
+     */
+    public String getText() {
+      return text;
+    }
+
+    /**
+     * @return When the goal was accepted or, if it is finished, when it
+     *         finished
+     */
+    public Time getTime() {
+      return time;
+    }
+
+  }
+
+  /**
+   * A record which has been appended, but not written yet.
+   */
+  private static class Record {
+
+    final byte type;
+    final byte status;
+    final String goalID;
+    final int stampSecs;
+    final int stampNsecs;
+    final int timeSecs;
+    final int timeNsecs;
+    final String text;
+
+    Record(byte type, byte status, String goalID, Time stamp, Time time, String text) {
+      this.type = type;
+      this.status = status;
+      this.goalID = goalID;
+      this.stampSecs = stamp.secs;
+      this.stampNsecs = stamp.nsecs;
+      this.timeSecs = time.secs;
+      this.timeNsecs = time.nsecs;
+      this.text = text == null ? "" : text;
+    }
+
+  }
+
+  private final File file;
+  private final long maxSize;
+  private final Log log;
+  private final List<RecoveredGoal> recoveredGoals;
+
+  /**
+   * The file channel, the records of the goals which are not finished yet,
+   * as written to the file, and the size of the file after the previous
+   * compaction. Only used by the writer thread once the journal is open.
+   */
+  private FileChannel channel;
+  private final Map<String, byte[]> unfinished = new LinkedHashMap<String, byte[]>();
+  private long compactedSize = 0;
+  private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+  private final CRC32 crc = new CRC32();
+
+  /**
+   * Guards the queue of appended records and the commit counters.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition appended = lock.newCondition();
+  private final Condition committed = lock.newCondition();
+  private List<Record> queue = new ArrayList<Record>();
+  private long appendedCount = 0;
+  private long committedCount = 0;
+  private long commitCount = 0;
+  private boolean closed = false;
+  private IOException failure;
+
+  private final Thread writer;
+
+  private GoalJournal(File file, long maxSize, Log log) throws IOException {
+    this.file = file;
+    this.maxSize = maxSize;
+    this.log = log;
+    channel = new RandomAccessFile(file, "rw").getChannel();
+    try {
+      recoveredGoals = recover();
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    writer = threadFactory.newThread(new Runnable() {
+      @Override
+      public void run() {
+        writeLoop();
+      }
+    });
+    writer.start();
+  }
+
+  /**
+   * Opens a journal, creating its file if it does not exist yet. The goals
+   * recorded in an existing file are recovered, see
+   * {@link #getRecoveredGoals()}.
+   * 
+   * @param file
+   *          The journal file
+   * @param log
+   *          The log to which write errors are reported
+   * @return The journal
+   * @throws IOException
+   *           If the file cannot be opened or read
+   */
+  public static GoalJournal open(File file, Log log) throws IOException {
+    return open(file, DEFAULT_MAX_SIZE, log);
+  }
+
+  /**
+   * Opens a journal, creating its file if it does not exist yet. The goals
+   * recorded in an existing file are recovered, see
+   * {@link #getRecoveredGoals()}.
+   * 
+   * @param file
+   *          The journal file
+   * @param maxSize
+   *          The size of the file in bytes beyond which it is compacted, if it
+   *          also doubled since the previous compaction
+   * @param log
+   *          The log to which write errors are reported
+   * @return The journal
+   * @throws IOException
+   *           If the file cannot be opened or read
+   */
+  public static GoalJournal open(File file, long maxSize, Log log) throws IOException {
+    return new GoalJournal(file, maxSize, log);
+  }
+
+  /**
+   * Gets the goals recorded in the journal file when it was opened, in the
+   * order in which they were accepted. Goals whose acceptance record was lost
+   * in a compaction are ordered by the time they finished.
+   * 
+   * @return The recovered goals
+   */
+  public List<RecoveredGoal> getRecoveredGoals() {
+    return recoveredGoals;
+  }
+
+  /**
+   * Records that a goal was accepted into the status table of the server.
+   * 
+   * @param goalID
+   *          The id of the goal
+   * @param stamp
+   *          The time stamp of the goal
+   * @param time
+   *          The current time
+   */
+  public void goalAccepted(String goalID, Time stamp, Time time) {
+    append(new Record(GOAL_ACCEPTED, (byte) 0, goalID, stamp, time, null));
+  }
+
+  /**
+   * Records that a goal reached a terminal status.
+   * 
+   * @param goalID
+   *          The id of the goal
+   * @param stamp
+   *          The time stamp of the goal
+   * @param status
+   *          The terminal status
+   * @param text
+   *          The status text
+   * @param time
+   *          The current time
+   */
+  public void goalFinished(String goalID, Time stamp, byte status, String text, Time time) {
+    append(new Record(GOAL_FINISHED, status, goalID, stamp, time, text));
+  }
+
+  /**
+   * Waits until all records appended so far have been written and forced to
+   * the disk.
+   * 
+   * @throws IOException
+   *           If writing the journal failed
+   * @throws InterruptedException
+   *           If the thread was interrupted while waiting
+   */
+  public void sync() throws IOException, InterruptedException {
+    lock.lock();
+    try {
+      long target = appendedCount;
+      while (committedCount < target && failure == null && !closed) {
+        committed.await();
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of group commits written so far
+   */
+  public long getCommitCount() {
+    lock.lock();
+    try {
+      return commitCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes all records appended so far and closes the journal. Records
+   * appended afterwards are discarded.
+   */
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      appended.signal();
+    } finally {
+      lock.unlock();
+    }
+    boolean interrupted = false;
+    while (writer.isAlive()) {
+      try {
+        writer.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void append(Record record) {
+    lock.lock();
+    try {
+      if (closed || failure != null) {
+        return;
+      }
+      queue.add(record);
+      appendedCount++;
+      if (queue.size() == 1) {
+        appended.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void writeLoop() {
+    List<Record> batch = new ArrayList<Record>();
+    try {
+      while (true) {
+        long batchEnd;
+        lock.lock();
+        try {
+          while (queue.isEmpty() && !closed) {
+            appended.awaitUninterruptibly();
+          }
+          if (queue.isEmpty()) {
+            break;
+          }
+          List<Record> records = queue;
+          queue = batch;
+          batch = records;
+          batchEnd = appendedCount;
+        } finally {
+          lock.unlock();
+        }
+
+        for (Record record : batch) {
+          byte[] bytes = encode(record);
+          if (record.type == GOAL_ACCEPTED) {
+            unfinished.put(record.goalID, bytes);
+          } else {
+            unfinished.remove(record.goalID);
+          }
+          bufferedWrite(channel, bytes);
+        }
+        batch.clear();
+        flush(channel);
+        channel.force(false);
+
+        if (channel.position() > Math.max(maxSize, 2 * compactedSize)) {
+          compact();
+        }
+
+        lock.lock();
+        try {
+          committedCount = batchEnd;
+          commitCount++;
+          committed.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    } catch (IOException e) {
+      log.error("[GoalJournal] Writing the journal " + file + " failed. No further goals are journaled.", e);
+      lock.lock();
+      try {
+        failure = e;
+        queue.clear();
+        committed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    } finally {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        log.warn("[GoalJournal] Closing the journal " + file + " failed.", e);
+      }
+      lock.lock();
+      try {
+        committed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Replaces the journal file by a file containing only the acceptance
+   * records of the unfinished goals.
+   */
+  private void compact() throws IOException {
+    File compacted = new File(file.getPath() + ".compact");
+    FileChannel out = new RandomAccessFile(compacted, "rw").getChannel();
+    try {
+      out.truncate(0);
+      for (byte[] bytes : unfinished.values()) {
+        bufferedWrite(out, bytes);
+      }
+      flush(out);
+      out.force(false);
+    } finally {
+      out.close();
+    }
+    channel.close();
+    if (!compacted.renameTo(file)) {
+      throw new IOException("Cannot replace " + file + " by its compacted journal " + compacted);
+    }
+    channel = new RandomAccessFile(file, "rw").getChannel();
+    compactedSize = channel.size();
+    channel.position(compactedSize);
+  }
+
+  private byte[] encode(Record record) {
+    byte[] id = record.goalID.getBytes(UTF8);
+    byte[] text = record.text.getBytes(UTF8);
+    int payloadSize = MIN_PAYLOAD_SIZE + id.length + text.length;
+    ByteBuffer bb = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadSize);
+    bb.putInt(payloadSize);
+    bb.putInt(0);
+    bb.put(record.type);
+    bb.put(record.status);
+    bb.putInt(record.stampSecs);
+    bb.putInt(record.stampNsecs);
+    bb.putInt(record.timeSecs);
+    bb.putInt(record.timeNsecs);
+    bb.putInt(id.length);
+    bb.put(id);
+    bb.putInt(text.length);
+    bb.put(text);
+    crc.reset();
+    crc.update(bb.array(), RECORD_HEADER_SIZE, payloadSize);
+    bb.putInt(4, (int) crc.getValue());
+    return bb.array();
+  }
+
+  /**
+   * Reads all records of the journal file and truncates a torn record at its
+   * end.
+   */
+  private List<RecoveredGoal> recover() throws IOException {
+    long size = channel.size();
+    if (size == 0) {
+      return Collections.emptyList();
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("The journal " + file + " is too large: " + size + " bytes");
+    }
+    ByteBuffer bb = ByteBuffer.allocate((int) size);
+    while (bb.hasRemaining()) {
+      if (channel.read(bb) < 0) {
+        break;
+      }
+    }
+    bb.flip();
+    byte[] bytes = bb.array();
+
+    Map<String, RecoveredGoal> goals = new LinkedHashMap<String, RecoveredGoal>();
+    int valid = 0;
+    while (bb.remaining() >= RECORD_HEADER_SIZE) {
+      int start = bb.position();
+      int payloadSize = bb.getInt();
+      int checksum = bb.getInt();
+      if (payloadSize < MIN_PAYLOAD_SIZE || payloadSize > MAX_PAYLOAD_SIZE || payloadSize > bb.remaining()) {
+        break;
+      }
+      int end = bb.position() + payloadSize;
+      crc.reset();
+      crc.update(bytes, bb.position(), payloadSize);
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+      byte type = bb.get();
+      byte status = bb.get();
+      Time stamp = new Time(bb.getInt(), bb.getInt());
+      Time time = new Time(bb.getInt(), bb.getInt());
+      int idLength = bb.getInt();
+      if (idLength < 0 || idLength > end - bb.position() - 4) {
+        break;
+      }
+      String id = new String(bytes, bb.position(), idLength, UTF8);
+      bb.position(bb.position() + idLength);
+      int textLength = bb.getInt();
+      if (textLength != end - bb.position()) {
+        break;
+      }
+      String text = new String(bytes, bb.position(), textLength, UTF8);
+      bb.position(end);
+      valid = end;
+
+      RecoveredGoal goal = goals.get(id);
+      if (goal == null) {
+        goal = new RecoveredGoal(id);
+        goals.put(id, goal);
+      }
+      goal.stamp = stamp;
+      goal.time = time;
+      goal.finished = type == GOAL_FINISHED;
+      goal.status = status;
+      goal.text = text;
+      goal.record = goal.finished ? null : Arrays.copyOfRange(bytes, start, end);
+    }
+
+    if (valid < size) {
+      log.warn("[GoalJournal] Discarding " + (size - valid) + " bytes of incomplete records at the end of "
+          + file);
+      channel.truncate(valid);
+    }
+    channel.position(valid);
+
+    List<RecoveredGoal> recovered = new ArrayList<RecoveredGoal>(goals.size());
+    for (RecoveredGoal goal : goals.values()) {
+      recovered.add(goal);
+      if (!goal.finished) {
+        unfinished.put(goal.goalID, goal.record);
+        goal.record = null;
+      }
+    }
+    return Collections.unmodifiableList(recovered);
+  }
+
+  /**
+   * Adds a record to the write buffer, writing the buffer to the channel
+   * first if the record does not fit.
+   */
+  private void bufferedWrite(FileChannel out, byte[] bytes) throws IOException {
+    if (buffer.remaining() < bytes.length) {
+      flush(out);
+      if (buffer.capacity() < bytes.length) {
+        buffer = ByteBuffer.allocate(bytes.length);
+      }
+    }
+    buffer.put(bytes);
+  }
+
+  private void flush(FileChannel out) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    buffer.clear();
+  }
+
+}
@@ -16,20 +16,24 @@
 
 package org.ros.actionlib.server;
 
+import org.ros.actionlib.metrics.Metric;
+import org.ros.actionlib.recorder.FlightRecorder;
 import org.ros.exception.RosException;
 import org.ros.internal.message.Message;
 import actionlib_msgs.GoalID;
 import actionlib_msgs.GoalStatus;
 
+import java.util.concurrent.TimeUnit;
+
 /**
- * A goal on the server.
+ * A goal on the server. State transitions and feedback of a goal are guarded
+ * by the lock of its own {@link StatusTracker}.
  */
 public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message> {
 
   protected T_ACTION_GOAL actionGoal;
   protected DefaultActionServer<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> actionServer;
   protected StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> statusTracker;
-  private static Object statusSync = new Object();
 
   protected ServerGoalHandle(
       StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> statusTracker,
@@ -65,21 +69,24 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
                 + getGoalID().getId() + ", stamp: " + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
 
     boolean ok = false;
-    synchronized (statusSync) {
+    statusTracker.lock.lock();
+    try {
       GoalStatus goalStatus = statusTracker.goalStatus;
       short status = goalStatus.getStatus();
       switch (status) {
       case GoalStatus.PENDING:
-        goalStatus.setStatus( GoalStatus.RECALLING );
-        actionServer.publishStatus();
+        setStatus(goalStatus, GoalStatus.RECALLING);
+        actionServer.markStatusDirty();
         ok = true;
         break;
       case GoalStatus.ACTIVE:
-        goalStatus.setStatus( GoalStatus.PREEMPTING );
-        actionServer.publishStatus();
+        setStatus(goalStatus, GoalStatus.PREEMPTING);
+        actionServer.markStatusDirty();
         ok = true;
         break;
       }
+    } finally {
+      statusTracker.lock.unlock();
     }
     return ok;
 
@@ -103,19 +110,20 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
             "[ServerGoalHandle] Accepting goal, id: " + getGoalID().getId() + ", stamp: "
                 + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
 
-    synchronized (statusSync) {
+    statusTracker.lock.lock();
+    try {
       GoalStatus goalStatus = statusTracker.goalStatus;
       short status = goalStatus.getStatus();
       switch (status) {
       case GoalStatus.PENDING:
-        goalStatus.setStatus(GoalStatus.ACTIVE);
+        setStatus(goalStatus, GoalStatus.ACTIVE);
         goalStatus.setText(text);
-        actionServer.publishStatus();
+        actionServer.markStatusDirty();
         break;
       case GoalStatus.RECALLING:
-        goalStatus.setStatus(GoalStatus.PREEMPTING);
+        setStatus(goalStatus, GoalStatus.PREEMPTING);
         goalStatus.setText(text);
-        actionServer.publishStatus();
+        actionServer.markStatusDirty();
         break;
       default:
         actionServer
@@ -128,6 +136,8 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
                     + "it is currently in state '" + goalStatus.getStatus() + "'");
         break;
       }
+    } finally {
+      statusTracker.lock.unlock();
     }
 
   }
@@ -150,20 +160,23 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
             "[ServerGoalHandle] Setting canceled status on goal, id: " + getGoalID().getId()
                 + ", stamp: " + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
 
-    synchronized (statusSync) {
+    statusTracker.lock.lock();
+    try {
       GoalStatus goalStatus = statusTracker.goalStatus;
       short status = goalStatus.getStatus();
       switch (status) {
       case GoalStatus.PENDING:
       case GoalStatus.RECALLING:
-        goalStatus.setStatus(GoalStatus.RECALLED);
+        setStatus(goalStatus, GoalStatus.RECALLED);
         goalStatus.setText(text);
+        flushFeedback();
         actionServer.publishResult(goalStatus, result);
         break;
       case GoalStatus.ACTIVE:
       case GoalStatus.PREEMPTING:
-        goalStatus.setStatus(GoalStatus.PREEMPTED);
+        setStatus(goalStatus, GoalStatus.PREEMPTED);
         goalStatus.setText(text);
+        flushFeedback();
         actionServer.publishResult(goalStatus, result);
         break;
       default:
@@ -178,6 +191,8 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
                     + "' (RECALLING). It is currently in state '" + goalStatus.getStatus() + "'");
         break;
       }
+    } finally {
+      statusTracker.lock.unlock();
     }
 
   }
@@ -200,14 +215,16 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
             "[ServerGoalHandle] Setting status to 'REJECTED' on goal, id: " + getGoalID().getId()
                 + ", stamp: " + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
 
-    synchronized (statusSync) {
+    statusTracker.lock.lock();
+    try {
       GoalStatus goalStatus = statusTracker.goalStatus;
       short status = goalStatus.getStatus();
       switch (status) {
       case GoalStatus.PENDING:
       case GoalStatus.RECALLING:
-        goalStatus.setStatus(GoalStatus.REJECTED);
+        setStatus(goalStatus, GoalStatus.REJECTED);
         goalStatus.setText(text);
+        flushFeedback();
         actionServer.publishResult(goalStatus, result);
         break;
       default:
@@ -221,6 +238,8 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
                     + "It is currently in state '" + goalStatus.getStatus() + "'");
         break;
       }
+    } finally {
+      statusTracker.lock.unlock();
     }
 
   }
@@ -243,14 +262,16 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
             "[ServerGoalHandle] Setting status to 'ABORTED' on goal, id: " + getGoalID().getId()
                 + ", stamp: " + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
 
-    synchronized (statusSync) {
+    statusTracker.lock.lock();
+    try {
       GoalStatus goalStatus = statusTracker.goalStatus;
       short status = goalStatus.getStatus();
       switch (status) {
       case GoalStatus.ACTIVE:
       case GoalStatus.PREEMPTING:
-        goalStatus.setStatus(GoalStatus.ABORTED);
+        setStatus(goalStatus, GoalStatus.ABORTED);
         goalStatus.setText(text);
+        flushFeedback();
         actionServer.publishResult(goalStatus, result);
         break;
       default:
@@ -264,6 +285,8 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
                     + "It is currently in state '" + goalStatus.getStatus() + "'");
         break;
       }
+    } finally {
+      statusTracker.lock.unlock();
     }
 
   }
@@ -286,14 +309,16 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
             "[ServerGoalHandle] Setting status to 'SUCCEEDED' on goal, id: " + getGoalID().getId()
                 + ", stamp: " + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
 
-    synchronized (statusSync) {
+    statusTracker.lock.lock();
+    try {
       GoalStatus goalStatus = statusTracker.goalStatus;
       short status = goalStatus.getStatus();
       switch (status) {
       case GoalStatus.ACTIVE:
       case GoalStatus.PREEMPTING:
-        goalStatus.setStatus(GoalStatus.SUCCEEDED);
+        setStatus(goalStatus, GoalStatus.SUCCEEDED);
         goalStatus.setText(text);
+        flushFeedback();
         actionServer.publishResult(goalStatus, result);
         break;
       default:
@@ -307,6 +332,8 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
                     + "It is currently in state '" + goalStatus.getStatus() + "'");
         break;
       }
+    } finally {
+      statusTracker.lock.unlock();
     }
 
   }
@@ -318,6 +345,15 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
     statusTracker.destructionTime = actionServer.getNode().getCurrentTime();
   }
 
+  /**
+   * Publish feedback for the goal. If the server limits the feedback rate and
+   * feedback for the goal has been published within the current feedback
+   * period, only the newest feedback is kept and published when the period
+   * ends. Pending feedback is always published before the result of the goal.
+   * 
+   * @param feedback
+   *          The feedback on the goal.
+   */
   public void publishFeedback(T_FEEDBACK feedback) {
 
     if (actionServer == null || actionGoal == null) {
@@ -329,17 +365,88 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
       return;
     }
 
-    actionServer
-        .getNode()
-        .getLog()
-        .debug(
-            "[ServerGoalHandle] Publishing feedback for goal, id: " + getGoalID().getId() + ", stamp: "
-                + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
+    if (actionServer.getNode().getLog().isDebugEnabled()) {
+      actionServer
+          .getNode()
+          .getLog()
+          .debug(
+              "[ServerGoalHandle] Publishing feedback for goal, id: " + getGoalID().getId()
+                  + ", stamp: " + (getGoalID().getStamp().totalNsecs() / 1000000) + "ms");
+    }
+
+    statusTracker.lock.lock();
+    try {
+      long period = actionServer.feedbackPeriodNanos;
+      if (period <= 0) {
+        actionServer.publishFeedback(statusTracker.goalStatus, feedback);
+        return;
+      }
 
-    synchronized (statusSync) {
+      long now = System.nanoTime();
+      long delay = statusTracker.lastFeedbackNanos + period - now;
+      if (statusTracker.feedbackFlushScheduled
+          || (statusTracker.feedbackPublished && delay > 0)) {
+        statusTracker.pendingFeedback = feedback;
+        if (!statusTracker.feedbackFlushScheduled) {
+          statusTracker.feedbackFlushScheduled = true;
+          StatusScheduler.getExecutor().schedule(new Runnable() {
+            @Override
+            public void run() {
+              statusTracker.lock.lock();
+              try {
+                statusTracker.feedbackFlushScheduled = false;
+                flushFeedback();
+              } finally {
+                statusTracker.lock.unlock();
+              }
+            }
+          }, delay, TimeUnit.NANOSECONDS);
+        }
+      } else {
+        statusTracker.pendingFeedback = null;
+        actionServer.publishFeedback(statusTracker.goalStatus, feedback);
+        statusTracker.feedbackPublished = true;
+        statusTracker.lastFeedbackNanos = now;
+      }
+    } finally {
+      statusTracker.lock.unlock();
+    }
+
+  }
+
+  /**
+   * Publish the pending feedback of the goal, if any. Must be called while
+   * holding the lock of the goal's StatusTracker.
+   */
+  private void flushFeedback() {
+    T_FEEDBACK feedback = statusTracker.pendingFeedback;
+    if (feedback != null) {
+      statusTracker.pendingFeedback = null;
       actionServer.publishFeedback(statusTracker.goalStatus, feedback);
+      statusTracker.feedbackPublished = true;
+      statusTracker.lastFeedbackNanos = System.nanoTime();
     }
+  }
 
+  /**
+   * Sets the status of the goal, records the time the goal spent in its
+   * previous status and records the transition in the {@link FlightRecorder}.
+   * Must be called while holding the lock of the goal's StatusTracker.
+   * 
+   * @param goalStatus
+   *          The GoalStatus of the goal
+   * @param status
+   *          The new status
+   */
+  private void setStatus(GoalStatus goalStatus, byte status) {
+    long now = System.nanoTime();
+    Metric metric = Metric.timeInStatus(goalStatus.getStatus());
+    if (metric != null) {
+      actionServer.metrics.record(metric, now - statusTracker.statusEnteredNanos);
+    }
+    statusTracker.statusEnteredNanos = now;
+    goalStatus.setStatus(status);
+    FlightRecorder.get().record(FlightRecorder.SERVER_TRANSITION, goalStatus.getGoalId().getId(), status);
   }
 
   /**
@@ -362,8 +469,11 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
 
     GoalID goalId;
     if (actionServer != null && actionGoal != null) {
-      synchronized (statusSync) {
+      statusTracker.lock.lock();
+      try {
         goalId = statusTracker.goalStatus.getGoalId();
+      } finally {
+        statusTracker.lock.unlock();
       }
     } else {
       actionServer.getNode().getLog()
@@ -378,8 +488,11 @@ public class ServerGoalHandle<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL e
 
     GoalStatus goalStatus;
     if (actionServer != null && actionGoal != null) {
-      synchronized (statusSync) {
+      statusTracker.lock.lock();
+      try {
         goalStatus = statusTracker.goalStatus;
+      } finally {
+        statusTracker.lock.unlock();
       }
     } else {
       actionServer
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import org.ros.actionlib.util.DaemonThreadFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules the status publications of a {@link DefaultActionServer}. The
+ * StatusSchedulers of all action servers in the JVM share a single scheduler
+ * thread.
+ * 
+ * <p>
+ * While the server tracks goals that are not finished yet, its status is
+ * published with the active period. Otherwise the status is only republished
+ * with the longer idle period as a heartbeat.
+ * 
+ * <p>
+ * A change of the server's status is announced using {@link #markDirty()}.
+ * Changes are coalesced: the status is published as soon as possible, but at
+ * most once per coalescing window, so that a burst of goal transitions leads
+ * to a single publication containing all of them. Every publication is a
+ * snapshot of the server's goals taken when it runs, and publications never
+ * overlap, so a change that has been marked dirty is always part of the next
+ * publication and the status of a goal never goes back in time.
+ */
+public class StatusScheduler implements Runnable {
+
+  /**
+   * The scheduler thread shared by all action servers.
+   */
+  private static final ScheduledExecutorService executor = Executors
+      .newSingleThreadScheduledExecutor(new DaemonThreadFactory("actionlib-server"));
+
+  private final DefaultActionServer<?, ?, ?, ?, ?, ?> actionServer;
+  private final long activePeriodNanos;
+  private final long idlePeriodNanos;
+  private final long coalescingWindowNanos;
+
+  /**
+   * Guards the scheduling state. {@link #markDirty()} is called by goal
+   * callbacks, which may run on virtual threads, so no monitor is used.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * The next scheduled publication, if any. Guarded by {@link #lock}.
+   */
+  private ScheduledFuture<?> nextPublication;
+
+  /**
+   * The start of the latest publication in nanoseconds as given by
+   * {@link System#nanoTime()}. Guarded by {@link #lock}.
+   */
+  private long lastPublicationNanos;
+  private boolean stopped = false;
+
+  /**
+   * @param actionServer
+   *          The server whose status is published.
+   * @param activePeriodNanos
+   *          The publication period while the server tracks unfinished goals.
+   * @param idlePeriodNanos
+   *          The publication period while the server is idle.
+   * @param coalescingWindowNanos
+   *          The minimum time between the start of two publications caused by
+   *          status changes. Zero publishes every change right away.
+   */
+  public StatusScheduler(DefaultActionServer<?, ?, ?, ?, ?, ?> actionServer,
+      long activePeriodNanos, long idlePeriodNanos, long coalescingWindowNanos) {
+    this.actionServer = actionServer;
+    this.activePeriodNanos = activePeriodNanos;
+    this.idlePeriodNanos = Math.max(activePeriodNanos, idlePeriodNanos);
+    this.coalescingWindowNanos = Math.max(0, coalescingWindowNanos);
+    this.lastPublicationNanos = System.nanoTime() - this.coalescingWindowNanos;
+  }
+
+  /**
+   * Gets the scheduler thread shared by all action servers. Tasks run on it
+   * must not block.
+   * 
+   * @return The shared executor
+   */
+  static ScheduledExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Start the periodic status publications.
+   */
+  public void start() {
+    lock.lock();
+    try {
+      if (!stopped && nextPublication == null) {
+        nextPublication = executor.schedule(this, 0, TimeUnit.NANOSECONDS);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stop all further status publications.
+   */
+  public void stop() {
+    lock.lock();
+    try {
+      stopped = true;
+      if (nextPublication != null) {
+        nextPublication.cancel(false);
+        nextPublication = null;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Mark the status of the server as changed. The status is published as soon
+   * as the coalescing window since the start of the latest publication has
+   * passed, instead of waiting for the next periodic publication.
+   */
+  public void markDirty() {
+    lock.lock();
+    try {
+      if (stopped) {
+        return;
+      }
+      long delay = Math.max(0, lastPublicationNanos + coalescingWindowNanos - System.nanoTime());
+      if (nextPublication != null) {
+        if (nextPublication.getDelay(TimeUnit.NANOSECONDS) <= delay) {
+          // The pending publication will include the change.
+          return;
+        }
+        nextPublication.cancel(false);
+      }
+      nextPublication = executor.schedule(this, delay, TimeUnit.NANOSECONDS);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void run() {
+    lock.lock();
+    try {
+      if (stopped) {
+        return;
+      }
+      nextPublication = null;
+      lastPublicationNanos = System.nanoTime();
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      actionServer.publishStatus();
+    } catch (RuntimeException e) {
+      actionServer.getNode().getLog().error("[StatusScheduler] Exception while publishing status", e);
+    }
+
+    lock.lock();
+    try {
+      // markDirty() may have been called during the publication.
+      if (!stopped && nextPublication == null) {
+        long period = actionServer.hasUnfinishedGoals() ? activePeriodNanos : idlePeriodNanos;
+        nextPublication = executor.schedule(this, period, TimeUnit.NANOSECONDS);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+}
@@ -18,16 +18,16 @@ package org.ros.actionlib.server;
 
 import org.ros.actionlib.ActionSpec;
 import org.ros.actionlib.util.GoalIDGenerator;
+import org.ros.actionlib.util.SharedMessageFactory;
 import org.ros.exception.RosException;
 import org.ros.internal.message.Message;
 
-import org.ros.node.NodeConfiguration;
-import org.ros.message.MessageFactory;
-
 import org.ros.message.Time;
 import actionlib_msgs.GoalID;
 import actionlib_msgs.GoalStatus;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Track the status of a goal.
  */
@@ -39,15 +39,45 @@ public class StatusTracker<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exte
   public Time destructionTime;
   public ServerGoalHandle<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> goalHandle;
 
+  /**
+   * Guards the state transitions of the tracked goal. Every goal has its own
+   * lock, so that goals of the same or different servers never wait for each
+   * other.
+   */
+  final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * The newest feedback that has not been published yet, because the feedback
+   * rate limit of the server was reached. Guarded by {@link #lock}.
+   */
+  T_FEEDBACK pendingFeedback;
+
+  /**
+   * Whether feedback has been published for the goal and when, as given by
+   * {@link System#nanoTime()}. Guarded by {@link #lock}.
+   */
+  boolean feedbackPublished = false;
+  long lastFeedbackNanos;
+
+  /**
+   * Whether the publication of the pending feedback is scheduled. Guarded by
+   * {@link #lock}.
+   */
+  boolean feedbackFlushScheduled = false;
+
+  /**
+   * When the goal entered its current status, as given by
+   * {@link System#nanoTime()}. Guarded by {@link #lock}.
+   */
+  long statusEnteredNanos = System.nanoTime();
+
   public StatusTracker(
       DefaultActionServer<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> server,
       GoalID goalID, byte status) {
     this.server = server;
     actionGoal = null;
     goalHandle = null;
-    NodeConfiguration nodeConfiguration = NodeConfiguration.newPrivate();
-    MessageFactory messageFactory = nodeConfiguration.getTopicMessageFactory();
-    goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+    goalStatus = SharedMessageFactory.get().newFromType(GoalStatus._TYPE);
     goalStatus.setGoalId(goalID);
     goalStatus.setStatus(status);
     destructionTime = new Time(0, 0);
@@ -57,10 +87,8 @@ public class StatusTracker<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL exte
   public StatusTracker(T_ACTION_GOAL actionGoal, ActionSpec<?, ?, T_ACTION_GOAL, ?, ?, ?, ?> spec,
       GoalIDGenerator idGen) throws RosException {
     this.actionGoal = actionGoal;
-    NodeConfiguration nodeConfiguration = NodeConfiguration.newPrivate();
-    MessageFactory messageFactory = nodeConfiguration.getTopicMessageFactory();
     goalHandle = null;
-    goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+    goalStatus = SharedMessageFactory.get().newFromType(GoalStatus._TYPE);
     goalStatus.setGoalId(spec.getGoalIDFromActionGoal(actionGoal));
     goalStatus.setStatus(GoalStatus.PENDING);
     destructionTime = new Time(0, 0);
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import org.ros.internal.message.Message;
+import org.ros.message.Time;
+import actionlib_msgs.GoalStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The StatusTrackers of an action server, indexed by the id of their goal.
+ * Iteration follows the order in which the trackers were added.
+ * 
+ * <p>
+ * The trackers of received goals are additionally indexed by the time stamp
+ * of their goal, so that the goals stamped before a given time can be found
+ * without visiting all other trackers. Trackers which only record a cancel
+ * request for a goal that has not been received yet are not part of the time
+ * index.
+ * 
+ * <p>
+ * The table also maintains the list of the trackers' GoalStatus messages
+ * which is published as the status of the action server, see
+ * {@link #getStatusList()}.
+ * 
+ * <p>
+ * A StatusTrackerTable is not thread-safe. The action server guards it with
+ * its lock.
+ */
+public class StatusTrackerTable<T_ACTION_FEEDBACK extends Message, T_ACTION_GOAL extends Message, T_ACTION_RESULT extends Message, T_FEEDBACK extends Message, T_GOAL extends Message, T_RESULT extends Message>
+    implements
+    Iterable<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> {
+
+  private final Map<String, StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> trackersByID =
+      new LinkedHashMap<String, StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>(
+          64);
+
+  /**
+   * The trackers of received goals by the time stamp of their goal in
+   * nanoseconds. Goals may share a time stamp.
+   */
+  private final TreeMap<Long, List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>> trackersByStamp =
+      new TreeMap<Long, List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>>();
+
+  /**
+   * The GoalStatus messages of all trackers in the order the trackers were
+   * added. New trackers are appended. Removed trackers are dropped from the
+   * list in a single pass the next time the list is needed.
+   */
+  private final ArrayList<GoalStatus> statusList = new ArrayList<GoalStatus>(64);
+  private boolean statusListHasRemovals = false;
+
+  /**
+   * An immutable copy of {@link #statusList}, or null if the list has changed
+   * since the copy was taken.
+   */
+  private List<GoalStatus> statusListSnapshot = Collections.emptyList();
+
+  /**
+   * Get the tracker of the goal with the given id.
+   * 
+   * @param goalID
+   *          The id of the goal.
+   * @return The tracker, or null if there is none.
+   */
+  public StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>
+      get(String goalID) {
+    return trackersByID.get(goalID);
+  }
+
+  /**
+   * Add a tracker. A tracker with the same goal id is replaced.
+   * 
+   * @param tracker
+   *          The tracker to add.
+   */
+  public void add(
+      StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> tracker) {
+    StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> replaced =
+        trackersByID.put(tracker.goalStatus.getGoalId().getId(), tracker);
+    if (replaced != null) {
+      removeFromStampIndex(replaced);
+      statusListHasRemovals = true;
+    }
+    statusList.add(tracker.goalStatus);
+    statusListSnapshot = null;
+    if (!tracker.isCancelRequestTracker()) {
+      Long stamp = stampOf(tracker);
+      List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> trackers =
+          trackersByStamp.get(stamp);
+      if (trackers == null) {
+        trackers =
+            new ArrayList<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>(
+                1);
+        trackersByStamp.put(stamp, trackers);
+      }
+      trackers.add(tracker);
+    }
+  }
+
+  /**
+   * Add the trackers of all received goals whose time stamp lies before the
+   * given time to a collection, in the order of their time stamps.
+   * 
+   * @param stamp
+   *          The time before which the goals were stamped.
+   * @param c
+   *          The collection the trackers are added to.
+   */
+  public void collectStampedBefore(Time stamp,
+      Collection<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> c) {
+    for (List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> trackers : trackersByStamp
+        .headMap(stamp.totalNsecs(), false).values()) {
+      c.addAll(trackers);
+    }
+  }
+
+  /**
+   * Get the GoalStatus messages of all trackers in the order the trackers were
+   * added. The returned list is immutable and stays unchanged when trackers
+   * are added or removed later, so it can be handed to a publisher which
+   * serializes it asynchronously. As long as no tracker is added or removed,
+   * the same list is returned again without any copying.
+   * 
+   * @return The GoalStatus messages.
+   */
+  public List<GoalStatus> getStatusList() {
+    if (statusListSnapshot == null) {
+      if (statusListHasRemovals) {
+        statusList.clear();
+        for (StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> tracker : trackersByID
+            .values()) {
+          statusList.add(tracker.goalStatus);
+        }
+        statusListHasRemovals = false;
+      }
+      statusListSnapshot =
+          Collections.unmodifiableList(Arrays.asList(statusList.toArray(new GoalStatus[statusList.size()])));
+    }
+    return statusListSnapshot;
+  }
+
+  /**
+   * @return The number of trackers.
+   */
+  public int size() {
+    return trackersByID.size();
+  }
+
+  /**
+   * Iterate over all trackers in the order they were added. Removing a tracker
+   * through the iterator removes it from all indices.
+   */
+  @Override
+  public Iterator<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>
+      iterator() {
+    final Iterator<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> it =
+        trackersByID.values().iterator();
+    return new Iterator<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>>() {
+
+      private StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> current;
+
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> next() {
+        current = it.next();
+        return current;
+      }
+
+      @Override
+      public void remove() {
+        it.remove();
+        removeFromStampIndex(current);
+        statusListHasRemovals = true;
+        statusListSnapshot = null;
+        current = null;
+      }
+    };
+  }
+
+  private void removeFromStampIndex(
+      StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT> tracker) {
+    if (tracker.isCancelRequestTracker()) {
+      return;
+    }
+    Long stamp = stampOf(tracker);
+    List<StatusTracker<T_ACTION_FEEDBACK, T_ACTION_GOAL, T_ACTION_RESULT, T_FEEDBACK, T_GOAL, T_RESULT>> trackers =
+        trackersByStamp.get(stamp);
+    if (trackers != null) {
+      for (int i = 0; i < trackers.size(); i++) {
+        if (trackers.get(i) == tracker) {
+          trackers.remove(i);
+          break;
+        }
+      }
+      if (trackers.isEmpty()) {
+        trackersByStamp.remove(stamp);
+      }
+    }
+  }
+
+  private static Long stampOf(StatusTracker<?, ?, ?, ?, ?, ?> tracker) {
+    return Long.valueOf(tracker.goalStatus.getGoalId().getStamp().totalNsecs());
+  }
+
+}
@@ -19,8 +19,7 @@ package org.ros.actionlib.state;
 /**
  * 
  * A CommState represents a CommStateMachine's state. It defines an enumeration
- * of possible states and stores one of them as the current state. The states
- * are:
+ * of possible states and wraps one of them. The states are:
  * <ul>
  * <li>WAITING_FOR_GOAL_ACK</li>
  * <li>PENDING</li>
@@ -31,16 +30,20 @@ package org.ros.actionlib.state;
  * <li>WAITING_FOR_RESULT</li>
  * <li>DONE</li>
  * </ul>
+ * <p>
+ * CommStates are immutable and there is a single instance per state, which is
+ * obtained using {@link #valueOf(StateEnum)}. They can be shared between
+ * threads and retrieving one never allocates.
  * 
  * @author Alexander C. Perzylo, perzylo@cs.tum.edu
  * 
  */
-public class CommState {
+public final class CommState {
 
   /**
-   * Current comm state
+   * The state
    */
-  private StateEnum state;
+  private final StateEnum state;
 
   /**
    * Enumeration of possible states
@@ -51,32 +54,40 @@ public class CommState {
   }
 
   /**
-   * Simple constructor.
-   * 
-   * @param initialState
-   *          The initial state
+   * The instances of all states, indexed by the ordinal of their state
    */
-  public CommState(StateEnum initialState) {
-    this.state = initialState;
+  private static final CommState[] INSTANCES;
+
+  static {
+    StateEnum[] states = StateEnum.values();
+    INSTANCES = new CommState[states.length];
+    for (StateEnum state : states) {
+      INSTANCES[state.ordinal()] = new CommState(state);
+    }
+  }
+
+  private CommState(StateEnum state) {
+    this.state = state;
   }
 
   /**
-   * Gets current state.
+   * Gets the CommState of a state.
    * 
-   * @return The current state
+   * @param state
+   *          The state
+   * @return The shared instance of the state
    */
-  public StateEnum getState() {
-    return this.state;
+  public static CommState valueOf(StateEnum state) {
+    return INSTANCES[state.ordinal()];
   }
 
   /**
-   * Sets current state.
+   * Gets the state.
    * 
-   * @param state
-   *          A new state
+   * @return The state
    */
-  public void setState(StateEnum state) {
-    this.state = state;
+  public StateEnum getState() {
+    return this.state;
   }
 
   @Override
@@ -93,6 +104,11 @@ public class CommState {
 
   }
 
+  @Override
+  public int hashCode() {
+    return state.hashCode();
+  }
+
   @Override
   public String toString() {
     return this.state.toString();
@@ -19,8 +19,8 @@ package org.ros.actionlib.state;
 /**
  * 
  * A SimpleClientGoalState represents a SimpleActionClient's goal state. It
- * defines an enumeration of possible states and stores one of them as the
- * current state. The states are:
+ * defines an enumeration of possible states and wraps one of them. The states
+ * are:
  * <ul>
  * <li>PENDING</li>
  * <li>ACTIVE</li>
@@ -33,21 +33,22 @@ package org.ros.actionlib.state;
  * </ul>
  * A simplified representation of the goal state is available through the
  * SimpleGoalState class, which reduces the number of possible states.
+ * <p>
+ * SimpleClientGoalStates are immutable and there is a single instance per
+ * state, which is obtained using {@link #valueOf(StateEnum)}. The status text
+ * sent by the action server along with a final state is available from the
+ * client, see
+ * {@link org.ros.actionlib.client.SimpleActionClient#getStateText()}.
  * 
  * @author Alexander C. Perzylo, perzylo@cs.tum.edu
  * 
  */
-public class SimpleClientGoalState {
+public final class SimpleClientGoalState {
 
   /**
-   * Current goal state
+   * The goal state
    */
-  private StateEnum state;
-
-  /**
-   * Optional annotated text
-   */
-  private String text;
+  private final StateEnum state;
 
   /**
    * Enumeration of possible states
@@ -57,65 +58,40 @@ public class SimpleClientGoalState {
   }
 
   /**
-   * Simple constructor.
-   * 
-   * @param initialState
-   *          The initial state
+   * The instances of all states, indexed by the ordinal of their state
    */
-  public SimpleClientGoalState(StateEnum initialState) {
-    this.state = initialState;
-  }
+  private static final SimpleClientGoalState[] INSTANCES;
 
-  /**
-   * Constructor used to create a SimpleClientGoalState with a given initial
-   * state and a String object as an annotation.
-   * 
-   * @param initialState
-   *          The initial state
-   * @param text
-   *          An annotation
-   */
-  public SimpleClientGoalState(StateEnum initialState, String text) {
-    this.state = initialState;
-    this.text = text;
-  }
-
-  /**
-   * Gets current state.
-   * 
-   * @return The current state
-   */
-  public StateEnum getState() {
-    return this.state;
+  static {
+    StateEnum[] states = StateEnum.values();
+    INSTANCES = new SimpleClientGoalState[states.length];
+    for (StateEnum state : states) {
+      INSTANCES[state.ordinal()] = new SimpleClientGoalState(state);
+    }
   }
 
-  /**
-   * Sets current state.
-   * 
-   * @param state
-   *          A new state
-   */
-  public void setState(StateEnum state) {
+  private SimpleClientGoalState(StateEnum state) {
     this.state = state;
   }
 
   /**
-   * Gets an annotation associated with the state.
+   * Gets the SimpleClientGoalState of a state.
    * 
-   * @return An annotation
+   * @param state
+   *          The state
+   * @return The shared instance of the state
    */
-  public String getText() {
-    return this.text;
+  public static SimpleClientGoalState valueOf(StateEnum state) {
+    return INSTANCES[state.ordinal()];
   }
 
   /**
-   * Sets String object as an annotation.
+   * Gets the state.
    * 
-   * @param text
-   *          An annotation
+   * @return The state
    */
-  public void setText(String text) {
-    this.text = text;
+  public StateEnum getState() {
+    return this.state;
   }
 
   /**
@@ -154,6 +130,11 @@ public class SimpleClientGoalState {
 
   }
 
+  @Override
+  public int hashCode() {
+    return state.hashCode();
+  }
+
   @Override
   public String toString() {
     return this.state.toString();
@@ -19,8 +19,7 @@ package org.ros.actionlib.state;
 /**
  * 
  * A SimpleGoalState represents an SimpleActionClient's goal state. It defines
- * an enumeration of possible states and stores one of them as the current
- * state. The states are:
+ * an enumeration of possible states and wraps one of them. The states are:
  * <ul>
  * <li>PENDING</li>
  * <li>ACTIVE</li>
@@ -29,16 +28,19 @@ package org.ros.actionlib.state;
  * A SimpleGoalState uses a reduced set of possible states compared to a
  * SimpleClientGoalState. To be more explicit, all final states are merged into
  * the state 'DONE'.
+ * <p>
+ * SimpleGoalStates are immutable and there is a single instance per state,
+ * which is obtained using {@link #valueOf(StateEnum)}.
  * 
  * @author Alexander C. Perzylo, perzylo@cs.tum.edu
  * 
  */
-public class SimpleGoalState {
+public final class SimpleGoalState {
 
   /**
-   * Current goal state
+   * The goal state
    */
-  private StateEnum state;
+  private final StateEnum state;
 
   /**
    * Enumeration of possible states
@@ -48,32 +50,40 @@ public class SimpleGoalState {
   }
 
   /**
-   * Simple constructor.
-   * 
-   * @param initialState
-   *          The initial state
+   * The instances of all states, indexed by the ordinal of their state
    */
-  public SimpleGoalState(StateEnum initialState) {
-    this.state = initialState;
+  private static final SimpleGoalState[] INSTANCES;
+
+  static {
+    StateEnum[] states = StateEnum.values();
+    INSTANCES = new SimpleGoalState[states.length];
+    for (StateEnum state : states) {
+      INSTANCES[state.ordinal()] = new SimpleGoalState(state);
+    }
+  }
+
+  private SimpleGoalState(StateEnum state) {
+    this.state = state;
   }
 
   /**
-   * Gets current state.
+   * Gets the SimpleGoalState of a state.
    * 
-   * @return The current state
+   * @param state
+   *          The state
+   * @return The shared instance of the state
    */
-  public StateEnum getState() {
-    return this.state;
+  public static SimpleGoalState valueOf(StateEnum state) {
+    return INSTANCES[state.ordinal()];
   }
 
   /**
-   * Sets current state.
+   * Gets the state.
    * 
-   * @param state
-   *          A new state
+   * @return The state
    */
-  public void setState(StateEnum state) {
-    this.state = state;
+  public StateEnum getState() {
+    return this.state;
   }
 
   @Override
@@ -90,6 +100,11 @@ public class SimpleGoalState {
 
   }
 
+  @Override
+  public int hashCode() {
+    return state.hashCode();
+  }
+
   @Override
   public String toString() {
     return this.state.toString();
@@ -19,8 +19,7 @@ package org.ros.actionlib.state;
 /**
  * 
  * A TerminalState represents an action client's final goal state. It defines an
- * enumeration of possible states and stores one of them as the current state.
- * The states are:
+ * enumeration of possible states and wraps one of them. The states are:
  * <ul>
  * <li>RECALLED</li>
  * <li>REJECTED</li>
@@ -29,21 +28,22 @@ package org.ros.actionlib.state;
  * <li>ABORTED</li>
  * <li>LOST</li>
  * </ul>
+ * <p>
+ * TerminalStates are immutable and there is a single instance per state,
+ * which is obtained using {@link #valueOf(StateEnum)}. The status text sent
+ * by the action server along with the state is available from the goal
+ * handle, see
+ * {@link org.ros.actionlib.client.ClientGoalHandle#getGoalStatusText()}.
  * 
  * @author Alexander C. Perzylo, perzylo@cs.tum.edu
  * 
  */
-public class TerminalState {
+public final class TerminalState {
 
   /**
-   * Current goal state
+   * The goal state
    */
-  private StateEnum state;
-
-  /**
-   * Optional annotated text
-   */
-  private String text;
+  private final StateEnum state;
 
   /**
    * Enumeration of possible states
@@ -53,56 +53,40 @@ public class TerminalState {
   }
 
   /**
-   * Simple constructor
-   * 
-   * @param initialState
-   *          The initial state
+   * The instances of all states, indexed by the ordinal of their state
    */
-  public TerminalState(StateEnum initialState) {
-    this.state = initialState;
-    this.text = null;
-  }
+  private static final TerminalState[] INSTANCES;
 
-  /**
-   * Constructor used to create a TerminalState with a given initial state and a
-   * String object as an annotation.
-   * 
-   * @param initialState
-   *          The initial state
-   * @param text
-   *          An annotation
-   */
-  public TerminalState(StateEnum initialState, String text) {
-    this.state = initialState;
-    this.text = text;
+  static {
+    StateEnum[] states = StateEnum.values();
+    INSTANCES = new TerminalState[states.length];
+    for (StateEnum state : states) {
+      INSTANCES[state.ordinal()] = new TerminalState(state);
+    }
   }
 
-  /**
-   * Gets current state.
-   * 
-   * @return The current state
-   */
-  public StateEnum getState() {
-    return this.state;
+  private TerminalState(StateEnum state) {
+    this.state = state;
   }
 
   /**
-   * Sets current state.
+   * Gets the TerminalState of a state.
    * 
    * @param state
-   *          A new state
+   *          The state
+   * @return The shared instance of the state
    */
-  public void setState(StateEnum state) {
-    this.state = state;
+  public static TerminalState valueOf(StateEnum state) {
+    return INSTANCES[state.ordinal()];
   }
 
   /**
-   * Gets an annotation associated with the state.
+   * Gets the state.
    * 
-   * @return An annotation
+   * @return The state
    */
-  public String getText() {
-    return this.text;
+  public StateEnum getState() {
+    return this.state;
   }
 
   @Override
@@ -119,6 +103,11 @@ public class TerminalState {
 
   }
 
+  @Override
+  public int hashCode() {
+    return state.hashCode();
+  }
+
   @Override
   public String toString() {
     return this.state.toString();
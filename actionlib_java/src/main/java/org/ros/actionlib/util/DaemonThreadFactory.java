@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ThreadFactory creating named daemon threads. Threads created by actionlib
+ * in the background must not keep the JVM alive after all nodes were shut
+ * down.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+  /**
+   * Prefix of the names of all created threads
+   */
+  private final String namePrefix;
+
+  /**
+   * Number of threads created so far
+   */
+  private final AtomicInteger threadCount = new AtomicInteger(0);
+
+  /**
+   * Constructor to create a DaemonThreadFactory naming its threads
+   * '&lt;namePrefix&gt;-&lt;n&gt;'.
+   * 
+   * @param namePrefix
+   *          The prefix of the thread names
+   */
+  public DaemonThreadFactory(String namePrefix) {
+    this.namePrefix = namePrefix;
+  }
+
+  @Override
+  public Thread newThread(Runnable r) {
+    Thread thread = new Thread(r, namePrefix + "-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+}
@@ -19,7 +19,6 @@ package org.ros.actionlib.util;
 import org.ros.message.Time;
 import actionlib_msgs.GoalID;
 import org.ros.node.ConnectedNode;
-import org.ros.node.NodeConfiguration;
 import org.ros.message.MessageFactory;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -34,7 +33,8 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class GoalIDGenerator {
   /**
-   * A global ID which provide a count for each goal id.
+   * A global ID which provide a count for each goal id. It is shared by all
+   * generators, so that generators of the same node never create the same id.
    */
   private static AtomicLong goalCount = new AtomicLong(0);
 
@@ -44,6 +44,17 @@ public class GoalIDGenerator {
    */
   private ConnectedNode node;
 
+  /**
+   * The node's nodeName followed by a dash, rendered once when the generator
+   * is created.
+   */
+  private final char[] prefix;
+
+  /**
+   * The factory used to create the GoalID messages.
+   */
+  private final MessageFactory messageFactory;
+
   /**
    * Constructor to create a GoalIDGenerator using a unique nodeName to prepend to
    * the goal id. This will generally be a fully qualified node nodeName.
@@ -54,28 +65,62 @@ public class GoalIDGenerator {
    */
   public GoalIDGenerator(ConnectedNode node) {
     this.node = node;
+    this.prefix = (node.getName().toString() + "-").toCharArray();
+    this.messageFactory = SharedMessageFactory.get();
   }
 
   /**
    * Creates a GoalID object with an unique id and a timestamp of the current
-   * time.
+   * time. The id has the form {@code <nodeName>-<count>-<secs>.<nsecs>}.
+   * 
+   * <p>
+   * This method may be called from any thread without locking.
    * 
    * @return GoalID object
    */
   public GoalID generateID() {
 
+    long count = goalCount.incrementAndGet();
     Time t = node.getCurrentTime();
-    NodeConfiguration nc = NodeConfiguration.newPrivate();
-    MessageFactory mf = nc.getTopicMessageFactory();
-    GoalID id = mf.newFromType(GoalID._TYPE);
+    GoalID id = messageFactory.newFromType(GoalID._TYPE);
 
-    StringBuilder sb = new StringBuilder(node.getName().toString());
-    sb.append("-").append(goalCount.incrementAndGet()).append("-").append(t.secs).append(".")
-        .append(t.nsecs);
+    // 20 digits for the count, 10 for each part of the time stamp and two
+    // separators
+    char[] buffer = new char[prefix.length + 42];
+    System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+    int length = appendDecimal(buffer, prefix.length, count);
+    buffer[length++] = '-';
+    length = appendDecimal(buffer, length, t.secs & 0xffffffffL);
+    buffer[length++] = '.';
+    length = appendDecimal(buffer, length, t.nsecs & 0xffffffffL);
 
-    id.setId(sb.toString());
+    id.setId(new String(buffer, 0, length));
     id.setStamp(t);
 
     return id;
   }
+
+  /**
+   * Writes the decimal representation of a non-negative number into a buffer.
+   * 
+   * @param buffer
+   *          The buffer to write to
+   * @param offset
+   *          The position of the first digit
+   * @param value
+   *          The non-negative number
+   * @return The position after the last digit
+   */
+  private static int appendDecimal(char[] buffer, int offset, long value) {
+    int digits = 1;
+    for (long v = value / 10; v != 0; v /= 10) {
+      digits++;
+    }
+    int end = offset + digits;
+    for (int i = end - 1; i >= offset; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return end;
+  }
 }
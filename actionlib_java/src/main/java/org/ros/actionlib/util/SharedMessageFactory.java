@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.util;
+
+import org.ros.message.MessageFactory;
+import org.ros.node.NodeConfiguration;
+
+/**
+ * Provides the MessageFactory shared by all classes of the actionlib. The
+ * factory is created once, on first use, from a private NodeConfiguration and
+ * may be used from any thread.
+ */
+public final class SharedMessageFactory {
+
+  private SharedMessageFactory() {
+  }
+
+  /**
+   * Lazily initialized holder of the shared factory.
+   */
+  private static class Holder {
+    static final MessageFactory INSTANCE = NodeConfiguration.newPrivate()
+        .getTopicMessageFactory();
+  }
+
+  /**
+   * Gets the shared MessageFactory.
+   * 
+   * @return The MessageFactory
+   */
+  public static MessageFactory get() {
+    return Holder.INSTANCE;
+  }
+
+}
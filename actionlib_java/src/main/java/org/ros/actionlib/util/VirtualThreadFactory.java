@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A ThreadFactory creating named virtual threads if the Java runtime supports
+ * them (Java 21 or later) and named daemon platform threads otherwise.
+ * Virtual threads are meant for blocking goal callbacks, which spend most of
+ * their time waiting: a waiting virtual thread does not occupy a platform
+ * thread. The virtual threads are created via reflection, so actionlib still
+ * runs on older runtimes.
+ * 
+ * <p>
+ * Code running on a virtual thread should wait using
+ * {@link java.util.concurrent.locks.Lock}s rather than monitors, since a
+ * virtual thread blocked inside a synchronized block pins its platform
+ * carrier thread.
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+
+  /**
+   * Whether the Java runtime supports virtual threads
+   */
+  private static final boolean SUPPORTED = newVirtualThreadFactory("actionlib-probe") != null;
+
+  /**
+   * The factory creating the threads
+   */
+  private final ThreadFactory delegate;
+
+  /**
+   * Whether the delegate creates virtual threads
+   */
+  private final boolean virtual;
+
+  /**
+   * Constructor to create a VirtualThreadFactory naming its threads
+   * '&lt;namePrefix&gt;-&lt;n&gt;'.
+   * 
+   * @param namePrefix
+   *          The prefix of the thread names
+   */
+  public VirtualThreadFactory(String namePrefix) {
+    ThreadFactory factory = SUPPORTED ? newVirtualThreadFactory(namePrefix) : null;
+    this.virtual = factory != null;
+    this.delegate = virtual ? factory : new DaemonThreadFactory(namePrefix);
+  }
+
+  /**
+   * Checks whether the Java runtime supports virtual threads.
+   * 
+   * @return <tt>true</tt> - if virtual threads are available<br>
+   *         <tt>false</tt> - otherwise
+   */
+  public static boolean isSupported() {
+    return SUPPORTED;
+  }
+
+  /**
+   * Checks whether this factory creates virtual threads or falls back to
+   * platform threads.
+   * 
+   * @return <tt>true</tt> - if the created threads are virtual threads<br>
+   *         <tt>false</tt> - if they are daemon platform threads
+   */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  @Override
+  public Thread newThread(Runnable r) {
+    return delegate.newThread(r);
+  }
+
+  /**
+   * Creates a factory of virtual threads using
+   * <tt>Thread.ofVirtual().name(namePrefix + "-", 1).factory()</tt>.
+   * 
+   * @param namePrefix
+   *          The prefix of the thread names
+   * @return The factory or <tt>null</tt> if virtual threads are not available
+   */
+  private static ThreadFactory newVirtualThreadFactory(String namePrefix) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method name = builderClass.getMethod("name", String.class, long.class);
+      builder = name.invoke(builder, namePrefix + "-", 1L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (Exception e) {
+      // Older runtime, or virtual threads are a disabled preview feature.
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib;
+
+import actionlib_tutorials.FibonacciAction;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ros.exception.RosException;
+import org.ros.message.Time;
+import org.ros.namespace.GraphName;
+import org.ros.node.ConnectedNode;
+import org.ros.node.topic.Publisher;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Fixtures shared by the tests: the Fibonacci action of the actionlib
+ * tutorials and stand-ins for a ConnectedNode and its publishers, so that
+ * clients, servers and state machines can be exercised without a ROS master.
+ */
+public final class ActionTestSupport {
+
+  /**
+   * The master URI of all nodes created by the tests
+   */
+  private static final URI MASTER_URI = URI.create("http://localhost:11311/");
+
+  private ActionTestSupport() {
+  }
+
+  /**
+   * Creates the ActionSpec of the Fibonacci action.
+   * 
+   * @return The ActionSpec
+   * @throws RosException
+   *           If the ActionSpec could not be created
+   */
+  public static
+      ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>
+      newFibonacciSpec() throws RosException {
+    return new ActionSpec<FibonacciAction, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+        FibonacciAction.class, "actionlib_tutorials/FibonacciAction",
+        "actionlib_tutorials/FibonacciActionFeedback", "actionlib_tutorials/FibonacciActionGoal",
+        "actionlib_tutorials/FibonacciActionResult", "actionlib_tutorials/FibonacciFeedback",
+        "actionlib_tutorials/FibonacciGoal", "actionlib_tutorials/FibonacciResult");
+  }
+
+  /**
+   * Creates a ConnectedNode that only knows its name, its master URI, the wall
+   * clock time and a log, and that can be shut down. All other methods throw
+   * an UnsupportedOperationException.
+   * 
+   * @param nodeName
+   *          The name of the node
+   * @return The node
+   */
+  public static ConnectedNode newConnectedNode(String nodeName) {
+    return newConnectedNode(nodeName, LogFactory.getLog(ActionTestSupport.class));
+  }
+
+  /**
+   * Creates a ConnectedNode that only knows its name, its master URI, the wall
+   * clock time and the given log, and that can be shut down. All other methods
+   * throw an UnsupportedOperationException.
+   * 
+   * @param nodeName
+   *          The name of the node
+   * @param log
+   *          The log of the node
+   * @return The node
+   */
+  public static ConnectedNode newConnectedNode(final String nodeName, final Log log) {
+    final GraphName name = GraphName.of(nodeName);
+    InvocationHandler handler = new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) {
+        String methodName = method.getName();
+        if (methodName.equals("getName")) {
+          return name;
+        } else if (methodName.equals("getMasterUri")) {
+          return MASTER_URI;
+        } else if (methodName.equals("getCurrentTime")) {
+          return Time.fromMillis(System.currentTimeMillis());
+        } else if (methodName.equals("getLog")) {
+          return log;
+        } else if (methodName.equals("shutdown")) {
+          return null;
+        } else if (methodName.equals("toString")) {
+          return nodeName;
+        } else if (methodName.equals("hashCode")) {
+          return System.identityHashCode(proxy);
+        } else if (methodName.equals("equals")) {
+          return proxy == args[0];
+        }
+        throw new UnsupportedOperationException(methodName);
+      }
+    };
+    return (ConnectedNode) Proxy.newProxyInstance(ConnectedNode.class.getClassLoader(),
+        new Class<?>[] { ConnectedNode.class }, handler);
+  }
+
+  /**
+   * Creates a Publisher that adds every published message to the given list.
+   * All other methods throw an UnsupportedOperationException.
+   * 
+   * @param published
+   *          The list receiving the published messages, which has to be safe
+   *          for concurrent use if messages are published by several threads
+   * @return The publisher
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Publisher<T> newRecordingPublisher(final List<? super T> published) {
+    InvocationHandler handler = new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) {
+        String methodName = method.getName();
+        if (methodName.equals("publish")) {
+          published.add((T) args[0]);
+          return null;
+        } else if (methodName.equals("hashCode")) {
+          return System.identityHashCode(proxy);
+        } else if (methodName.equals("equals")) {
+          return proxy == args[0];
+        }
+        throw new UnsupportedOperationException(methodName);
+      }
+    };
+    return (Publisher<T>) Proxy.newProxyInstance(Publisher.class.getClassLoader(),
+        new Class<?>[] { Publisher.class }, handler);
+  }
+
+}
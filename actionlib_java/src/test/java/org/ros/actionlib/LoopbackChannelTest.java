@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import actionlib_msgs.GoalStatusArray;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.message.MessageFactory;
+import std_msgs.Header;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the delivery of messages to a client of a {@link LoopbackChannel} that
+ * falls behind. The client blocks in its first delivery until the test lets it
+ * go on.
+ */
+public class LoopbackChannelTest {
+
+  private MessageFactory messageFactory;
+  private LoopbackChannel<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult> channel;
+  private final List<Object> received = Collections.synchronizedList(new ArrayList<Object>());
+  private final CountDownLatch deliveryStarted = new CountDownLatch(1);
+  private final CountDownLatch gate = new CountDownLatch(1);
+  private final CountDownLatch resultReceived = new CountDownLatch(1);
+  private final LoopbackChannel.ClientEndpoint<FibonacciActionFeedback, FibonacciActionResult> client =
+      new LoopbackChannel.ClientEndpoint<FibonacciActionFeedback, FibonacciActionResult>() {
+        @Override
+        public void statusReceived(GoalStatusArray statusArray) {
+          receive(statusArray);
+        }
+
+        @Override
+        public void feedbackReceived(FibonacciActionFeedback actionFeedback) {
+          receive(actionFeedback);
+        }
+
+        @Override
+        public void resultReceived(FibonacciActionResult actionResult) {
+          receive(actionResult);
+          resultReceived.countDown();
+        }
+      };
+
+  @Before
+  public void setUp() {
+    System.setProperty(LoopbackChannel.ENABLED_PROPERTY, "true");
+    messageFactory = SharedMessageFactory.get();
+    channel =
+        LoopbackChannel.open(ActionTestSupport.newConnectedNode("/loopback_channel_test"), "fibonacci",
+            FibonacciActionGoal._TYPE);
+    channel.addClient(client);
+  }
+
+  @After
+  public void tearDown() {
+    gate.countDown();
+    channel.removeClient(client);
+    System.clearProperty(LoopbackChannel.ENABLED_PROPERTY);
+  }
+
+  @Test
+  public void slowClientReceivesTheLatestStatusAndFeedbackOfEachGoal() throws InterruptedException {
+    GoalStatusArray status1 = newStatusArray(1);
+    channel.publishStatus(status1);
+    assertTrue(deliveryStarted.await(10, TimeUnit.SECONDS));
+
+    GoalStatusArray status2 = newStatusArray(2);
+    GoalStatusArray status3 = newStatusArray(3);
+    FibonacciActionFeedback feedbackA1 = newActionFeedback(4);
+    FibonacciActionFeedback feedbackB1 = newActionFeedback(5);
+    FibonacciActionFeedback feedbackA2 = newActionFeedback(6);
+    FibonacciActionFeedback feedbackB2 = newActionFeedback(7);
+    FibonacciActionResult resultA = messageFactory.newFromType(FibonacciActionResult._TYPE);
+    resultA.setHeader(newHeader(8));
+    channel.publishStatus(status2);
+    channel.publishFeedback("a", feedbackA1);
+    channel.publishFeedback("b", feedbackB1);
+    channel.publishStatus(status3);
+    channel.publishFeedback("a", feedbackA2);
+    channel.publishFeedback("b", feedbackB2);
+    channel.publishResult(resultA);
+    gate.countDown();
+    assertTrue(resultReceived.await(10, TimeUnit.SECONDS));
+
+    // A conflated message takes the place of the first message it replaced.
+    assertEquals(Arrays.<Object> asList(status1, status3, feedbackA2, feedbackB2, resultA), received);
+  }
+
+  private GoalStatusArray newStatusArray(int seq) {
+    GoalStatusArray statusArray = messageFactory.newFromType(GoalStatusArray._TYPE);
+    statusArray.setHeader(newHeader(seq));
+    return statusArray;
+  }
+
+  private FibonacciActionFeedback newActionFeedback(int seq) {
+    FibonacciActionFeedback actionFeedback = messageFactory.newFromType(FibonacciActionFeedback._TYPE);
+    actionFeedback.setHeader(newHeader(seq));
+    return actionFeedback;
+  }
+
+  /**
+   * Creates a header with the given sequence number, which tells apart
+   * otherwise equal messages.
+   */
+  private Header newHeader(int seq) {
+    Header header = messageFactory.newFromType(Header._TYPE);
+    header.setSeq(seq);
+    return header;
+  }
+
+  private void receive(Object message) {
+    received.add(message);
+    deliveryStarted.countDown();
+    try {
+      gate.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
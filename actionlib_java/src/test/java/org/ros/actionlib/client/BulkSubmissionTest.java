@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.ActionTestSupport;
+import org.ros.actionlib.state.TerminalState;
+import org.ros.exception.RosException;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests that a {@link BulkSubmission} keeps its window and that it is done
+ * once it got canceled, also if cancel() runs while a goal is being sent out.
+ */
+public class BulkSubmissionTest {
+
+  private static final int WINDOW = 3;
+
+  private ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec;
+  private RecordingActionClient client;
+  private List<FibonacciGoal> goals;
+
+  @Before
+  public void setUp() throws Exception {
+    spec = ActionTestSupport.newFibonacciSpec();
+    client = new RecordingActionClient(spec);
+    client.node = ActionTestSupport.newConnectedNode("/bulk_submission_test");
+    goals = new ArrayList<FibonacciGoal>();
+    for (int i = 0; i < 20; i++) {
+      FibonacciGoal goal = spec.createGoalMessage();
+      goal.setOrder(i);
+      goals.add(goal);
+    }
+  }
+
+  @Test
+  public void windowIsNeverExceeded() throws Exception {
+    BulkSubmission<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> submission =
+        newSubmitter().submit(goals, null);
+
+    while (!client.pending.isEmpty()) {
+      assertTrue(client.pending.size() <= WINDOW);
+      client.succeedOldest();
+    }
+
+    assertTrue(submission.await(1, TimeUnit.SECONDS));
+    assertEquals(WINDOW, client.maxPending);
+    assertEquals(goals.size(), client.sent);
+    assertEquals(goals.size(), submission.getStatistics().getGoalCount());
+    assertEquals(goals.size(), submission.getStatistics().getCount(TerminalState.StateEnum.SUCCEEDED));
+  }
+
+  @Test
+  public void awaitCompletesAfterCancel() throws Exception {
+    BulkSubmission<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> submission =
+        newSubmitter().submit(goals, null);
+    client.succeedOldest();
+
+    submission.cancel();
+
+    assertTrue(submission.await(1, TimeUnit.SECONDS));
+    assertEquals(WINDOW + 1, client.sent);
+    assertEquals(WINDOW + 1, submission.getStatistics().getGoalCount());
+    assertEquals(WINDOW, submission.getStatistics().getCanceledCount());
+  }
+
+  @Test
+  public void cancelWhileSendingCancelsTheGoalBeingSent() throws Exception {
+    final BulkSubmission<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> submission =
+        newSubmitter().submit(goals, null);
+    // The next goal is sent out while the oldest one is done. cancel() runs
+    // before its GoalFuture is handed back to the submission.
+    client.beforeReturn = new Runnable() {
+      @Override
+      public void run() {
+        submission.cancel();
+      }
+    };
+    client.succeedOldest();
+
+    assertTrue(submission.await(1, TimeUnit.SECONDS));
+    assertEquals(WINDOW + 1, client.sent);
+    assertEquals(WINDOW, submission.getStatistics().getCanceledCount());
+  }
+
+  private BulkGoalSubmitter<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>
+      newSubmitter() {
+    return new BulkGoalSubmitter<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+        client, WINDOW);
+  }
+
+  /**
+   * An ActionClient that hands out GoalFutures without sending the goals, so
+   * that the test decides when they are done.
+   */
+  private static class RecordingActionClient extends
+      ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> {
+
+    final Queue<GoalFuture<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>> pending =
+        new LinkedList<GoalFuture<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>>();
+    int sent = 0;
+    int maxPending = 0;
+    Runnable beforeReturn;
+
+    RecordingActionClient(
+        ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec)
+        throws RosException {
+      super("fibonacci", spec);
+    }
+
+    @Override
+    public GoalFuture<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>
+        sendGoalAsync(FibonacciGoal goal) {
+      final GoalFuture<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> future =
+          new GoalFuture<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+              null);
+      sent++;
+      pending.add(future);
+      future.addListener(new Runnable() {
+        @Override
+        public void run() {
+          pending.remove(future);
+        }
+      }, new Executor() {
+        @Override
+        public void execute(Runnable command) {
+          command.run();
+        }
+      });
+      maxPending = Math.max(maxPending, pending.size());
+      Runnable hook = beforeReturn;
+      beforeReturn = null;
+      if (hook != null) {
+        hook.run();
+      }
+      return future;
+    }
+
+    void succeedOldest() {
+      pending.peek().complete(
+          new GoalOutcome<FibonacciResult>(TerminalState.valueOf(TerminalState.StateEnum.SUCCEEDED), "",
+              null));
+    }
+
+  }
+
+}
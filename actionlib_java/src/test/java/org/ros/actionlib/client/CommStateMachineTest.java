@@ -0,0 +1,334 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.ros.actionlib.state.CommState.StateEnum.ACTIVE;
+import static org.ros.actionlib.state.CommState.StateEnum.DONE;
+import static org.ros.actionlib.state.CommState.StateEnum.PENDING;
+import static org.ros.actionlib.state.CommState.StateEnum.PREEMPTING;
+import static org.ros.actionlib.state.CommState.StateEnum.RECALLING;
+import static org.ros.actionlib.state.CommState.StateEnum.WAITING_FOR_CANCEL_ACK;
+import static org.ros.actionlib.state.CommState.StateEnum.WAITING_FOR_GOAL_ACK;
+import static org.ros.actionlib.state.CommState.StateEnum.WAITING_FOR_RESULT;
+
+import actionlib_msgs.GoalID;
+import actionlib_msgs.GoalStatus;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.apache.commons.logging.Log;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.ActionTestSupport;
+import org.ros.actionlib.state.CommState;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the reaction of a {@link CommStateMachine} to a GoalStatus in each of
+ * its states. The expected reactions were recorded from the implementation
+ * that preceded the transition table, so the table must reproduce its
+ * transitions, callbacks and log messages exactly.
+ */
+public class CommStateMachineTest {
+
+  private static final String[] STATUS_NAMES = { "PENDING", "ACTIVE", "PREEMPTED", "SUCCEEDED",
+      "ABORTED", "REJECTED", "PREEMPTING", "RECALLING", "RECALLED" };
+
+  /**
+   * The current state, the received GoalStatus (null if the goal was missing
+   * from the status message) and the expected reaction: the states entered in
+   * order, LOST for a goal that got lost, UNKNOWN for an unknown status and
+   * INVALID for an invalid transition.
+   */
+  private static final Object[][] CASES = {
+      { WAITING_FOR_GOAL_ACK, null, "" },
+      { WAITING_FOR_GOAL_ACK, (byte) -1, "UNKNOWN" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.PENDING, "PENDING" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.ACTIVE, "ACTIVE" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.PREEMPTED, "ACTIVE PREEMPTING WAITING_FOR_RESULT" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.SUCCEEDED, "ACTIVE WAITING_FOR_RESULT" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.ABORTED, "ACTIVE WAITING_FOR_RESULT" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.REJECTED, "PENDING WAITING_FOR_RESULT" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.PREEMPTING, "ACTIVE PREEMPTING" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.RECALLING, "PENDING RECALLING" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.RECALLED, "PENDING WAITING_FOR_RESULT" },
+      { WAITING_FOR_GOAL_ACK, GoalStatus.LOST, "UNKNOWN" },
+      { WAITING_FOR_GOAL_ACK, (byte) 10, "UNKNOWN" },
+      { WAITING_FOR_GOAL_ACK, (byte) 11, "UNKNOWN" },
+      { WAITING_FOR_GOAL_ACK, (byte) 12, "UNKNOWN" },
+
+      { PENDING, null, "LOST DONE" },
+      { PENDING, (byte) -1, "UNKNOWN" },
+      { PENDING, GoalStatus.PENDING, "" },
+      { PENDING, GoalStatus.ACTIVE, "ACTIVE" },
+      { PENDING, GoalStatus.PREEMPTED, "ACTIVE PREEMPTING WAITING_FOR_RESULT" },
+      { PENDING, GoalStatus.SUCCEEDED, "ACTIVE WAITING_FOR_RESULT" },
+      { PENDING, GoalStatus.ABORTED, "ACTIVE WAITING_FOR_RESULT" },
+      { PENDING, GoalStatus.REJECTED, "WAITING_FOR_RESULT" },
+      { PENDING, GoalStatus.PREEMPTING, "ACTIVE PREEMPTING" },
+      { PENDING, GoalStatus.RECALLING, "RECALLING" },
+      { PENDING, GoalStatus.RECALLED, "RECALLING WAITING_FOR_RESULT" },
+      { PENDING, GoalStatus.LOST, "UNKNOWN" },
+      { PENDING, (byte) 10, "UNKNOWN" },
+      { PENDING, (byte) 11, "UNKNOWN" },
+      { PENDING, (byte) 12, "UNKNOWN" },
+
+      { ACTIVE, null, "LOST DONE" },
+      { ACTIVE, (byte) -1, "UNKNOWN" },
+      { ACTIVE, GoalStatus.PENDING, "INVALID" },
+      { ACTIVE, GoalStatus.ACTIVE, "" },
+      { ACTIVE, GoalStatus.PREEMPTED, "PREEMPTING WAITING_FOR_RESULT" },
+      { ACTIVE, GoalStatus.SUCCEEDED, "WAITING_FOR_RESULT" },
+      { ACTIVE, GoalStatus.ABORTED, "WAITING_FOR_RESULT" },
+      { ACTIVE, GoalStatus.REJECTED, "INVALID" },
+      { ACTIVE, GoalStatus.PREEMPTING, "PREEMPTING" },
+      { ACTIVE, GoalStatus.RECALLING, "INVALID" },
+      { ACTIVE, GoalStatus.RECALLED, "INVALID" },
+      { ACTIVE, GoalStatus.LOST, "UNKNOWN" },
+      { ACTIVE, (byte) 10, "UNKNOWN" },
+      { ACTIVE, (byte) 11, "UNKNOWN" },
+      { ACTIVE, (byte) 12, "UNKNOWN" },
+
+      { WAITING_FOR_CANCEL_ACK, null, "LOST DONE" },
+      { WAITING_FOR_CANCEL_ACK, (byte) -1, "UNKNOWN" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.PENDING, "" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.ACTIVE, "" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.PREEMPTED, "PREEMPTING WAITING_FOR_RESULT" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.SUCCEEDED, "PREEMPTING WAITING_FOR_RESULT" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.ABORTED, "PREEMPTING WAITING_FOR_RESULT" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.REJECTED, "WAITING_FOR_RESULT" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.PREEMPTING, "PREEMPTING" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.RECALLING, "RECALLING" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.RECALLED, "RECALLING WAITING_FOR_RESULT" },
+      { WAITING_FOR_CANCEL_ACK, GoalStatus.LOST, "UNKNOWN" },
+      { WAITING_FOR_CANCEL_ACK, (byte) 10, "UNKNOWN" },
+      { WAITING_FOR_CANCEL_ACK, (byte) 11, "UNKNOWN" },
+      { WAITING_FOR_CANCEL_ACK, (byte) 12, "UNKNOWN" },
+
+      { RECALLING, null, "LOST DONE" },
+      { RECALLING, (byte) -1, "UNKNOWN" },
+      { RECALLING, GoalStatus.PENDING, "INVALID" },
+      { RECALLING, GoalStatus.ACTIVE, "INVALID" },
+      { RECALLING, GoalStatus.PREEMPTED, "PREEMPTING WAITING_FOR_RESULT" },
+      { RECALLING, GoalStatus.SUCCEEDED, "PREEMPTING WAITING_FOR_RESULT" },
+      { RECALLING, GoalStatus.ABORTED, "PREEMPTING WAITING_FOR_RESULT" },
+      { RECALLING, GoalStatus.REJECTED, "WAITING_FOR_RESULT" },
+      { RECALLING, GoalStatus.PREEMPTING, "PREEMPTING" },
+      { RECALLING, GoalStatus.RECALLING, "" },
+      { RECALLING, GoalStatus.RECALLED, "WAITING_FOR_RESULT" },
+      { RECALLING, GoalStatus.LOST, "UNKNOWN" },
+      { RECALLING, (byte) 10, "UNKNOWN" },
+      { RECALLING, (byte) 11, "UNKNOWN" },
+      { RECALLING, (byte) 12, "UNKNOWN" },
+
+      { PREEMPTING, null, "LOST DONE" },
+      { PREEMPTING, (byte) -1, "UNKNOWN" },
+      { PREEMPTING, GoalStatus.PENDING, "INVALID" },
+      { PREEMPTING, GoalStatus.ACTIVE, "INVALID" },
+      { PREEMPTING, GoalStatus.PREEMPTED, "WAITING_FOR_RESULT" },
+      { PREEMPTING, GoalStatus.SUCCEEDED, "WAITING_FOR_RESULT" },
+      { PREEMPTING, GoalStatus.ABORTED, "WAITING_FOR_RESULT" },
+      { PREEMPTING, GoalStatus.REJECTED, "INVALID" },
+      { PREEMPTING, GoalStatus.PREEMPTING, "" },
+      { PREEMPTING, GoalStatus.RECALLING, "INVALID" },
+      { PREEMPTING, GoalStatus.RECALLED, "INVALID" },
+      { PREEMPTING, GoalStatus.LOST, "UNKNOWN" },
+      { PREEMPTING, (byte) 10, "UNKNOWN" },
+      { PREEMPTING, (byte) 11, "UNKNOWN" },
+      { PREEMPTING, (byte) 12, "UNKNOWN" },
+
+      { WAITING_FOR_RESULT, null, "" },
+      { WAITING_FOR_RESULT, (byte) -1, "UNKNOWN" },
+      { WAITING_FOR_RESULT, GoalStatus.PENDING, "INVALID" },
+      { WAITING_FOR_RESULT, GoalStatus.ACTIVE, "" },
+      { WAITING_FOR_RESULT, GoalStatus.PREEMPTED, "" },
+      { WAITING_FOR_RESULT, GoalStatus.SUCCEEDED, "" },
+      { WAITING_FOR_RESULT, GoalStatus.ABORTED, "" },
+      { WAITING_FOR_RESULT, GoalStatus.REJECTED, "" },
+      { WAITING_FOR_RESULT, GoalStatus.PREEMPTING, "INVALID" },
+      { WAITING_FOR_RESULT, GoalStatus.RECALLING, "INVALID" },
+      { WAITING_FOR_RESULT, GoalStatus.RECALLED, "" },
+      { WAITING_FOR_RESULT, GoalStatus.LOST, "UNKNOWN" },
+      { WAITING_FOR_RESULT, (byte) 10, "UNKNOWN" },
+      { WAITING_FOR_RESULT, (byte) 11, "UNKNOWN" },
+      { WAITING_FOR_RESULT, (byte) 12, "UNKNOWN" },
+
+      { DONE, null, "" },
+      { DONE, (byte) -1, "" },
+      { DONE, GoalStatus.PENDING, "" },
+      { DONE, GoalStatus.ACTIVE, "" },
+      { DONE, GoalStatus.PREEMPTED, "" },
+      { DONE, GoalStatus.SUCCEEDED, "" },
+      { DONE, GoalStatus.ABORTED, "" },
+      { DONE, GoalStatus.REJECTED, "" },
+      { DONE, GoalStatus.PREEMPTING, "" },
+      { DONE, GoalStatus.RECALLING, "" },
+      { DONE, GoalStatus.RECALLED, "" },
+      { DONE, GoalStatus.LOST, "" },
+      { DONE, (byte) 10, "" },
+      { DONE, (byte) 11, "" },
+      { DONE, (byte) 12, "" }
+  };
+
+  private ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec;
+  private ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> client;
+  private MessageFactory messageFactory;
+
+  /**
+   * The log messages and transition callbacks in the order they occurred.
+   */
+  private final List<String> events = new ArrayList<String>();
+
+  @Before
+  public void setUp() throws Exception {
+    spec = ActionTestSupport.newFibonacciSpec();
+    client =
+        new ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci", spec);
+    client.node = ActionTestSupport.newConnectedNode("/comm_state_machine_test", newRecordingLog());
+    messageFactory = SharedMessageFactory.get();
+  }
+
+  @Test
+  public void statusUpdatesMatchRecordedBehavior() throws Exception {
+    assertEquals(8 * 15, CASES.length);
+    for (Object[] c : CASES) {
+      CommState.StateEnum state = (CommState.StateEnum) c[0];
+      Byte status = (Byte) c[1];
+      String description = state + " on status " + status;
+
+      events.clear();
+      GoalStatus latestGoalStatus = newGoalStatus(GoalStatus.PENDING);
+      ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle =
+          newGoalHandle(state, latestGoalStatus);
+      goalHandle.getStateMachine().updateStatus(status == null ? null : newGoalStatus(status),
+          goalHandle);
+
+      List<String> expectedEvents = new ArrayList<String>();
+      CommState.StateEnum expectedState = state;
+      boolean lost = false;
+      for (String reaction : ((String) c[2]).split(" ")) {
+        if (reaction.isEmpty()) {
+          continue;
+        } else if (reaction.equals("LOST")) {
+          expectedEvents.add("warn:[CommStateMachine] Transitioning goal to 'LOST'");
+          lost = true;
+        } else if (reaction.equals("UNKNOWN")) {
+          expectedEvents.add("error:[CommStateMachine] Got unknown goal status '" + status
+              + "' from the DefaultActionServer");
+        } else if (reaction.equals("INVALID")) {
+          expectedEvents.add("error:[CommStateMachine] Invalid transition from '" + state + "' to '"
+              + STATUS_NAMES[status] + "'");
+        } else {
+          expectedState = CommState.StateEnum.valueOf(reaction);
+          expectedEvents.add("debug:[CommStateMachine] Trying to transition to '" + expectedState + "'");
+          expectedEvents.add("transition:" + expectedState);
+        }
+      }
+
+      assertEquals(description, expectedEvents, events);
+      assertEquals(description, expectedState, goalHandle.getStateMachine().getCommState().getState());
+      assertEquals(description, lost ? GoalStatus.LOST : GoalStatus.PENDING, latestGoalStatus.getStatus());
+    }
+  }
+
+  /**
+   * Creates a GoalHandle whose CommStateMachine is in the given state and has
+   * received the given GoalStatus before. The transition callback records the
+   * state entered.
+   */
+  private
+      ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>
+      newGoalHandle(CommState.StateEnum state, GoalStatus latestGoalStatus) throws Exception {
+    ActionClientCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> callbacks =
+        new ActionClientCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+          @Override
+          public void transitionCallback(
+              ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+            events.add("transition:" + goalHandle.getStateMachine().getCommState().getState());
+          }
+
+          @Override
+          public void feedbackCallback(
+              ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle,
+              FibonacciFeedback feedback) {
+          }
+        };
+    FibonacciActionGoal actionGoal =
+        spec.createActionGoalMessage(spec.createGoalMessage(), new Time(1, 0), newGoalID());
+    CommStateMachine<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> stateMachine =
+        new CommStateMachine<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            actionGoal, callbacks, spec, client);
+    stateMachine.commState = CommState.valueOf(state);
+    stateMachine.latestGoalStatus = latestGoalStatus;
+    return new ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+        null, client, stateMachine);
+  }
+
+  private GoalID newGoalID() {
+    GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+    goalID.setId("goal");
+    goalID.setStamp(new Time(1, 0));
+    return goalID;
+  }
+
+  private GoalStatus newGoalStatus(byte status) {
+    GoalStatus goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+    goalStatus.setGoalId(newGoalID());
+    goalStatus.setStatus(status);
+    return goalStatus;
+  }
+
+  /**
+   * Creates a log with all levels enabled which records every message.
+   */
+  private Log newRecordingLog() {
+    InvocationHandler handler = new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) {
+        String methodName = method.getName();
+        if (methodName.startsWith("is") && methodName.endsWith("Enabled")) {
+          return true;
+        } else if (args != null && args.length > 0 && !methodName.equals("equals")) {
+          events.add(methodName + ":" + args[0]);
+          return null;
+        } else if (methodName.equals("hashCode")) {
+          return System.identityHashCode(proxy);
+        } else if (methodName.equals("equals")) {
+          return proxy == args[0];
+        }
+        return "RecordingLog";
+      }
+    };
+    return (Log) Proxy.newProxyInstance(Log.class.getClassLoader(), new Class<?>[] { Log.class },
+        handler);
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import static org.junit.Assert.assertEquals;
+
+import actionlib_msgs.GoalID;
+import actionlib_msgs.GoalStatus;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.ActionTestSupport;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Tests the delivery of feedback through the {@link FeedbackMailbox} of a
+ * {@link CommStateMachine}. The feedback executor of the client only collects
+ * its tasks, so the tests decide when they run.
+ */
+public class FeedbackMailboxTest {
+
+  private ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec;
+  private MessageFactory messageFactory;
+  private final List<Runnable> feedbackTasks = new ArrayList<Runnable>();
+  private final List<String> events = new ArrayList<String>();
+  private GoalID goalID;
+  private CommStateMachine<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> stateMachine;
+  private ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle;
+
+  @Before
+  public void setUp() throws Exception {
+    spec = ActionTestSupport.newFibonacciSpec();
+    messageFactory = SharedMessageFactory.get();
+    ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> client =
+        new ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci", spec);
+    client.node = ActionTestSupport.newConnectedNode("/feedback_mailbox_test");
+    client.setFeedbackExecutor(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        feedbackTasks.add(command);
+      }
+    });
+
+    goalID = messageFactory.newFromType(GoalID._TYPE);
+    goalID.setId("goal");
+    goalID.setStamp(new Time(1, 0));
+    FibonacciActionGoal actionGoal = spec.createActionGoalMessage(spec.createGoalMessage(), new Time(1, 0), goalID);
+    stateMachine =
+        new CommStateMachine<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            actionGoal, new RecordingCallbacks(), spec, client);
+    goalHandle =
+        new ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            null, client, stateMachine);
+  }
+
+  @Test
+  public void finalFeedbackIsDeliveredBeforeTheFinalTransition() throws Exception {
+    stateMachine.updateFeedback(newActionFeedback(1), goalHandle);
+    stateMachine.updateFeedback(newActionFeedback(2), goalHandle);
+    FibonacciActionResult actionResult =
+        spec.createActionResultMessage(spec.createResultMessage(), new Time(2, 0), newGoalStatus(GoalStatus.SUCCEEDED));
+    stateMachine.updateResult(actionResult, goalHandle);
+
+    assertEquals(Arrays.asList("feedback 2", "transition ACTIVE", "transition WAITING_FOR_RESULT", "transition DONE"),
+        events);
+    assertEquals(1, stateMachine.getDroppedFeedbackCount());
+
+    // The delivery scheduled for the feedback finds the mailbox empty.
+    runFeedbackTasks();
+    assertEquals(4, events.size());
+  }
+
+  @Test
+  public void feedbackIsDeliveredOnTheFeedbackExecutor() throws Exception {
+    stateMachine.updateFeedback(newActionFeedback(1), goalHandle);
+    assertEquals(0, events.size());
+
+    runFeedbackTasks();
+
+    assertEquals(Arrays.asList("feedback 1"), events);
+  }
+
+  @Test
+  public void feedbackOfAShutDownGoalHandleIsDropped() throws Exception {
+    stateMachine.updateFeedback(newActionFeedback(1), goalHandle);
+    goalHandle.shutdown(false);
+
+    runFeedbackTasks();
+
+    assertEquals(0, events.size());
+    assertEquals(1, stateMachine.getDroppedFeedbackCount());
+  }
+
+  private void runFeedbackTasks() {
+    while (!feedbackTasks.isEmpty()) {
+      feedbackTasks.remove(0).run();
+    }
+  }
+
+  private FibonacciActionFeedback newActionFeedback(int length) {
+    FibonacciFeedback feedback = spec.createFeedbackMessage();
+    feedback.setSequence(new int[length]);
+    return spec.createActionFeedbackMessage(feedback, null, new Time(1, 0), newGoalStatus(GoalStatus.ACTIVE));
+  }
+
+  private GoalStatus newGoalStatus(byte status) {
+    GoalStatus goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+    goalStatus.setGoalId(goalID);
+    goalStatus.setStatus(status);
+    return goalStatus;
+  }
+
+  private class RecordingCallbacks implements
+      ActionClientCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> {
+
+    @Override
+    public void transitionCallback(
+        ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> gh) {
+      events.add("transition " + stateMachine.getCommState().getState());
+    }
+
+    @Override
+    public void feedbackCallback(
+        ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> gh,
+        FibonacciFeedback feedback) {
+      events.add("feedback " + feedback.getSequence().length);
+    }
+
+  }
+
+}
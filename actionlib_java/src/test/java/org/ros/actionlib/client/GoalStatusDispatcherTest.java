@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.client;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import actionlib_msgs.GoalID;
+import actionlib_msgs.GoalStatus;
+import actionlib_msgs.GoalStatusArray;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.ActionTestSupport;
+import org.ros.actionlib.state.CommState;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tests the {@link GoalStatusDispatcher}, including that dispatching a status
+ * array in the steady state does not allocate memory per goal.
+ */
+public class GoalStatusDispatcherTest {
+
+  private static final int GOALS = 1000;
+
+  private Map<String, ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>> goalHandlesByID;
+  private GoalStatusDispatcher<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> dispatcher;
+  private GoalStatusArray statusArray;
+
+  @Before
+  public void setUp() throws Exception {
+    ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec =
+        ActionTestSupport.newFibonacciSpec();
+    ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> client =
+        new ActionClient<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci", spec);
+    client.node = ActionTestSupport.newConnectedNode("/dispatcher_test");
+
+    MessageFactory messageFactory = SharedMessageFactory.get();
+    goalHandlesByID =
+        new ConcurrentHashMap<String, ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>>();
+    dispatcher =
+        new GoalStatusDispatcher<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            goalHandlesByID);
+    List<GoalStatus> statusList = new ArrayList<GoalStatus>(GOALS);
+    for (int i = 0; i < GOALS; i++) {
+      GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+      goalID.setId("goal-" + i);
+      goalID.setStamp(new Time(i, 0));
+      FibonacciActionGoal actionGoal = spec.createActionGoalMessage(spec.createGoalMessage(), new Time(i, 0), goalID);
+      CommStateMachine<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> stateMachine =
+          new CommStateMachine<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+              actionGoal, null, spec, client);
+      ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle =
+          new ClientGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+              null, client, stateMachine);
+      goalHandlesByID.put(goalID.getId(), goalHandle);
+
+      GoalStatus goalStatus = messageFactory.newFromType(GoalStatus._TYPE);
+      goalStatus.setGoalId(goalID);
+      goalStatus.setStatus(GoalStatus.ACTIVE);
+      statusList.add(goalStatus);
+    }
+    statusArray = messageFactory.newFromType(GoalStatusArray._TYPE);
+    statusArray.setStatusList(statusList);
+  }
+
+  @Test
+  public void dispatchesEveryStatusToItsGoal() throws Exception {
+    dispatcher.dispatch(statusArray, goalHandlesByID.values());
+
+    for (GoalStatus goalStatus : statusArray.getStatusList()) {
+      CommStateMachine<?, ?, ?, ?, ?, ?> stateMachine =
+          goalHandlesByID.get(goalStatus.getGoalId().getId()).getStateMachine();
+      assertSame(goalStatus, stateMachine.getGoalStatus());
+      assertSame(CommState.StateEnum.ACTIVE, stateMachine.getCommState().getState());
+    }
+  }
+
+  @Test
+  public void steadyStateDispatchDoesNotAllocatePerGoal() throws Exception {
+    java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+    Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+    allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+    // The first status moves every goal to ACTIVE, the following ones keep it
+    // there. Warm up, so that the measurement is not skewed by class loading
+    // and compilation.
+    for (int i = 0; i < 2000; i++) {
+      dispatcher.dispatch(statusArray, goalHandlesByID.values());
+    }
+
+    int dispatches = 1000;
+    long threadId = Thread.currentThread().getId();
+    long before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < dispatches; i++) {
+      dispatcher.dispatch(statusArray, goalHandlesByID.values());
+    }
+    long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    // A copy of the status list or an object per goal would cost at least
+    // four bytes per goal and dispatch. Iterators are allowed.
+    long bytesPerDispatch = allocated / dispatches;
+    assertTrue("Allocated " + bytesPerDispatch + " bytes per dispatch of " + GOALS + " goals",
+        bytesPerDispatch < GOALS);
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests the bucketing and the percentiles of a {@link Histogram}. The bucket
+ * a value is counted in is observed as the 100th percentile of a histogram
+ * holding only that value, which is the lower bound of the bucket.
+ */
+public class HistogramTest {
+
+  private Histogram histogram;
+
+  @Before
+  public void setUp() {
+    histogram = new Histogram();
+  }
+
+  @Test
+  public void smallValuesAreCountedExactly() {
+    for (long value = 0; value < 1 << Histogram.PRECISION_BITS; value++) {
+      assertEquals(value, bucketOf(value));
+    }
+  }
+
+  @Test
+  public void powersOfTwoStartANewBucket() {
+    for (int exponent = Histogram.PRECISION_BITS; exponent < 63; exponent++) {
+      long powerOfTwo = 1L << exponent;
+      assertEquals(powerOfTwo, bucketOf(powerOfTwo));
+      long below = bucketOf(powerOfTwo - 1);
+      assertTrue("Bucket of 2^" + exponent + "-1", below < powerOfTwo && below > powerOfTwo / 2);
+    }
+  }
+
+  @Test
+  public void largestValueIsCounted() {
+    long bucket = bucketOf(Long.MAX_VALUE);
+
+    assertEquals(Long.MAX_VALUE, histogram.getMax());
+    assertTrue(Long.MAX_VALUE - bucket <= Long.MAX_VALUE >> Histogram.PRECISION_BITS);
+  }
+
+  @Test
+  public void relativeErrorIsBounded() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+      long bucket = bucketOf(value);
+      assertTrue(value + " in bucket " + bucket, bucket <= value
+          && value - bucket <= value >> Histogram.PRECISION_BITS);
+    }
+  }
+
+  @Test
+  public void percentilesOfOneToHundred() {
+    for (long value = 1; value <= 100; value++) {
+      histogram.record(value);
+    }
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(50.5, histogram.getMean(), 0);
+    assertEquals(1, histogram.getValueAtPercentile(0));
+    assertEquals(50, histogram.getValueAtPercentile(50));
+    assertEquals(100, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void emptyHistogramReturnsZero() {
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getMean(), 0);
+  }
+
+  @Test
+  public void negativeValuesAreRecordedAsZero() {
+    histogram.record(-5);
+
+    assertEquals(0, histogram.getValueAtPercentile(100));
+    assertEquals(1, histogram.getCount());
+  }
+
+  private long bucketOf(long value) {
+    histogram.reset();
+    histogram.record(value);
+    return histogram.getValueAtPercentile(100);
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.recorder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Properties;
+
+/**
+ * Tests the ring file written by the {@link FlightRecorder} and the creation
+ * of the shared recorder from the system properties.
+ */
+public class FlightRecorderTest {
+
+  private File file;
+  private Properties savedProperties;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("actionlib-recorder-test", ".rec");
+    savedProperties = (Properties) System.getProperties().clone();
+    System.clearProperty(FlightRecorder.ENABLED_PROPERTY);
+    System.setProperty(FlightRecorder.FILE_PROPERTY, file.getPath());
+  }
+
+  @After
+  public void tearDown() {
+    System.setProperties(savedProperties);
+    file.delete();
+  }
+
+  @Test
+  public void ringKeepsTheLatestEvents() throws IOException {
+    FlightRecorder recorder = FlightRecorder.open(file, 4);
+    for (int i = 0; i < 6; i++) {
+      recorder.record(FlightRecorder.SERVER_TRANSITION, "goal-" + i, i);
+    }
+
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      assertEquals(FlightRecorder.HEADER_SIZE + 4 * FlightRecorder.SLOT_SIZE, raf.length());
+      // Events 4 and 5 overwrote events 0 and 1. Sequence numbers are stored
+      // plus one.
+      long[] expectedSequences = { 5, 6, 3, 4 };
+      for (int i = 0; i < 4; i++) {
+        int slot = FlightRecorder.HEADER_SIZE + i * FlightRecorder.SLOT_SIZE;
+        raf.seek(slot + FlightRecorder.SEQUENCE_OFFSET);
+        long sequence = raf.readLong();
+        assertEquals(expectedSequences[i], sequence);
+        raf.seek(slot + FlightRecorder.GOAL_HASH_OFFSET);
+        assertEquals(("goal-" + (sequence - 1)).hashCode(), raf.readInt());
+        raf.seek(slot + FlightRecorder.STATE_OFFSET);
+        assertEquals(sequence - 1, raf.readByte());
+      }
+    } finally {
+      raf.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void capacityOfZeroIsRejected() throws IOException {
+    FlightRecorder.open(file, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void capacityAboveTheMaximumIsRejected() throws IOException {
+    FlightRecorder.open(file, FlightRecorder.MAX_CAPACITY + 1);
+  }
+
+  @Test
+  public void sharedRecorderWritesToTheConfiguredFile() {
+    System.setProperty(FlightRecorder.CAPACITY_PROPERTY, "16");
+
+    assertTrue(FlightRecorder.openShared().isEnabled());
+    assertEquals(FlightRecorder.HEADER_SIZE + 16 * FlightRecorder.SLOT_SIZE, file.length());
+  }
+
+  @Test
+  public void sharedRecorderIsDisabledByAnInvalidCapacity() {
+    System.setProperty(FlightRecorder.CAPACITY_PROPERTY, "-1");
+    assertFalse(FlightRecorder.openShared().isEnabled());
+
+    System.setProperty(FlightRecorder.CAPACITY_PROPERTY, String.valueOf(Integer.MAX_VALUE));
+    assertFalse(FlightRecorder.openShared().isEnabled());
+  }
+
+  @Test
+  public void sharedRecorderIsDisabledByTheProperty() {
+    System.setProperty(FlightRecorder.ENABLED_PROPERTY, "false");
+
+    assertFalse(FlightRecorder.openShared().isEnabled());
+  }
+
+}
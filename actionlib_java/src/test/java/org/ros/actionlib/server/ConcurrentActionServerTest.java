@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import actionlib_msgs.GoalID;
+import actionlib_msgs.GoalStatus;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.actionlib.ActionSpec;
+import org.ros.actionlib.ActionTestSupport;
+import org.ros.actionlib.util.GoalIDGenerator;
+import org.ros.actionlib.util.SharedMessageFactory;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+import org.ros.node.ConnectedNode;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests how the {@link ConcurrentActionServer} queues, cancels, preempts,
+ * aborts and rejects goals. The goals and cancel requests are handed to its
+ * {@link DefaultActionServer} directly, and the published results are
+ * recorded instead of being sent out.
+ */
+public class ConcurrentActionServerTest {
+
+  private static final long TIMEOUT_MILLIS = 5000;
+
+  private ActionSpec<?, FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> spec;
+  private ConnectedNode node;
+  private MessageFactory messageFactory;
+  private final List<FibonacciActionResult> results = new CopyOnWriteArrayList<FibonacciActionResult>();
+  private ConcurrentActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> server;
+
+  /**
+   * The GoalHandles passed to executeCallback and preemptCallback
+   */
+  private final List<ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>> executed =
+      new CopyOnWriteArrayList<ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>>();
+  private final List<ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>> preempted =
+      new CopyOnWriteArrayList<ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>>();
+
+  /**
+   * Counted down by the first executeCallback, which then blocks until the
+   * goals are released
+   */
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void setUp() throws Exception {
+    spec = ActionTestSupport.newFibonacciSpec();
+    node = ActionTestSupport.newConnectedNode("/concurrent_server_test");
+    messageFactory = SharedMessageFactory.get();
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    if (server != null) {
+      server.workers.shutdownNow();
+    }
+  }
+
+  @Test
+  public void fullQueueOfPendingGoalsRejectsGoals() throws Exception {
+    startServer(new BlockingCallbacks(), 1, 1);
+    String running = sendGoal(0);
+    assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+    String pending = sendGoal(1);
+    String rejected = sendGoal(2);
+
+    assertEquals(GoalStatus.REJECTED, statusOf(rejected));
+    assertEquals(GoalStatus.PENDING, statusOf(pending));
+    assertEquals(1, server.getPendingGoalCount());
+
+    release.countDown();
+    awaitStatus(running, GoalStatus.SUCCEEDED);
+    awaitStatus(pending, GoalStatus.SUCCEEDED);
+    assertEquals(2, executed.size());
+  }
+
+  @Test
+  public void canceledPendingGoalIsNotStartedByAWorkerThatAlreadyTookIt() throws Exception {
+    startServer(new BlockingCallbacks(), 1, 1);
+    String running = sendGoal(0);
+    assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    String pending = sendGoal(1);
+    Runnable execution = server.workers.getQueue().peek();
+
+    cancelGoal(pending);
+
+    assertEquals(GoalStatus.RECALLED, statusOf(pending));
+    assertEquals(0, server.getPendingGoalCount());
+
+    // A worker that took the goal from the queue right before the cancel
+    // request arrived loses the race for the goal.
+    execution.run();
+    assertEquals(1, executed.size());
+    assertEquals(GoalStatus.RECALLED, statusOf(pending));
+
+    release.countDown();
+    awaitStatus(running, GoalStatus.SUCCEEDED);
+  }
+
+  @Test
+  public void concurrentCancelRequestsEndEveryGoalExactlyOnce() throws Exception {
+    final int goals = 200;
+    startServer(new PreemptibleCallbacks(false), 4, goals);
+
+    Thread canceler = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < goals; i += 2) {
+          cancelGoal("goal-" + i);
+        }
+      }
+    });
+    canceler.start();
+    for (int i = 0; i < goals; i++) {
+      sendGoal(i);
+    }
+    canceler.join(TIMEOUT_MILLIS);
+    awaitResults(goals);
+
+    Set<String> finished = new HashSet<String>();
+    for (FibonacciActionResult result : results) {
+      GoalStatus goalStatus = spec.getGoalStatusFromActionResult(result);
+      assertTrue(finished.add(goalStatus.getGoalId().getId()));
+      byte status = goalStatus.getStatus();
+      assertTrue(status == GoalStatus.SUCCEEDED || status == GoalStatus.PREEMPTED
+          || status == GoalStatus.RECALLED);
+    }
+    for (ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle : executed) {
+      assertFalse(statusOf(goalHandle.getGoalID().getId()) == GoalStatus.RECALLED);
+    }
+    assertEquals(goals, finished.size());
+  }
+
+  @Test
+  public void preemptRequestReachesTheGoalHandleOfTheWorker() throws Exception {
+    startServer(new PreemptibleCallbacks(true), 1, 1);
+    String goal = sendGoal(0);
+    assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+    cancelGoal(goal);
+
+    assertEquals(1, preempted.size());
+    assertSame(executed.get(0), preempted.get(0));
+    assertTrue(server.isPreemptRequested(executed.get(0)));
+    awaitStatus(goal, GoalStatus.PREEMPTED);
+  }
+
+  @Test
+  public void exceptionInExecuteCallbackAbortsTheGoal() throws Exception {
+    startServer(new RecordingCallbacks() {
+      @Override
+      void execute(
+          ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+        throw new IllegalStateException("executeCallback failed");
+      }
+    }, 1, 1);
+
+    awaitStatus(sendGoal(0), GoalStatus.ABORTED);
+  }
+
+  @Test
+  public void goalLeftActiveByExecuteCallbackIsAborted() throws Exception {
+    startServer(new RecordingCallbacks() {
+      @Override
+      void execute(
+          ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+      }
+    }, 1, 1);
+
+    awaitStatus(sendGoal(0), GoalStatus.ABORTED);
+  }
+
+  @Test
+  public void shutdownRejectsQueuedGoals() throws Exception {
+    startServer(new BlockingCallbacks(), 1, 2);
+    sendGoal(0);
+    assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    String first = sendGoal(1);
+    String second = sendGoal(2);
+
+    server.shutdown();
+
+    assertEquals(GoalStatus.REJECTED, statusOf(first));
+    assertEquals(GoalStatus.REJECTED, statusOf(second));
+    assertTrue(server.workers.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    assertEquals(1, executed.size());
+  }
+
+  private void startServer(RecordingCallbacks callbacks, int maxConcurrentGoals, int maxPendingGoals) {
+    server =
+        new ConcurrentActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci", spec, callbacks, maxConcurrentGoals, maxPendingGoals);
+    DefaultActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionServer =
+        server.actionServer;
+    actionServer.node = node;
+    actionServer.idGenerator = new GoalIDGenerator(node);
+    actionServer.pubResult = ActionTestSupport.newRecordingPublisher(results);
+    actionServer.active = true;
+  }
+
+  private String sendGoal(int i) {
+    GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+    goalID.setId("goal-" + i);
+    goalID.setStamp(new Time(i + 1, 0));
+    server.actionServer.doGoalCallback(spec.createActionGoalMessage(spec.createGoalMessage(),
+        new Time(i + 1, 0), goalID));
+    return goalID.getId();
+  }
+
+  private void cancelGoal(String id) {
+    GoalID goalID = messageFactory.newFromType(GoalID._TYPE);
+    goalID.setId(id);
+    goalID.setStamp(new Time(0, 0));
+    server.actionServer.doCancelCallback(goalID);
+  }
+
+  private byte statusOf(String id) {
+    return server.actionServer.statusList.get(id).goalStatus.getStatus();
+  }
+
+  private void awaitStatus(String id, byte status) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (statusOf(id) != status) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Goal " + id + " is in status " + statusOf(id) + " instead of " + status);
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  private void awaitResults(int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (results.size() < count) {
+      if (System.currentTimeMillis() > deadline) {
+        fail(results.size() + " instead of " + count + " results were published");
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  /**
+   * Records the GoalHandles passed to its callbacks.
+   */
+  private abstract class RecordingCallbacks implements
+      ConcurrentActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> {
+
+    @Override
+    public void executeCallback(
+        FibonacciGoal goal,
+        ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+      executed.add(goalHandle);
+      execute(goalHandle);
+    }
+
+    @Override
+    public void preemptCallback(
+        ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+      preempted.add(goalHandle);
+    }
+
+    abstract void execute(
+        ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle);
+
+  }
+
+  /**
+   * Blocks the first goal until the goals are released, then succeeds every
+   * goal. An interrupted goal is left active.
+   */
+  private class BlockingCallbacks extends RecordingCallbacks {
+
+    @Override
+    void execute(
+        ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        return;
+      }
+      goalHandle.setSucceeded(spec.createResultMessage(), "");
+    }
+
+  }
+
+  /**
+   * Preempts a goal whose preemption was requested and succeeds all others.
+   * If told to, it waits for the preemption of a goal.
+   */
+  private class PreemptibleCallbacks extends RecordingCallbacks {
+
+    private final boolean waitForPreemption;
+
+    PreemptibleCallbacks(boolean waitForPreemption) {
+      this.waitForPreemption = waitForPreemption;
+    }
+
+    @Override
+    void execute(
+        ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalHandle) {
+      started.countDown();
+      long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+      while (waitForPreemption && !server.isPreemptRequested(goalHandle)
+          && System.currentTimeMillis() < deadline) {
+        Thread.yield();
+      }
+      if (server.isPreemptRequested(goalHandle)) {
+        goalHandle.setCanceled(spec.createResultMessage(), "");
+      } else {
+        goalHandle.setSucceeded(spec.createResultMessage(), "");
+      }
+    }
+
+  }
+
+}
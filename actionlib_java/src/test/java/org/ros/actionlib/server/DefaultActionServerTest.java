@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import actionlib_msgs.GoalStatus;
+import actionlib_tutorials.FibonacciActionFeedback;
+import actionlib_tutorials.FibonacciActionGoal;
+import actionlib_tutorials.FibonacciActionResult;
+import actionlib_tutorials.FibonacciFeedback;
+import actionlib_tutorials.FibonacciGoal;
+import actionlib_tutorials.FibonacciResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.actionlib.ActionTestSupport;
+import org.ros.actionlib.util.GoalIDGenerator;
+import org.ros.message.Duration;
+import org.ros.message.Time;
+import org.ros.node.ConnectedNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tests how a {@link DefaultActionServer} rebuilds its status table from its
+ * {@link GoalJournal} after a restart. The published results are recorded
+ * instead of being sent out.
+ */
+public class DefaultActionServerTest {
+
+  private static final Log log = LogFactory.getLog(DefaultActionServerTest.class);
+
+  private File file;
+  private final List<FibonacciActionResult> results = new CopyOnWriteArrayList<FibonacciActionResult>();
+  private DefaultActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> actionServer;
+
+  @Before
+  public void setUp() throws Exception {
+    file = File.createTempFile("actionlib-server-test", ".journal");
+    ConnectedNode node = ActionTestSupport.newConnectedNode("/default_server_test");
+    actionServer =
+        new DefaultActionServer<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>(
+            "fibonacci",
+            ActionTestSupport.newFibonacciSpec(),
+            new ActionServerCallbacks<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult>() {
+              @Override
+              public void goalCallback(
+                  ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goal) {
+              }
+
+              @Override
+              public void cancelCallback(
+                  ServerGoalHandle<FibonacciActionFeedback, FibonacciActionGoal, FibonacciActionResult, FibonacciFeedback, FibonacciGoal, FibonacciResult> goalToCancel) {
+              }
+            });
+    actionServer.node = node;
+    actionServer.idGenerator = new GoalIDGenerator(node);
+    actionServer.pubResult = ActionTestSupport.newRecordingPublisher(results);
+    actionServer.statusListTimeout = new Duration(5, 0);
+    actionServer.active = true;
+  }
+
+  @After
+  public void tearDown() {
+    GoalJournal journal = actionServer.journal;
+    if (journal != null) {
+      journal.close();
+    }
+    file.delete();
+  }
+
+  @Test
+  public void recoveryAbortsUnfinishedGoals() throws Exception {
+    Time now = Time.fromMillis(System.currentTimeMillis());
+    GoalJournal journal = GoalJournal.open(file, log);
+    journal.goalAccepted("goal-expired", new Time(1, 0), new Time(1, 0));
+    journal.goalFinished("goal-expired", new Time(1, 0), GoalStatus.SUCCEEDED, "", new Time(2, 0));
+    journal.goalAccepted("goal-finished", new Time(3, 0), now);
+    journal.goalFinished("goal-finished", new Time(3, 0), GoalStatus.PREEMPTED, "canceled", now);
+    journal.goalAccepted("goal-unfinished", new Time(4, 0), now);
+    journal.close();
+
+    actionServer.journal = GoalJournal.open(file, log);
+    actionServer.recoverGoals();
+
+    assertNull(actionServer.statusList.get("goal-expired"));
+    GoalStatus finished = actionServer.statusList.get("goal-finished").goalStatus;
+    assertEquals(GoalStatus.PREEMPTED, finished.getStatus());
+    assertEquals("canceled", finished.getText());
+    GoalStatus aborted = actionServer.statusList.get("goal-unfinished").goalStatus;
+    assertEquals(GoalStatus.ABORTED, aborted.getStatus());
+    assertEquals(new Time(4, 0), aborted.getGoalId().getStamp());
+
+    // Only the aborted goal gets a result, which is journaled as well.
+    assertEquals(1, results.size());
+    assertEquals("goal-unfinished", results.get(0).getStatus().getGoalId().getId());
+    assertEquals(GoalStatus.ABORTED, results.get(0).getStatus().getStatus());
+    assertTrue(isAbortedInJournal("goal-unfinished"));
+  }
+
+  private boolean isAbortedInJournal(String goalID) throws IOException {
+    actionServer.journal.close();
+    actionServer.journal = GoalJournal.open(file, log);
+    for (GoalJournal.RecoveredGoal goal : actionServer.journal.getRecoveredGoals()) {
+      if (goal.getGoalID().equals(goalID)) {
+        return goal.isFinished() && goal.getStatus() == GoalStatus.ABORTED;
+      }
+    }
+    return false;
+  }
+
+}
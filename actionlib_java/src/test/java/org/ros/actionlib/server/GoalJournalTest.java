@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import actionlib_msgs.GoalStatus;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.message.Time;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the recovery of goals from a {@link GoalJournal} and its compaction.
+ * All goal ids have the same length and no status text, so all records of a
+ * journal have the same size.
+ */
+public class GoalJournalTest {
+
+  private static final Log log = LogFactory.getLog(GoalJournalTest.class);
+
+  private File file;
+  private GoalJournal journal;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("actionlib-journal-test", ".journal");
+  }
+
+  @After
+  public void tearDown() {
+    if (journal != null) {
+      journal.close();
+    }
+    file.delete();
+  }
+
+  @Test
+  public void goalsAreRecoveredWithTheirLatestStatus() throws Exception {
+    journal = GoalJournal.open(file, log);
+    journal.goalAccepted("goal-a", new Time(1, 0), new Time(10, 0));
+    journal.goalAccepted("goal-b", new Time(2, 0), new Time(11, 0));
+    journal.goalFinished("goal-a", new Time(1, 0), GoalStatus.SUCCEEDED, "done", new Time(12, 0));
+    reopen();
+
+    List<GoalJournal.RecoveredGoal> goals = journal.getRecoveredGoals();
+    assertEquals(Arrays.asList("goal-a", "goal-b"), goalIDs());
+    assertTrue(goals.get(0).isFinished());
+    assertEquals(GoalStatus.SUCCEEDED, goals.get(0).getStatus());
+    assertEquals("done", goals.get(0).getText());
+    assertEquals(new Time(1, 0), goals.get(0).getStamp());
+    assertEquals(new Time(12, 0), goals.get(0).getTime());
+    assertFalse(goals.get(1).isFinished());
+    assertEquals(new Time(2, 0), goals.get(1).getStamp());
+  }
+
+  @Test
+  public void tornRecordAtTheEndIsTruncated() throws Exception {
+    journal = GoalJournal.open(file, log);
+    journal.goalAccepted("goal-a", new Time(1, 0), new Time(10, 0));
+    journal.goalAccepted("goal-b", new Time(2, 0), new Time(11, 0));
+    close();
+    long recordSize = file.length() / 2;
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.setLength(file.length() - 3);
+    } finally {
+      raf.close();
+    }
+
+    journal = GoalJournal.open(file, log);
+
+    assertEquals(Arrays.asList("goal-a"), goalIDs());
+    assertEquals(recordSize, file.length());
+
+    // New records follow the last intact record.
+    journal.goalAccepted("goal-c", new Time(3, 0), new Time(12, 0));
+    reopen();
+    assertEquals(Arrays.asList("goal-a", "goal-c"), goalIDs());
+  }
+
+  @Test
+  public void checksumMismatchStopsTheRecovery() throws Exception {
+    journal = GoalJournal.open(file, log);
+    journal.goalAccepted("goal-a", new Time(1, 0), new Time(10, 0));
+    journal.goalAccepted("goal-b", new Time(2, 0), new Time(11, 0));
+    journal.goalAccepted("goal-c", new Time(3, 0), new Time(12, 0));
+    close();
+    long recordSize = file.length() / 3;
+    // Corrupts the last byte of the goal id of the second record.
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.seek(2 * recordSize - 5);
+      raf.writeByte('x');
+    } finally {
+      raf.close();
+    }
+
+    journal = GoalJournal.open(file, log);
+
+    // The records after the corrupted one are discarded too, as the journal
+    // cannot tell where they start.
+    assertEquals(Arrays.asList("goal-a"), goalIDs());
+    assertEquals(recordSize, file.length());
+  }
+
+  @Test
+  public void compactionKeepsExactlyTheUnfinishedGoals() throws Exception {
+    // Every commit exceeds the size limit, so only the doubling of the file
+    // since the previous compaction decides when it is compacted. Every record
+    // is committed on its own.
+    journal = GoalJournal.open(file, 1, log);
+    accept("goal-a");
+    long recordSize = file.length();
+    accept("goal-b");
+    assertEquals(2 * recordSize, file.length());
+    accept("goal-c");
+    assertEquals(3 * recordSize, file.length());
+
+    finish("goal-a");
+    finish("goal-b");
+    accept("goal-d");
+    assertEquals(6 * recordSize, file.length());
+    accept("goal-e");
+    assertEquals(3 * recordSize, file.length());
+
+    reopen();
+    assertEquals(Arrays.asList("goal-c", "goal-d", "goal-e"), goalIDs());
+    for (GoalJournal.RecoveredGoal goal : journal.getRecoveredGoals()) {
+      assertFalse(goal.isFinished());
+    }
+  }
+
+  private void accept(String goalID) throws Exception {
+    journal.goalAccepted(goalID, new Time(1, 0), new Time(10, 0));
+    journal.sync();
+  }
+
+  private void finish(String goalID) throws Exception {
+    journal.goalFinished(goalID, new Time(1, 0), GoalStatus.SUCCEEDED, "", new Time(11, 0));
+    journal.sync();
+  }
+
+  private void close() {
+    journal.close();
+    journal = null;
+  }
+
+  private void reopen() throws IOException {
+    close();
+    journal = GoalJournal.open(file, log);
+  }
+
+  private List<String> goalIDs() {
+    List<String> goalIDs = new ArrayList<String>();
+    for (GoalJournal.RecoveredGoal goal : journal.getRecoveredGoals()) {
+      goalIDs.add(goal.getGoalID());
+    }
+    return goalIDs;
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 The cob_rosjava_extras Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.actionlib.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import actionlib_msgs.GoalID;
+import org.junit.Test;
+import org.ros.actionlib.ActionTestSupport;
+import org.ros.node.ConnectedNode;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link GoalIDGenerator}.
+ */
+public class GoalIDGeneratorTest {
+
+  private static final int GENERATORS = 4;
+  private static final int THREADS_PER_GENERATOR = 4;
+  private static final int IDS_PER_THREAD = 10000;
+
+  @Test
+  public void idStartsWithNodeName() {
+    GoalID goalID = new GoalIDGenerator(ActionTestSupport.newConnectedNode("/id_test")).generateID();
+    assertTrue(goalID.getId(), goalID.getId().startsWith("/id_test-"));
+  }
+
+  @Test
+  public void concurrentGeneratorsNeverRepeatAnId() throws Exception {
+    // All generators belong to nodes of the same name, so only the shared
+    // count keeps their ids apart.
+    GoalIDGenerator[] generators = new GoalIDGenerator[GENERATORS];
+    for (int i = 0; i < GENERATORS; i++) {
+      ConnectedNode node = ActionTestSupport.newConnectedNode("/id_test");
+      generators[i] = new GoalIDGenerator(node);
+    }
+
+    final Set<String> ids = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(GENERATORS * THREADS_PER_GENERATOR);
+    try {
+      Future<?>[] futures = new Future<?>[GENERATORS * THREADS_PER_GENERATOR];
+      for (int t = 0; t < futures.length; t++) {
+        final GoalIDGenerator generator = generators[t % GENERATORS];
+        futures[t] = executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws InterruptedException {
+            start.await();
+            for (int i = 0; i < IDS_PER_THREAD; i++) {
+              String id = generator.generateID().getId();
+              assertTrue("Duplicate goal id " + id, ids.add(id));
+            }
+            return null;
+          }
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(GENERATORS * THREADS_PER_GENERATOR * IDS_PER_THREAD, ids.size());
+  }
+
+}